@@ -2,9 +2,7 @@ package com.example.coursework1;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 @EnableAsync
@@ -13,9 +11,4 @@ public class Coursework1Application {
     public static void main(String[] args) {
         SpringApplication.run(Coursework1Application.class, args);
     }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.coursework1.config;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP session handler whose sessions drop their oldest buffered frames once the send buffer
+ * limit is reached, instead of being closed as with the default decoration. Telemetry frames are
+ * superseded by the next one, so a slow client is better served by losing some than by losing
+ * its connection. The send time limit still closes a session whose transport is stuck.
+ */
+public class DroppingSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    public DroppingSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                               SubscribableChannel clientOutboundChannel) {
+        super(clientInboundChannel, clientOutboundChannel);
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        return new ConcurrentWebSocketSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.coursework1.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP client used for all ILP calls.
+ *
+ * By default a pooled Apache HttpClient 5 with bounded per-route connections, keep-alive and
+ * connect/read/lease timeouts, so a slow ILP endpoint fails fast instead of pinning request
+ * threads. Pool usage is published as {@code httpcomponents.httpclient.pool.*} metrics.
+ * Setting {@code ilp.http.http2=true} switches to the JDK client, which negotiates HTTP/2 and
+ * manages its own connection pool; the Apache pool and its metrics are then not created.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    @Value("${ilp.http.max-total:50}")
+    private int maxTotal;
+
+    @Value("${ilp.http.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${ilp.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${ilp.http.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${ilp.http.lease-timeout:2s}")
+    private Duration leaseTimeout;
+
+    @Value("${ilp.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${ilp.http.http2:false}")
+    private boolean http2;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "ilp.http.http2", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager ilpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "ilp.http.http2", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient ilpHttpClient(PoolingHttpClientConnectionManager ilpConnectionManager) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+        return HttpClients.custom()
+                .setConnectionManager(ilpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(leaseTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                // Honour the server's Keep-Alive header, but never hold an idle connection longer than configured
+                .setKeepAliveStrategy((response, context) -> DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictIdleConnections(maxKeepAlive)
+                // IlpClient negotiates gzip itself and needs to see Content-Encoding
+                .disableContentCompression()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ilp.http.http2", havingValue = "false", matchIfMissing = true)
+    public MeterBinder ilpConnectionPoolMetrics(PoolingHttpClientConnectionManager ilpConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(ilpConnectionManager, "ilp");
+    }
+
+    @Bean
+    public RestTemplate restTemplate(ObjectProvider<CloseableHttpClient> ilpHttpClient) {
+        ClientHttpRequestFactory factory;
+        if (http2) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build();
+            JdkClientHttpRequestFactory jdkFactory = new JdkClientHttpRequestFactory(client);
+            jdkFactory.setReadTimeout(readTimeout);
+            factory = jdkFactory;
+            logger.info("ILP HTTP client: JDK HTTP/2 (connect {}, read {})", connectTimeout, readTimeout);
+        } else {
+            factory = new HttpComponentsClientHttpRequestFactory(ilpHttpClient.getObject());
+            logger.info("ILP HTTP client: pooled HttpClient 5 (max {} per route, {} total, connect {}, read {})",
+                    maxPerRoute, maxTotal, connectTimeout, readTimeout);
+        }
+        return new RestTemplate(factory);
+    }
+}
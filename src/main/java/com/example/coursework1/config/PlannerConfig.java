@@ -0,0 +1,21 @@
+package com.example.coursework1.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class PlannerConfig {
+
+    /**
+     * Bounded pool for parallel multi-drone planning. Kept separate from the common pool so
+     * large planning requests cannot starve other parallel streams in the application.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool planningPool(@Value("${planner.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+}
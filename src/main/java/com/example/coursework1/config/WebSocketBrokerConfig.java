@@ -0,0 +1,28 @@
+package com.example.coursework1.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+/**
+ * Stands in for {@code @EnableWebSocketMessageBroker} so the STOMP endpoint uses
+ * {@link DroppingSubProtocolWebSocketHandler}; {@link WebSocketConfig} still supplies the broker,
+ * endpoint and transport settings.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        DroppingSubProtocolWebSocketHandler handler =
+                new DroppingSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel);
+        handler.setPhase(getPhase());
+        return handler;
+    }
+}
@@ -1,13 +1,28 @@
 package com.example.coursework1.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.*;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.time.Duration;
+
+/** Broker, endpoint and transport settings; the broker itself is enabled by {@link WebSocketBrokerConfig}. */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final Duration sendTimeLimit;
+    private final DataSize sendBufferLimit;
+
+    public WebSocketConfig(@Value("${telemetry.session.send-time-limit:5s}") Duration sendTimeLimit,
+                           @Value("${telemetry.session.send-buffer-limit:256KB}") DataSize sendBufferLimit) {
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferLimit = sendBufferLimit;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
@@ -23,4 +38,15 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setHttpMessageCacheSize(1000)
                 .setSessionCookieNeeded(false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Per-session backpressure: messages for a client that cannot keep up are buffered up to the
+     * limit and then the oldest are dropped by {@link DroppingSubProtocolWebSocketHandler}, rather
+     * than blocking the broker or closing the session.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferLimit.toBytes());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.coursework1.controllers;
+
+import com.example.coursework1.repository.ReferenceDataCache;
+import com.example.coursework1.repository.ReferenceSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+public class CacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+    private final ReferenceDataCache referenceDataCache;
+    private final ReferenceSnapshotStore referenceSnapshotStore;
+
+    public CacheController(ReferenceDataCache referenceDataCache, ReferenceSnapshotStore referenceSnapshotStore) {
+        this.referenceDataCache = referenceDataCache;
+        this.referenceSnapshotStore = referenceSnapshotStore;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> datasets() {
+        return ResponseEntity.ok(Map.of("datasets", referenceDataCache.getDatasets()));
+    }
+
+    /**
+     * Drops cached ILP reference data so the next request refetches it. Without a
+     * {@code dataset} parameter every dataset is invalidated.
+     */
+    @PostMapping("/invalidate")
+    public ResponseEntity<Map<String, Object>> invalidate(@RequestParam(required = false) String dataset) {
+        if (dataset == null || dataset.isBlank()) {
+            List<String> invalidated = referenceDataCache.invalidateAll();
+            logger.info("Invalidated all reference data: {}", invalidated);
+            return ResponseEntity.ok(Map.of("invalidated", invalidated));
+        }
+
+        if (!referenceDataCache.invalidate(dataset)) {
+            throw new ResourceNotFoundException("No cached dataset named " + dataset);
+        }
+        return ResponseEntity.ok(Map.of("invalidated", List.of(dataset)));
+    }
+
+    /** Writes the cached reference data to the binary snapshot file, if one is configured. */
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() throws IOException {
+        boolean written = referenceSnapshotStore.save();
+        return ResponseEntity.ok(Map.of("enabled", referenceSnapshotStore.isEnabled(), "written", written));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.coursework1.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Embedded stand-in for the ILP REST service, serving the local fixtures on the same paths
+ * ({@code /ilp-stub/drones}, {@code /ilp-stub/service-points}, ...). Enabled with
+ * {@code ilp.stub.enabled=true}; point {@code ILP_ENDPOINT} at it to exercise the full HTTP path,
+ * including ETag revalidation, without the network.
+ */
+@RestController
+@RequestMapping("/ilp-stub")
+@ConditionalOnProperty(name = "ilp.stub.enabled", havingValue = "true")
+public class IlpStubController {
+
+    private static final Logger logger = LoggerFactory.getLogger(IlpStubController.class);
+    private static final Set<String> DATASETS =
+            Set.of("drones", "service-points", "restricted-areas", "drones-for-service-points");
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    public IlpStubController(ResourceLoader resourceLoader,
+                             @Value("${ilp.fixtures.location:classpath:ilp-fixtures/}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    @GetMapping("/{dataset}")
+    public ResponseEntity<byte[]> dataset(@PathVariable String dataset, WebRequest request) throws IOException {
+        Resource resource = resourceLoader.getResource(location + dataset + ".json");
+        if (!DATASETS.contains(dataset) || !resource.exists()) {
+            throw new ResourceNotFoundException("ILP dataset", dataset);
+        }
+
+        byte[] body;
+        try (InputStream in = resource.getInputStream()) {
+            body = in.readAllBytes();
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        if (request.checkNotModified(etag)) {
+            logger.debug("ILP stub: {} not modified", dataset);
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.coursework1.controllers;
+
+import com.example.coursework1.service.PlanningJobService;
+import com.example.coursework1.service.PlanningJobService.JobView;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/plans")
+public class PlanningJobController {
+
+    private final PlanningJobService planningJobService;
+
+    public PlanningJobController(PlanningJobService planningJobService) {
+        this.planningJobService = planningJobService;
+    }
+
+    /** State of a planning job submitted with {@code async=true}, including its result once done. */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobView> job(@PathVariable String id) {
+        return planningJobService.find(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Planning job", id));
+    }
+}
@@ -7,15 +7,19 @@ import com.example.coursework1.service.DroneDispatchService.DeliveryRequest;
 import com.example.coursework1.service.DroneDispatchService.DeliverySubmissionResult;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import com.example.coursework1.dto.BatchDeliveryRequest;
 
 @RestController
@@ -26,7 +30,8 @@ public class SimpleController {
     private final NavigationService navigationService;
     private final RegionService regionService;
     private final DroneService droneService;
-    private final DeliveryPlannerService deliveryPlannerService;
+    private final PlanImprovementService planImprovementService;
+    private final PlanningJobService planningJobService;
     private final DroneAvailabilityService droneAvailabilityService;
     private final GeoJsonService geoJsonService;
 
@@ -37,14 +42,16 @@ public class SimpleController {
                             NavigationService navigationService,
                             RegionService regionService,
                             DroneService droneService,
-                            DeliveryPlannerService deliveryPlannerService,
+                            PlanImprovementService planImprovementService,
+                            PlanningJobService planningJobService,
                             DroneAvailabilityService droneAvailabilityService,
                             GeoJsonService geoJsonService) {
         this.distanceService = distanceService;
         this.navigationService = navigationService;
         this.regionService = regionService;
         this.droneService = droneService;
-        this.deliveryPlannerService = deliveryPlannerService;
+        this.planImprovementService = planImprovementService;
+        this.planningJobService = planningJobService;
         this.droneAvailabilityService = droneAvailabilityService;
         this.geoJsonService = geoJsonService;
     }
@@ -118,18 +125,30 @@ public class SimpleController {
     }
 
     @PostMapping("/calcDeliveryPath")
-    public ResponseEntity<CalcDeliveryResult> calcDeliveryPath(
-            @RequestBody List<MedDispatchRec> recs) {
-
-        CalcDeliveryResult result = deliveryPlannerService.calcDeliveryPath(recs);
+    public ResponseEntity<?> calcDeliveryPath(
+            @RequestBody List<MedDispatchRec> recs,
+            @ModelAttribute PlanningOptions options,
+            @RequestParam(defaultValue = "false") boolean async) {
+
+        if (async) {
+            return accepted(planningJobService.submit("calcDeliveryPath",
+                    () -> planImprovementService.plan(recs, options)));
+        }
+        CalcDeliveryResult result = planImprovementService.plan(recs, options);
         return ResponseEntity.ok(result);
     }
 
     @PostMapping("/calcDeliveryPathAsGeoJson")
     public ResponseEntity<?> calcDeliveryPathAsGeoJson(
-            @RequestBody List<MedDispatchRec> recs) {
+            @RequestBody List<MedDispatchRec> recs,
+            @ModelAttribute PlanningOptions options,
+            @RequestParam(defaultValue = "false") boolean async) {
 
-        Object geoJson = geoJsonService.calcDeliveryPathAsGeoJson(recs);
+        if (async) {
+            return accepted(planningJobService.submit("calcDeliveryPathAsGeoJson",
+                    () -> geoJsonService.calcDeliveryPathAsGeoJson(recs, options)));
+        }
+        Object geoJson = geoJsonService.calcDeliveryPathAsGeoJson(recs, options);
         return ResponseEntity.ok(geoJson);
     }
 
@@ -184,7 +203,8 @@ public class SimpleController {
     }
 
     @PostMapping("submitBatch")
-    public ResponseEntity<Map<String, Object>> submitBatch(@RequestBody BatchDeliveryRequest batchRequest) {
+    public ResponseEntity<?> submitBatch(@RequestBody BatchDeliveryRequest batchRequest,
+                                         @RequestParam(defaultValue = "false") boolean async) {
         logger.info("Received batch submission: {}", batchRequest.getBatchId());
         logger.info("Batch contains {} deliveries", batchRequest.getDeliveries().size());
 
@@ -216,10 +236,21 @@ public class SimpleController {
                 return ResponseEntity.ok(errorResponse);
             }
 
+            if (async) {
+                return accepted(planningJobService.submit("submitBatch",
+                        () -> droneDispatchService.submitBatch(batchRequest)));
+            }
             Map<String, Object> result = droneDispatchService.submitBatch(batchRequest);
 
             return ResponseEntity.ok(result);
 
+        } catch (RejectedExecutionException e) {
+            logger.warn("Planner busy, rejecting batch {}", batchRequest.getBatchId());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Planner is busy, please retry shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
         } catch (Exception e) {
             logger.error("Error processing batch: {}", e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -228,4 +259,9 @@ public class SimpleController {
             return ResponseEntity.ok(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /** 202 pointing at the job's polling endpoint. */
+    private ResponseEntity<PlanningJobService.JobView> accepted(PlanningJobService.JobView job) {
+        return ResponseEntity.accepted().location(URI.create("/api/v1/plans/" + job.id())).body(job);
+    }
+}
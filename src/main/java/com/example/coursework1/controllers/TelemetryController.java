@@ -0,0 +1,33 @@
+package com.example.coursework1.controllers;
+
+import com.example.coursework1.model.Polyline;
+import com.example.coursework1.service.TelemetryAggregator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/telemetry")
+public class TelemetryController {
+
+    private final TelemetryAggregator telemetryAggregator;
+
+    public TelemetryController(TelemetryAggregator telemetryAggregator) {
+        this.telemetryAggregator = telemetryAggregator;
+    }
+
+    /**
+     * Route registrations of the missions in flight and the status-code table, for clients that
+     * subscribe to the delta-encoded fleet frames after those missions started.
+     */
+    @GetMapping("/routes")
+    public ResponseEntity<Map<String, Object>> routes() {
+        return ResponseEntity.ok(Map.of(
+                "statuses", TelemetryAggregator.STATUSES,
+                "precision", Polyline.DEFAULT_PRECISION,
+                "routes", telemetryAggregator.getActiveRoutes()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.coursework1.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class CalcDeliveryResult {
@@ -8,6 +10,14 @@ public class CalcDeliveryResult {
     private int totalMoves;
     private List<DronePathResult> dronePaths;
 
+    // Only set when the request had a planning budget
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean optimal;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean partial;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String improvementId;
+
     public CalcDeliveryResult() {}
 
     public CalcDeliveryResult(double totalCost, int totalMoves, List<DronePathResult> dronePaths) {
@@ -23,4 +33,16 @@ public class CalcDeliveryResult {
     public void setTotalCost(double totalCost) { this.totalCost = totalCost; }
     public void setTotalMoves(int totalMoves) { this.totalMoves = totalMoves; }
     public void setDronePaths(List<DronePathResult> dronePaths) { this.dronePaths = dronePaths; }
+
+    /** The planner finished within its budget, so a larger budget would return the same plan. */
+    public Boolean getOptimal() { return optimal; }
+    public void setOptimal(Boolean optimal) { this.optimal = optimal; }
+
+    /** The budget ran out before every dispatch was placed. */
+    public Boolean getPartial() { return partial; }
+    public void setPartial(Boolean partial) { this.partial = partial; }
+
+    /** Id under which a plan improved in the background will be published. */
+    public String getImprovementId() { return improvementId; }
+    public void setImprovementId(String improvementId) { this.improvementId = improvementId; }
 }
\ No newline at end of file
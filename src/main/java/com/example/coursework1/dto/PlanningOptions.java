@@ -0,0 +1,133 @@
+package com.example.coursework1.dto;
+
+import com.example.coursework1.model.RestrictedAreaIndex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-request planner settings, bound from query parameters on the planning endpoints.
+ */
+public class PlanningOptions {
+
+    private RoutingEngine engine = RoutingEngine.ASTAR;
+    private boolean parallel;
+    private boolean multiBase;
+    private boolean optimize;
+    private Long maxPlanningMillis;
+    private boolean improve;
+
+    // Per-request clock set by the planner, never bound from query parameters
+    private Long deadlineNanos;
+    private AtomicBoolean cutShort = new AtomicBoolean();
+    private RestrictedAreaIndex restrictedAreas;
+
+    public PlanningOptions() {}
+
+    public PlanningOptions(RoutingEngine engine) {
+        this.engine = engine;
+    }
+
+    public static PlanningOptions defaults() {
+        return new PlanningOptions();
+    }
+
+    public RoutingEngine getEngine() { return engine; }
+    public void setEngine(RoutingEngine engine) { this.engine = engine != null ? engine : RoutingEngine.ASTAR; }
+
+    /** Plan independent partitions of a multi-drone request concurrently. */
+    public boolean isParallel() { return parallel; }
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+
+    /**
+     * Launch each drone from its own home service point and send each dispatch to the nearest
+     * base with a capable drone, instead of flying every drone from the first service point.
+     */
+    public boolean isMultiBase() { return multiBase; }
+    public void setMultiBase(boolean multiBase) { this.multiBase = multiBase; }
+
+    /**
+     * Group multi-drone dispatches into flights with a vehicle-routing optimiser instead of the
+     * greedy nearest-neighbour planner.
+     */
+    public boolean isOptimize() { return optimize; }
+    public void setOptimize(boolean optimize) { this.optimize = optimize; }
+
+    /**
+     * Overall planning budget. When it runs out the planner stops taking on work and returns the
+     * best complete flights found so far; {@code null} means no limit.
+     */
+    public Long getMaxPlanningMillis() { return maxPlanningMillis; }
+    public void setMaxPlanningMillis(Long maxPlanningMillis) {
+        this.maxPlanningMillis = maxPlanningMillis != null && maxPlanningMillis > 0 ? maxPlanningMillis : null;
+    }
+
+    /** If the budget cut planning short, keep planning in the background and publish the result. */
+    public boolean isImprove() { return improve; }
+    public void setImprove(boolean improve) { this.improve = improve; }
+
+    /** Copy of these options with parallel planning switched off, for use inside a partition. */
+    public PlanningOptions serial() {
+        PlanningOptions copy = copy();
+        copy.setParallel(false);
+        return copy;
+    }
+
+    /** Copy with another budget and no background improvement, for re-planning a request. */
+    public PlanningOptions withBudget(Long maxPlanningMillis) {
+        PlanningOptions copy = copy();
+        copy.setMaxPlanningMillis(maxPlanningMillis);
+        copy.setImprove(false);
+        copy.deadlineNanos = null;
+        copy.cutShort = new AtomicBoolean();
+        copy.restrictedAreas = null;
+        return copy;
+    }
+
+    /** Copy whose deadline is {@code maxPlanningMillis} from now, for one planning run. */
+    public PlanningOptions startClock() {
+        PlanningOptions copy = withBudget(maxPlanningMillis);
+        copy.setImprove(improve);
+        if (maxPlanningMillis != null) {
+            copy.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxPlanningMillis);
+        }
+        return copy;
+    }
+
+    /** Whether the deadline has passed; remembers that planning was cut short if so. */
+    public boolean isOutOfTime() {
+        if (deadlineNanos == null || System.nanoTime() - deadlineNanos < 0) {
+            return false;
+        }
+        cutShort.set(true);
+        return true;
+    }
+
+    /** Nanoseconds left before the deadline, or {@link Long#MAX_VALUE} without one. */
+    public long remainingNanos() {
+        return deadlineNanos == null ? Long.MAX_VALUE : Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public void markCutShort() { cutShort.set(true); }
+    public boolean wasCutShort() { return cutShort.get(); }
+
+    /** Restricted areas captured for this run, or {@code null} to use the current ones. */
+    public RestrictedAreaIndex getRestrictedAreas() { return restrictedAreas; }
+
+    /** Plans every leg of this run against {@code areas}; set by the planner, never bound. */
+    public void useRestrictedAreas(RestrictedAreaIndex areas) { this.restrictedAreas = areas; }
+
+    // Copies share the clock, so partitions planned concurrently report into the same run
+    private PlanningOptions copy() {
+        PlanningOptions copy = new PlanningOptions(engine);
+        copy.setParallel(parallel);
+        copy.setMultiBase(multiBase);
+        copy.setOptimize(optimize);
+        copy.setMaxPlanningMillis(maxPlanningMillis);
+        copy.setImprove(improve);
+        copy.deadlineNanos = deadlineNanos;
+        copy.cutShort = cutShort;
+        copy.restrictedAreas = restrictedAreas;
+        return copy;
+    }
+}
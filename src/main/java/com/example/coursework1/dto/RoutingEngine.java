@@ -0,0 +1,13 @@
+package com.example.coursework1.dto;
+
+/**
+ * Leg router used by the delivery planner.
+ *
+ * ASTAR searches the 16-direction move lattice directly. VISIBILITY routes over a
+ * visibility graph of restricted-area corners and falls back to A* where needed; it is
+ * faster on long legs.
+ */
+public enum RoutingEngine {
+    ASTAR,
+    VISIBILITY
+}
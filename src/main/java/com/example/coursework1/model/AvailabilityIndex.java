@@ -0,0 +1,156 @@
+package com.example.coursework1.model;
+
+import com.example.coursework1.dto.DroneWithAvailability;
+import com.example.coursework1.dto.ServicePointDrones;
+import com.example.coursework1.dto.TimeWindow;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable per-drone availability bitmaps at minute-of-week resolution.
+ *
+ * Built once per fetch of the drones-for-service-points data: each drone's time windows are
+ * parsed once and flattened into a 10,080-bit map (Monday 00:00 is slot 0), so an availability
+ * check is a single bit lookup. A slot is set when the start of that minute lies inside a window,
+ * inclusive at both ends; dispatch times are truncated to the minute. Drones without any windows
+ * are not constrained.
+ */
+public final class AvailabilityIndex {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int SLOTS = 7 * MINUTES_PER_DAY;
+    /** Slot value for a dispatch with no usable date or time; such dispatches are never restricted. */
+    public static final int UNKNOWN_SLOT = -1;
+
+    private static final int WORDS = (SLOTS + 63) >>> 6;
+    private static final DateTimeFormatter[] TIME_FORMATS = {
+            DateTimeFormatter.ofPattern("HH:mm:ss"),
+            DateTimeFormatter.ofPattern("H:mm:ss"),
+            DateTimeFormatter.ofPattern("HH:mm"),
+            DateTimeFormatter.ofPattern("H:mm")
+    };
+
+    private final List<ServicePointDrones> source;
+    private final Map<String, long[]> bitmaps;
+
+    private AvailabilityIndex(List<ServicePointDrones> source, Map<String, long[]> bitmaps) {
+        this.source = source;
+        this.bitmaps = bitmaps;
+    }
+
+    public static AvailabilityIndex build(List<ServicePointDrones> servicePointData) {
+        if (servicePointData == null) {
+            return new AvailabilityIndex(null, Collections.emptyMap());
+        }
+
+        Map<String, long[]> bitmaps = new HashMap<>();
+        for (ServicePointDrones spData : servicePointData) {
+            if (spData == null || spData.getDrones() == null) continue;
+
+            for (DroneWithAvailability drone : spData.getDrones()) {
+                List<TimeWindow> windows = drone.getAvailability();
+                if (windows == null || windows.isEmpty()) continue;
+
+                // A later service point listing the same drone replaces the earlier windows.
+                long[] bits = new long[WORDS];
+                for (TimeWindow window : windows) {
+                    markWindow(bits, window);
+                }
+                bitmaps.put(drone.getId(), bits);
+            }
+        }
+        return new AvailabilityIndex(servicePointData, bitmaps);
+    }
+
+    /** The list this index was built from, used to detect when a rebuild is needed. */
+    public List<ServicePointDrones> getSource() {
+        return source;
+    }
+
+    /** Whether the drone has any availability windows at all. */
+    public boolean isConstrained(String droneId) {
+        return bitmaps.containsKey(droneId);
+    }
+
+    /** Whether the drone is available at the given minute-of-week slot. */
+    public boolean isAvailable(String droneId, int slot) {
+        if (slot < 0 || slot >= SLOTS) {
+            return true;
+        }
+        long[] bits = bitmaps.get(droneId);
+        return bits == null || (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Minute-of-week slot for a dispatch date and time, or {@link #UNKNOWN_SLOT} when either is
+     * missing or unparseable.
+     */
+    public static int slotOf(String date, String time) {
+        if (date == null || time == null) {
+            return UNKNOWN_SLOT;
+        }
+        LocalTime localTime = parseTime(time);
+        if (localTime == null) {
+            return UNKNOWN_SLOT;
+        }
+        try {
+            DayOfWeek day = LocalDate.parse(date).getDayOfWeek();
+            return dayOffset(day) + localTime.getHour() * 60 + localTime.getMinute();
+        } catch (DateTimeParseException e) {
+            return UNKNOWN_SLOT;
+        }
+    }
+
+    public static LocalTime parseTime(String timeStr) {
+        if (timeStr == null || timeStr.isEmpty()) {
+            return null;
+        }
+        for (DateTimeFormatter formatter : TIME_FORMATS) {
+            try {
+                return LocalTime.parse(timeStr, formatter);
+            } catch (DateTimeParseException e) {
+            }
+        }
+        return null;
+    }
+
+    private static void markWindow(long[] bits, TimeWindow window) {
+        if (window == null || window.getDayOfWeek() == null) {
+            return;
+        }
+        LocalTime from = parseTime(window.getFrom());
+        LocalTime until = parseTime(window.getUntil());
+        if (from == null || until == null) {
+            return;
+        }
+
+        DayOfWeek day;
+        try {
+            day = DayOfWeek.valueOf(window.getDayOfWeek().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+
+        // First and last minute whose start lies in [from, until]
+        int first = (from.toSecondOfDay() + 59) / 60;
+        int last = until.toSecondOfDay() / 60;
+        int offset = dayOffset(day);
+        for (int minute = first; minute <= last; minute++) {
+            int slot = offset + minute;
+            bits[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    private static int dayOffset(DayOfWeek day) {
+        return (day.getValue() - 1) * MINUTES_PER_DAY;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.coursework1.model;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.DroneWithAvailability;
+import com.example.coursework1.dto.ServicePoint;
+import com.example.coursework1.dto.ServicePointDrones;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the fleet taken once per planning or dispatch request.
+ *
+ * Holds the drones (with their capabilities), their availability bitmaps, the service points
+ * and the restricted-area index as they were when the request started, so every service
+ * involved in the request answers from the same data without going back to the ILP service.
+ */
+public final class FleetSnapshot {
+
+    private final List<Drone> drones;
+    private final Map<String, Drone> dronesById;
+    private final Map<String, ServicePoint> homeById;
+    private final List<ServicePoint> servicePoints;
+    private final AvailabilityIndex availability;
+    private final RestrictedAreaIndex restrictedAreas;
+    private final long capturedAt;
+
+    private FleetSnapshot(List<Drone> drones, List<ServicePoint> servicePoints, AvailabilityIndex availability,
+                          RestrictedAreaIndex restrictedAreas) {
+        this.drones = drones == null ? List.of() : Collections.unmodifiableList(drones);
+        this.servicePoints = servicePoints == null ? List.of() : Collections.unmodifiableList(servicePoints);
+        this.availability = availability != null ? availability : AvailabilityIndex.build(null);
+        this.restrictedAreas = restrictedAreas != null ? restrictedAreas : RestrictedAreaIndex.build(List.of());
+        this.capturedAt = System.currentTimeMillis();
+
+        Map<String, Drone> byId = new LinkedHashMap<>();
+        for (Drone drone : this.drones) {
+            if (drone != null && drone.getId() != null) {
+                byId.putIfAbsent(drone.getId(), drone);
+            }
+        }
+        this.dronesById = Collections.unmodifiableMap(byId);
+        this.homeById = Collections.unmodifiableMap(homes(this.servicePoints, this.availability.getSource()));
+    }
+
+    /** Each drone's first listed service point in the availability data. */
+    private static Map<String, ServicePoint> homes(List<ServicePoint> servicePoints, List<ServicePointDrones> listings) {
+        Map<String, ServicePoint> homes = new LinkedHashMap<>();
+        if (listings == null) {
+            return homes;
+        }
+        Map<Integer, ServicePoint> pointsById = new LinkedHashMap<>();
+        for (ServicePoint servicePoint : servicePoints) {
+            if (servicePoint != null && servicePoint.getLocation() != null) {
+                pointsById.putIfAbsent(servicePoint.getId(), servicePoint);
+            }
+        }
+        for (ServicePointDrones listing : listings) {
+            ServicePoint home = listing == null ? null : pointsById.get(listing.getServicePointId());
+            if (home == null || listing.getDrones() == null) {
+                continue;
+            }
+            for (DroneWithAvailability drone : listing.getDrones()) {
+                if (drone != null && drone.getId() != null) {
+                    homes.putIfAbsent(drone.getId(), home);
+                }
+            }
+        }
+        return homes;
+    }
+
+    public static FleetSnapshot of(List<Drone> drones, List<ServicePoint> servicePoints,
+                                   AvailabilityIndex availability, RestrictedAreaIndex restrictedAreas) {
+        return new FleetSnapshot(drones, servicePoints, availability, restrictedAreas);
+    }
+
+    public List<Drone> getDrones() {
+        return drones;
+    }
+
+    /** The drone with the given id, or {@code null} if it is not in the fleet. */
+    public Drone getDrone(String id) {
+        return id == null ? null : dronesById.get(id);
+    }
+
+    public List<ServicePoint> getServicePoints() {
+        return servicePoints;
+    }
+
+    /**
+     * The service point the drone is based at according to the availability data, or
+     * {@code null} if it is not listed at a known service point.
+     */
+    public ServicePoint getHomeServicePoint(String droneId) {
+        return droneId == null ? null : homeById.get(droneId);
+    }
+
+    public AvailabilityIndex getAvailability() {
+        return availability;
+    }
+
+    /** Restricted-area geometry loaded with the fleet; its version identifies the areas planned against. */
+    public RestrictedAreaIndex getRestrictedAreas() {
+        return restrictedAreas;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.coursework1.model;
+
+/**
+ * Precomputed occupancy grid over a set of prepared polygons.
+ *
+ * Each cell is clear, blocked (wholly inside a polygon) or boundary (an edge passes through
+ * or right beside it). Two {@code long[]} bitsets hold the blocked and
+ * boundary flags. Queries answer {@link #CLEAR} or {@link #BLOCKED} from a few array reads,
+ * and return {@link #UNKNOWN} only when a boundary cell is involved and the exact geometry
+ * has to decide. Everything outside the grid is clear.
+ */
+public final class OccupancyRaster {
+
+    public static final int CLEAR = 0;
+    public static final int BLOCKED = 1;
+    public static final int UNKNOWN = 2;
+
+    /** Default cell edge, one drone move, so a single step touches at most four cells. */
+    public static final double DEFAULT_CELL_SIZE = 0.00015;
+    // Caps memory at 2 bitsets of 64K longs; large extents fall back to coarser cells.
+    private static final long MAX_CELLS = 1L << 22;
+    private static final double PAD = 1e-6;
+
+    private final double originX, originY, cellSize;
+    private final int cols, rows;
+    private final long[] blocked;
+    private final long[] boundary;
+
+    private OccupancyRaster(PreparedPolygon[] polygons, double requestedCellSize) {
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY;
+        for (PreparedPolygon p : polygons) {
+            x1 = Math.min(x1, p.getMinX());
+            y1 = Math.min(y1, p.getMinY());
+            x2 = Math.max(x2, p.getMaxX());
+            y2 = Math.max(y2, p.getMaxY());
+        }
+
+        if (polygons.length == 0) {
+            originX = originY = 0;
+            cellSize = requestedCellSize;
+            cols = rows = 0;
+            blocked = boundary = new long[0];
+            return;
+        }
+
+        double size = requestedCellSize;
+        double width = x2 - x1 + 2 * (size + PAD);
+        double height = y2 - y1 + 2 * (size + PAD);
+        while (Math.ceil(width / size) * Math.ceil(height / size) > MAX_CELLS) {
+            size *= 2;
+            width = x2 - x1 + 2 * (size + PAD);
+            height = y2 - y1 + 2 * (size + PAD);
+        }
+
+        cellSize = size;
+        originX = x1 - size - PAD;
+        originY = y1 - size - PAD;
+        cols = (int) Math.ceil(width / size);
+        rows = (int) Math.ceil(height / size);
+        blocked = new long[(int) ((long) cols * rows + 63) / 64];
+        boundary = new long[blocked.length];
+
+        for (PreparedPolygon polygon : polygons) {
+            markEdges(polygon);
+        }
+        for (PreparedPolygon polygon : polygons) {
+            markInterior(polygon);
+        }
+    }
+
+    public static OccupancyRaster build(PreparedPolygon[] polygons) {
+        return new OccupancyRaster(polygons, DEFAULT_CELL_SIZE);
+    }
+
+    public static OccupancyRaster build(PreparedPolygon[] polygons, double cellSize) {
+        return new OccupancyRaster(polygons, cellSize);
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /** CLEAR, BLOCKED or UNKNOWN for a single point. */
+    public int classifyPoint(double x, double y) {
+        int c = col(x), r = row(y);
+        if (c < 0 || r < 0 || c >= cols || r >= rows) {
+            return CLEAR;
+        }
+        int cell = r * cols + c;
+        if (get(boundary, cell)) return UNKNOWN;
+        return get(blocked, cell) ? BLOCKED : CLEAR;
+    }
+
+    /**
+     * CLEAR when every cell under the segment's bounding box is clear, BLOCKED when an
+     * endpoint sits in a blocked cell, otherwise UNKNOWN.
+     */
+    public int classifySegment(double x1, double y1, double x2, double y2) {
+        if (classifyPoint(x1, y1) == BLOCKED || classifyPoint(x2, y2) == BLOCKED) {
+            return BLOCKED;
+        }
+
+        int c1 = Math.max(0, col(Math.min(x1, x2) - PAD));
+        int c2 = Math.min(cols - 1, col(Math.max(x1, x2) + PAD));
+        int r1 = Math.max(0, row(Math.min(y1, y2) - PAD));
+        int r2 = Math.min(rows - 1, row(Math.max(y1, y2) + PAD));
+
+        for (int r = r1; r <= r2; r++) {
+            for (int c = c1; c <= c2; c++) {
+                int cell = r * cols + c;
+                if (get(boundary, cell) || get(blocked, cell)) {
+                    return UNKNOWN;
+                }
+            }
+        }
+        return CLEAR;
+    }
+
+    /**
+     * Marks every cell an edge passes within PAD of as boundary, one column strip at a time
+     * so long diagonal edges don't mark their whole bounding box.
+     */
+    private void markEdges(PreparedPolygon polygon) {
+        double[] xs = polygon.xs();
+        double[] ys = polygon.ys();
+
+        for (int i = 0; i + 1 < xs.length; i++) {
+            double ax = xs[i], ay = ys[i], bx = xs[i + 1], by = ys[i + 1];
+            double lx = Math.min(ax, bx), hx = Math.max(ax, bx);
+
+            int c1 = clampCol(col(lx - PAD));
+            int c2 = clampCol(col(hx + PAD));
+            for (int c = c1; c <= c2; c++) {
+                double sx1 = Math.max(lx, originX + c * cellSize - PAD);
+                double sx2 = Math.min(hx, originX + (c + 1) * cellSize + PAD);
+                if (sx1 > sx2) {
+                    continue;
+                }
+
+                double sy1 = ax == bx ? ay : yAt(ax, ay, bx, by, sx1);
+                double sy2 = ax == bx ? by : yAt(ax, ay, bx, by, sx2);
+
+                int r1 = clampRow(row(Math.min(sy1, sy2) - PAD));
+                int r2 = clampRow(row(Math.max(sy1, sy2) + PAD));
+                for (int r = r1; r <= r2; r++) {
+                    set(boundary, r * cols + c);
+                }
+            }
+        }
+    }
+
+    /** Marks the non-boundary cells whose centre lies inside the polygon as blocked. */
+    private void markInterior(PreparedPolygon polygon) {
+        if (!polygon.isClosed()) {
+            return;
+        }
+
+        int c1 = clampCol(col(polygon.getMinX()));
+        int c2 = clampCol(col(polygon.getMaxX()));
+        int r1 = clampRow(row(polygon.getMinY()));
+        int r2 = clampRow(row(polygon.getMaxY()));
+
+        for (int r = r1; r <= r2; r++) {
+            double cy = originY + (r + 0.5) * cellSize;
+            for (int c = c1; c <= c2; c++) {
+                int cell = r * cols + c;
+                if (get(boundary, cell) || get(blocked, cell)) {
+                    continue;
+                }
+                if (polygon.contains(originX + (c + 0.5) * cellSize, cy)) {
+                    set(blocked, cell);
+                }
+            }
+        }
+    }
+
+    private static double yAt(double ax, double ay, double bx, double by, double x) {
+        return ay + (by - ay) * (x - ax) / (bx - ax);
+    }
+
+    private int col(double x) {
+        return (int) Math.floor((x - originX) / cellSize);
+    }
+
+    private int row(double y) {
+        return (int) Math.floor((y - originY) / cellSize);
+    }
+
+    private int clampCol(int c) {
+        return Math.max(0, Math.min(cols - 1, c));
+    }
+
+    private int clampRow(int r) {
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+
+    private static boolean get(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+}
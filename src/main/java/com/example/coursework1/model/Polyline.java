@@ -0,0 +1,69 @@
+package com.example.coursework1.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoded polyline format (as used by Google Maps and OSRM): each coordinate is scaled by
+ * 10^precision, delta-encoded against the previous point and written as base-64 ASCII varints,
+ * latitude first. Precision 6 keeps well under the 0.00015 degree move length.
+ */
+public final class Polyline {
+
+    public static final int DEFAULT_PRECISION = 6;
+
+    private Polyline() {}
+
+    /** Encodes {@code [lat, lng]} pairs. */
+    public static String encode(List<List<Double>> latLngs, int precision) {
+        double factor = Math.pow(10, precision);
+        StringBuilder out = new StringBuilder(latLngs.size() * 8);
+        long lastLat = 0;
+        long lastLng = 0;
+        for (List<Double> point : latLngs) {
+            long lat = Math.round(point.get(0) * factor);
+            long lng = Math.round(point.get(1) * factor);
+            writeValue(out, lat - lastLat);
+            writeValue(out, lng - lastLng);
+            lastLat = lat;
+            lastLng = lng;
+        }
+        return out.toString();
+    }
+
+    /** Decodes to {@code [lat, lng]} pairs. */
+    public static List<double[]> decode(String encoded, int precision) {
+        double factor = Math.pow(10, precision);
+        List<double[]> points = new ArrayList<>();
+        int[] index = {0};
+        long lat = 0;
+        long lng = 0;
+        while (index[0] < encoded.length()) {
+            lat += readValue(encoded, index);
+            lng += readValue(encoded, index);
+            points.add(new double[]{lat / factor, lng / factor});
+        }
+        return points;
+    }
+
+    private static void writeValue(StringBuilder out, long delta) {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            out.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        out.append((char) (value + 63));
+    }
+
+    private static long readValue(String encoded, int[] index) {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = encoded.charAt(index[0]++) - 63;
+            result |= (long) (b & 0x1f) << shift;
+            shift += 5;
+        } while (b >= 0x20);
+        return (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+    }
+}
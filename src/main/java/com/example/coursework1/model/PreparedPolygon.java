@@ -0,0 +1,223 @@
+package com.example.coursework1.model;
+
+import java.util.List;
+
+/**
+ * Immutable, pre-validated form of a polygon's vertex list.
+ *
+ * Vertices are copied once into flat {@code double[]} arrays together with the bounding box
+ * and per-edge vectors, so {@link #contains} and {@link #intersectsSegment} run without
+ * unboxing or allocating. Polygons that are not closed or have fewer than 4 vertices are
+ * kept but never contain a point; {@code RegionService} rejects them up front.
+ */
+public final class PreparedPolygon {
+
+    /**
+     * Epsilon policy, as in the original {@code RegionService}: a point lies on an edge when the
+     * cross product of the edge and the vector to the point is at most this (an absolute bound,
+     * so about 1e-9 degrees from an edge 1e-3 degrees long) and it is between the endpoints.
+     * Boundary points count as inside, so a segment that only touches the boundary intersects
+     * the polygon.
+     */
+    public static final double EPSILON = 1e-12;
+    // Bounding-box early-outs are padded well beyond EPSILON.
+    private static final double BOUNDS_PAD = 1e-6;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] edgeDx;
+    private final double[] edgeDy;
+    private final double minX, minY, maxX, maxY;
+    private final boolean closed;
+
+    private PreparedPolygon(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+
+        int n = xs.length;
+        int edges = Math.max(0, n - 1);
+        edgeDx = new double[edges];
+        edgeDy = new double[edges];
+        for (int i = 0; i < edges; i++) {
+            edgeDx[i] = xs[i + 1] - xs[i];
+            edgeDy[i] = ys[i + 1] - ys[i];
+        }
+
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            x1 = Math.min(x1, xs[i]);
+            y1 = Math.min(y1, ys[i]);
+            x2 = Math.max(x2, xs[i]);
+            y2 = Math.max(y2, ys[i]);
+        }
+        minX = x1;
+        minY = y1;
+        maxX = x2;
+        maxY = y2;
+
+        closed = n >= 4
+                && Math.abs(xs[0] - xs[n - 1]) <= EPSILON
+                && Math.abs(ys[0] - ys[n - 1]) <= EPSILON;
+    }
+
+    /**
+     * Prepares the given vertex list. A null list, or one containing a vertex with a missing
+     * coordinate, yields an empty polygon that neither contains nor intersects anything.
+     */
+    public static PreparedPolygon of(List<Position> vertices) {
+        if (vertices == null) {
+            return new PreparedPolygon(new double[0], new double[0]);
+        }
+        double[] xs = new double[vertices.size()];
+        double[] ys = new double[vertices.size()];
+        for (int i = 0; i < xs.length; i++) {
+            Position v = vertices.get(i);
+            if (v == null || v.getLng() == null || v.getLat() == null) {
+                return new PreparedPolygon(new double[0], new double[0]);
+            }
+            xs[i] = v.getLng();
+            ys[i] = v.getLat();
+        }
+        return new PreparedPolygon(xs, ys);
+    }
+
+    // Shared with OccupancyRaster for rasterising edges; callers must not modify them.
+    double[] xs() {
+        return xs;
+    }
+
+    double[] ys() {
+        return ys;
+    }
+
+    public int vertexCount() {
+        return xs.length;
+    }
+
+    /** True when the polygon has at least 4 vertices and its first and last vertices match. */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isEmpty() {
+        return xs.length == 0;
+    }
+
+    public double getMinX() { return minX; }
+    public double getMinY() { return minY; }
+    public double getMaxX() { return maxX; }
+    public double getMaxY() { return maxY; }
+
+    /** Point-in-polygon test; points on the boundary count as inside. */
+    public boolean contains(double px, double py) {
+        if (!closed) {
+            return false;
+        }
+        if (!boundsOverlap(px, py, px, py)) {
+            return false;
+        }
+        if (isOnBoundary(px, py)) {
+            return true;
+        }
+
+        boolean inside = false;
+        int n = xs.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double xi = xs[i], yi = ys[i];
+            double xj = xs[j], yj = ys[j];
+
+            if (Math.abs(yj - yi) < EPSILON) continue;
+
+            boolean intersect = ((yi > py) != (yj > py)) &&
+                    (px < (xj - xi) * (py - yi) / (yj - yi) + xi);
+
+            if (intersect)
+                inside = !inside;
+        }
+
+        return inside;
+    }
+
+    /**
+     * Exact segment test: true when either endpoint is inside the polygon (boundary included)
+     * or the segment touches or crosses any edge. A segment that does neither lies wholly
+     * outside, so no interior sampling is needed.
+     */
+    public boolean intersectsSegment(double x1, double y1, double x2, double y2) {
+        if (xs.length == 0) {
+            return false;
+        }
+        if (!boundsOverlap(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2))) {
+            return false;
+        }
+        if (contains(x1, y1) || contains(x2, y2)) {
+            return true;
+        }
+        return crossesBoundary(x1, y1, x2, y2);
+    }
+
+    /** True when the segment touches or crosses any edge of the polygon. */
+    public boolean crossesBoundary(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1, dy = y2 - y1;
+
+        for (int i = 0; i < edgeDx.length; i++) {
+            double ax = xs[i], ay = ys[i];
+            double bx = xs[i + 1], by = ys[i + 1];
+
+            int o1 = side(x1, y1, dx, dy, ax, ay);
+            int o2 = side(x1, y1, dx, dy, bx, by);
+            int o3 = side(ax, ay, edgeDx[i], edgeDy[i], x1, y1);
+            int o4 = side(ax, ay, edgeDx[i], edgeDy[i], x2, y2);
+
+            if (o1 * o2 < 0 && o3 * o4 < 0) {
+                return true;
+            }
+            if ((o1 == 0 && inBox(ax, ay, x1, y1, x2, y2))
+                    || (o2 == 0 && inBox(bx, by, x1, y1, x2, y2))
+                    || (o3 == 0 && inBox(x1, y1, ax, ay, bx, by))
+                    || (o4 == 0 && inBox(x2, y2, ax, ay, bx, by))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /** True when the given box overlaps this polygon's padded bounding box. */
+    public boolean boundsOverlap(double lx, double ly, double hx, double hy) {
+        return hx >= minX - BOUNDS_PAD && lx <= maxX + BOUNDS_PAD
+                && hy >= minY - BOUNDS_PAD && ly <= maxY + BOUNDS_PAD;
+    }
+
+    private boolean isOnBoundary(double px, double py) {
+        for (int i = 0; i < edgeDx.length; i++) {
+            if (side(xs[i], ys[i], edgeDx[i], edgeDy[i], px, py) != 0) continue;
+
+            double dot = (px - xs[i]) * (px - xs[i + 1]) + (py - ys[i]) * (py - ys[i + 1]);
+            if (dot <= EPSILON) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Orientation of point p against the line through a with direction d: +1 left, -1 right,
+     * 0 when their cross product is within EPSILON.
+     */
+    private static int side(double ax, double ay, double dx, double dy, double px, double py) {
+        double cross = dx * (py - ay) - dy * (px - ax);
+        if (Math.abs(cross) <= EPSILON) {
+            return 0;
+        }
+        return cross > 0 ? 1 : -1;
+    }
+
+    /** True when p lies within the EPSILON-padded bounding box of segment ab. */
+    private static boolean inBox(double px, double py, double ax, double ay, double bx, double by) {
+        return px >= Math.min(ax, bx) - EPSILON && px <= Math.max(ax, bx) + EPSILON
+                && py >= Math.min(ay, by) - EPSILON && py <= Math.max(ay, by) + EPSILON;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.coursework1.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable uniform-grid index over the bounding boxes of a set of restricted areas.
+ *
+ * Built once per list of areas, preparing each area's polygon at the same time. Point and
+ * segment queries return only the areas whose bounding box can touch the query, in the same
+ * order as the source list. Returned arrays may be shared with the index and must not be
+ * modified. {@link #segmentCandidates} is the allocation-free form used on the routing hot path.
+ */
+public final class RestrictedAreaIndex {
+
+    private static final int[] NONE = new int[0];
+    private static final int MAX_GRID = 64;
+    // Boxes are padded so boundary tolerances in the exact tests are never cut off by the prefilter.
+    private static final double PAD = 1e-6;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final ThreadLocal<Candidates> SCRATCH = ThreadLocal.withInitial(Candidates::new);
+
+    private final List<RestrictedArea> source;
+    private final long version = VERSIONS.incrementAndGet();
+    private final RestrictedArea[] areas;
+    private final PreparedPolygon[] polygons;
+    private final double[] minX, minY, maxX, maxY;
+
+    private final double originX, originY, cellW, cellH;
+    private final int cols, rows;
+    private final int[][] cells;
+    private final OccupancyRaster raster;
+
+    private RestrictedAreaIndex(List<RestrictedArea> source) {
+        this.source = source;
+
+        List<RestrictedArea> usable = new ArrayList<>();
+        List<PreparedPolygon> prepared = new ArrayList<>();
+        for (RestrictedArea area : source) {
+            if (area == null) {
+                continue;
+            }
+            PreparedPolygon polygon = PreparedPolygon.of(area.getVertices());
+            if (!polygon.isEmpty()) {
+                usable.add(area);
+                prepared.add(polygon);
+            }
+        }
+
+        int n = usable.size();
+        areas = usable.toArray(new RestrictedArea[0]);
+        polygons = prepared.toArray(new PreparedPolygon[0]);
+        minX = new double[n];
+        minY = new double[n];
+        maxX = new double[n];
+        maxY = new double[n];
+
+        double gx1 = Double.POSITIVE_INFINITY, gy1 = Double.POSITIVE_INFINITY;
+        double gx2 = Double.NEGATIVE_INFINITY, gy2 = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX[i] = polygons[i].getMinX() - PAD;
+            minY[i] = polygons[i].getMinY() - PAD;
+            maxX[i] = polygons[i].getMaxX() + PAD;
+            maxY[i] = polygons[i].getMaxY() + PAD;
+            gx1 = Math.min(gx1, minX[i]);
+            gy1 = Math.min(gy1, minY[i]);
+            gx2 = Math.max(gx2, maxX[i]);
+            gy2 = Math.max(gy2, maxY[i]);
+        }
+
+        if (n == 0) {
+            originX = originY = 0;
+            cellW = cellH = 1;
+            cols = rows = 0;
+            cells = new int[0][];
+            raster = OccupancyRaster.build(polygons);
+            return;
+        }
+
+        int grid = Math.max(1, Math.min(MAX_GRID, (int) Math.ceil(Math.sqrt(n)) * 2));
+        originX = gx1;
+        originY = gy1;
+        cellW = Math.max((gx2 - gx1) / grid, 1e-9);
+        cellH = Math.max((gy2 - gy1) / grid, 1e-9);
+        cols = grid;
+        rows = grid;
+
+        List<List<Integer>> buckets = new ArrayList<>(cols * rows);
+        for (int c = 0; c < cols * rows; c++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            int c1 = col(minX[i]), c2 = col(maxX[i]);
+            int r1 = row(minY[i]), r2 = row(maxY[i]);
+            for (int r = r1; r <= r2; r++) {
+                for (int c = c1; c <= c2; c++) {
+                    buckets.get(r * cols + c).add(i);
+                }
+            }
+        }
+        cells = new int[cols * rows][];
+        for (int c = 0; c < cells.length; c++) {
+            List<Integer> bucket = buckets.get(c);
+            cells[c] = bucket.isEmpty() ? NONE : bucket.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        raster = OccupancyRaster.build(polygons);
+    }
+
+    public static RestrictedAreaIndex build(List<RestrictedArea> areas) {
+        return new RestrictedAreaIndex(areas == null ? List.of() : areas);
+    }
+
+    /** The list this index was built from; used to detect when the areas have been reloaded. */
+    public List<RestrictedArea> getSource() {
+        return source;
+    }
+
+    /** Increases every time an index is built, so caches can key derived data on it. */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return areas.length;
+    }
+
+    public RestrictedArea getArea(int i) {
+        return areas[i];
+    }
+
+    public PreparedPolygon getPolygon(int i) {
+        return polygons[i];
+    }
+
+    /** Move-sized occupancy grid over all areas, built together with the index. */
+    public OccupancyRaster getRaster() {
+        return raster;
+    }
+
+    /** Indices of areas whose bounding box contains the point, in source order. */
+    public int[] candidatesAt(double x, double y) {
+        if (cells.length == 0 || outside(x, y, x, y)) {
+            return NONE;
+        }
+        int[] cell = cells[row(y) * cols + col(x)];
+        int count = 0;
+        for (int i : cell) {
+            if (boxOverlaps(i, x, y, x, y)) count++;
+        }
+        if (count == cell.length) {
+            return cell;
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int i : cell) {
+            if (boxOverlaps(i, x, y, x, y)) result[k++] = i;
+        }
+        return result;
+    }
+
+    /** Indices of areas whose bounding box overlaps the segment's bounding box, in source order. */
+    public int[] candidatesForSegment(double x1, double y1, double x2, double y2) {
+        Candidates candidates = segmentCandidates(x1, y1, x2, y2);
+        return candidates.count == 0 ? NONE : Arrays.copyOf(candidates.ids, candidates.count);
+    }
+
+    /**
+     * Same candidates as {@link #candidatesForSegment}, written into the calling thread's
+     * reusable buffer instead of a new array. The result is only valid until the same thread's
+     * next query, so it must be consumed before querying again.
+     */
+    public Candidates segmentCandidates(double x1, double y1, double x2, double y2) {
+        Candidates candidates = SCRATCH.get();
+        candidates.count = 0;
+        double lx = Math.min(x1, x2), hx = Math.max(x1, x2);
+        double ly = Math.min(y1, y2), hy = Math.max(y1, y2);
+        if (cells.length == 0 || outside(lx, ly, hx, hy)) {
+            return candidates;
+        }
+
+        int c1 = col(lx), c2 = col(hx);
+        int r1 = row(ly), r2 = row(hy);
+
+        if (c1 == c2 && r1 == r2) {
+            int[] cell = cells[r1 * cols + c1];
+            candidates.ensureCapacity(cell.length);
+            for (int i : cell) {
+                if (boxOverlaps(i, lx, ly, hx, hy)) candidates.ids[candidates.count++] = i;
+            }
+            return candidates;
+        }
+
+        // An area spanning several cells is listed in each; the stamp reports it once
+        candidates.ensureCapacity(areas.length);
+        int stamp = candidates.nextStamp();
+        for (int r = r1; r <= r2; r++) {
+            for (int c = c1; c <= c2; c++) {
+                for (int i : cells[r * cols + c]) {
+                    if (candidates.stamps[i] != stamp) {
+                        candidates.stamps[i] = stamp;
+                        if (boxOverlaps(i, lx, ly, hx, hy)) candidates.ids[candidates.count++] = i;
+                    }
+                }
+            }
+        }
+        Arrays.sort(candidates.ids, 0, candidates.count);
+        return candidates;
+    }
+
+    private boolean boxOverlaps(int i, double lx, double ly, double hx, double hy) {
+        return hx >= minX[i] && lx <= maxX[i] && hy >= minY[i] && ly <= maxY[i];
+    }
+
+    private boolean outside(double lx, double ly, double hx, double hy) {
+        return hx < originX || hy < originY
+                || lx > originX + cellW * cols || ly > originY + cellH * rows;
+    }
+
+    private int col(double x) {
+        int c = (int) Math.floor((x - originX) / cellW);
+        return Math.max(0, Math.min(cols - 1, c));
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor((y - originY) / cellH);
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+
+    /** Per-thread result of {@link #segmentCandidates}: area indices in source order. */
+    public static final class Candidates {
+        private int[] ids = new int[16];
+        private int[] stamps = new int[16];
+        private int stamp;
+        private int count;
+
+        private Candidates() {
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int get(int k) {
+            return ids[k];
+        }
+
+        private void ensureCapacity(int n) {
+            if (ids.length < n) {
+                int length = Math.max(n, ids.length * 2);
+                ids = new int[length];
+                stamps = Arrays.copyOf(stamps, length);
+            }
+        }
+
+        private int nextStamp() {
+            if (++stamp == 0) {
+                // Wrapped around: old stamps could collide with the new generation
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+}
@@ -2,78 +2,68 @@ package com.example.coursework1.repository;
 
 import com.example.coursework1.dto.Drone;
 import com.example.coursework1.dto.ServicePointDrones;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
 
 @Repository
 public class DroneRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(DroneRepository.class);
-    private final RestTemplate restTemplate;
-    private final String ilpEndpoint;
+    private final IlpDataSource ilpSource;
+    private final ReferenceDataCache cache;
+    private final Duration dronesTtl;
+    private final Duration availabilityTtl;
 
-    public DroneRepository(RestTemplate restTemplate, String ilpEndpoint) {
-        this.restTemplate = restTemplate;
-        this.ilpEndpoint = ilpEndpoint.endsWith("/") ? ilpEndpoint : ilpEndpoint + "/";
+    public DroneRepository(IlpDataSource ilpSource, ReferenceDataCache cache,
+                           @Value("${ilp.cache.drones.ttl:5m}") Duration dronesTtl,
+                           @Value("${ilp.cache.drones-for-service-points.ttl:5m}") Duration availabilityTtl) {
+        this.ilpSource = ilpSource;
+        this.cache = cache;
+        this.dronesTtl = dronesTtl;
+        this.availabilityTtl = availabilityTtl;
     }
 
     public List<Drone> fetchAllDrones() {
-        try {
-            String url = ilpEndpoint + "drones";
-            logger.debug("Fetching drones from: {}", url);
-
-            Drone[] drones = restTemplate.getForObject(url, Drone[].class);
-
-            if (drones == null) {
-                logger.warn("Received null drones array from ILP service");
-                return List.of();
-            }
-
-            logger.info("Successfully fetched {} drones", drones.length);
-            return Arrays.asList(drones);
-        } catch (Exception e) {
-            logger.error("Failed to fetch drones from ILP service", e);
-            return List.of();
-        }
+        return cache.get("drones", dronesTtl, this::loadDrones, List.of());
     }
 
     public List<ServicePointDrones> fetchDronesForServicePoints() {
-        try {
-            String url = ilpEndpoint + "drones-for-service-points";
-            logger.debug("Fetching drones-for-service-points from: {}", url);
+        return cache.get("drones-for-service-points", availabilityTtl, this::loadDronesForServicePoints, List.of());
+    }
 
-            ResponseEntity<List<ServicePointDrones>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<ServicePointDrones>>() {}
-            );
+    private List<Drone> loadDrones() {
+        List<Drone> drones = ilpSource.get("drones", new TypeReference<List<Drone>>() {});
 
-            List<ServicePointDrones> data = response.getBody();
+        if (drones == null) {
+            logger.warn("Received null drones array from ILP service");
+            return List.of();
+        }
 
-            if (data == null) {
-                logger.warn("Received null drones-for-service-points from ILP service");
-                return List.of();
-            }
+        logger.info("Successfully fetched {} drones", drones.size());
+        return drones;
+    }
 
-            int totalDrones = data.stream()
-                    .mapToInt(sp -> sp.getDrones() != null ? sp.getDrones().size() : 0)
-                    .sum();
+    private List<ServicePointDrones> loadDronesForServicePoints() {
+        List<ServicePointDrones> data = ilpSource.get("drones-for-service-points",
+                new TypeReference<List<ServicePointDrones>>() {});
 
-            logger.info("Successfully fetched {} service points with {} total drones",
-                    data.size(), totalDrones);
-            return data;
-        } catch (Exception e) {
-            logger.error("Failed to fetch drones-for-service-points from ILP service", e);
+        if (data == null) {
+            logger.warn("Received null drones-for-service-points from ILP service");
             return List.of();
         }
+
+        int totalDrones = data.stream()
+                .mapToInt(sp -> sp.getDrones() != null ? sp.getDrones().size() : 0)
+                .sum();
+
+        logger.info("Successfully fetched {} service points with {} total drones",
+                data.size(), totalDrones);
+        return data;
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.coursework1.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads ILP datasets from local JSON fixtures ({@code <location>/<path>.json}) instead of the
+ * network, for load tests, benchmarks and offline start-up. Enabled with {@code ilp.source=file};
+ * {@code ilp.fixtures.location} may be any Spring resource location and defaults to the
+ * fixtures bundled on the classpath. A file is re-parsed only when its modification time changes.
+ */
+@Component
+@ConditionalOnProperty(name = "ilp.source", havingValue = "file")
+public class FileIlpDataSource implements IlpDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileIlpDataSource.class);
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String location;
+    private final Map<String, Parsed> parsed = new ConcurrentHashMap<>();
+
+    public FileIlpDataSource(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                             @Value("${ilp.fixtures.location:classpath:ilp-fixtures/}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.location = location.endsWith("/") ? location : location + "/";
+        logger.info("ILP data source: local fixtures at {}", this.location);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String path, TypeReference<T> type) {
+        Resource resource = resourceLoader.getResource(location + path + ".json");
+        if (!resource.exists()) {
+            throw new IllegalStateException("No ILP fixture for " + path + " at " + resource.getDescription());
+        }
+
+        long modified = lastModified(resource);
+        Parsed previous = parsed.get(path);
+        if (previous != null && previous.lastModified() == modified) {
+            return (T) previous.value();
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            T value = objectMapper.readValue(in, type);
+            parsed.put(path, new Parsed(modified, value));
+            logger.debug("Loaded ILP fixture {} from {}", path, resource.getDescription());
+            return value;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read ILP fixture " + path, e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private record Parsed(long lastModified, Object value) {}
+}
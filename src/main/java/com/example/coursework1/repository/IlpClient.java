@@ -0,0 +1,124 @@
+package com.example.coursework1.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * GETs JSON reference data from the ILP service with conditional requests and gzip.
+ *
+ * The ETag and Last-Modified validators of the last successful non-empty response are kept per
+ * path and sent back as If-None-Match / If-Modified-Since. On a 304 the body is never read and the
+ * previously parsed object is returned as-is, so callers keyed on object identity see no change.
+ * A 304 with no parsed object to reuse is answered by asking again unconditionally.
+ */
+@Component
+@ConditionalOnProperty(name = "ilp.source", havingValue = "remote", matchIfMissing = true)
+public class IlpClient implements IlpDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(IlpClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String ilpEndpoint;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Conditional> validators = new ConcurrentHashMap<>();
+
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder downloaded = new LongAdder();
+
+    public IlpClient(RestTemplate restTemplate, String ilpEndpoint, ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.ilpEndpoint = ilpEndpoint.endsWith("/") ? ilpEndpoint : ilpEndpoint + "/";
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Fetches and parses {@code path}, or returns the object parsed from the previous response if
+     * the server answers 304. Returns {@code null} for an empty body; throws on transport errors.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String path, TypeReference<T> type) {
+        String url = ilpEndpoint + path;
+        JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+        Conditional previous = validators.get(path);
+        logger.debug("Fetching {} (conditional: {})", url, previous != null);
+
+        Conditional result = exchange(url, javaType, previous);
+        if (result == null) {
+            logger.warn("{} answered 304 with no cached body to reuse, fetching it again", path);
+            validators.remove(path);
+            result = exchange(url, javaType, null);
+        }
+        if (result == null) {
+            throw new RestClientException("Not modified with no cached body: " + url);
+        }
+        if (result == previous) {
+            notModified.increment();
+            logger.debug("{} not modified, reusing parsed value", path);
+        } else {
+            downloaded.increment();
+            if (result.value() != null && (result.etag() != null || result.lastModified() != null)) {
+                validators.put(path, result);
+            } else {
+                validators.remove(path);
+            }
+        }
+        return (T) result.value();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    public long getDownloadCount() {
+        return downloaded.sum();
+    }
+
+    /** One GET, conditional on {@code previous} if given; {@code null} for a 304 with nothing to reuse. */
+    private Conditional exchange(String url, JavaType javaType, Conditional previous) {
+        return restTemplate.execute(url, HttpMethod.GET,
+                request -> {
+                    HttpHeaders headers = request.getHeaders();
+                    headers.set(HttpHeaders.ACCEPT, "application/json");
+                    headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+                    if (previous != null && previous.etag() != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                    }
+                    if (previous != null && previous.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                    }
+                },
+                response -> {
+                    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return previous;
+                    }
+                    HttpHeaders headers = response.getHeaders();
+                    InputStream body = response.getBody();
+                    if ("gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                        body = new GZIPInputStream(body);
+                    }
+                    byte[] bytes = body.readAllBytes();
+                    Object value = bytes.length == 0 ? null : objectMapper.readValue(bytes, javaType);
+                    return new Conditional(headers.getETag(),
+                            headers.getFirst(HttpHeaders.LAST_MODIFIED), value);
+                });
+    }
+
+    private record Conditional(String etag, String lastModified, Object value) {}
+}
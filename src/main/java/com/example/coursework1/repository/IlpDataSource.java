@@ -0,0 +1,16 @@
+package com.example.coursework1.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Where the repositories get ILP reference datasets from. Selected with {@code ilp.source}:
+ * {@code remote} (default) calls the ILP REST service, {@code file} reads local fixtures.
+ */
+public interface IlpDataSource {
+
+    /**
+     * Returns the dataset at {@code path} (e.g. {@code "drones"}) parsed as {@code type}. An
+     * unchanged dataset may be returned as the same instance as the previous call.
+     */
+    <T> T get(String path, TypeReference<T> type);
+}
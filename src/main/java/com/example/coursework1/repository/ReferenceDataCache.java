@@ -0,0 +1,217 @@
+package com.example.coursework1.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-bounded cache for the ILP reference datasets (drones, availability, service points,
+ * restricted areas).
+ *
+ * Each dataset has its own TTL. Once an entry is older than {@code refresh-ahead} of its TTL the
+ * cached value is still returned and a single background refresh is started; only callers that
+ * find an entry past its full TTL wait for the reload. Concurrent misses for the same dataset
+ * share one upstream call. A failed reload keeps serving the last good value, and is not retried
+ * until {@code retry-backoff} has passed; the retry then runs in the background.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final double refreshAhead;
+    private final long retryBackoffMillis;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ReferenceDataCache(@Value("${ilp.cache.refresh-ahead:0.8}") double refreshAhead,
+                              @Value("${ilp.cache.retry-backoff:30s}") Duration retryBackoff) {
+        this(refreshAhead, retryBackoff, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ilp-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }), System::currentTimeMillis);
+    }
+
+    ReferenceDataCache(double refreshAhead, Executor refreshExecutor, LongSupplier clock) {
+        this(refreshAhead, DEFAULT_RETRY_BACKOFF, refreshExecutor, clock);
+    }
+
+    ReferenceDataCache(double refreshAhead, Duration retryBackoff, Executor refreshExecutor, LongSupplier clock) {
+        this.refreshAhead = Math.max(0.0, Math.min(1.0, refreshAhead));
+        this.retryBackoffMillis = Math.max(0, retryBackoff.toMillis());
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value of {@code dataset}, loading it with {@code loader} when absent or
+     * expired. {@code fallback} is returned if nothing has ever loaded successfully.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String dataset, Duration ttl, Callable<T> loader, T fallback) {
+        Entry entry = entries.computeIfAbsent(dataset, k -> new Entry());
+        Loaded loaded = entry.loaded;
+        long ttlMillis = ttl.toMillis();
+
+        if (loaded != null) {
+            long now = clock.getAsLong();
+            if (loaded.seeded()) {
+                if (!backingOff(entry, now)) {
+                    load(dataset, entry, loader, true);
+                }
+                return (T) loaded.value();
+            }
+            long age = now - loaded.loadedAt();
+            if (age < ttlMillis * refreshAhead || backingOff(entry, now)) {
+                return (T) loaded.value();
+            }
+            if (age < ttlMillis || entry.failedAt != null) {
+                logger.debug("Refreshing {} in the background (age {} ms)", dataset, age);
+                load(dataset, entry, loader, true);
+                return (T) loaded.value();
+            }
+        }
+
+        try {
+            return (T) load(dataset, entry, loader, false).join();
+        } catch (CompletionException e) {
+            if (loaded != null) {
+                logger.warn("Reload of {} failed, serving stale value for {} ms before retrying: {}",
+                        dataset, retryBackoffMillis, e.getCause().toString());
+                return (T) loaded.value();
+            }
+            logger.error("Failed to load {} from ILP service", dataset, e.getCause());
+            return fallback;
+        }
+    }
+
+    /**
+     * Installs {@code value} for {@code dataset} if nothing is cached yet, e.g. from a persisted
+     * snapshot at start-up. A seeded value is served immediately and refreshed in the background
+     * on its first read, and keeps being served if that refresh fails, with the refresh retried
+     * no more often than the retry backoff.
+     */
+    public boolean seed(String dataset, Object value) {
+        Entry entry = entries.computeIfAbsent(dataset, k -> new Entry());
+        synchronized (entry) {
+            if (entry.loaded != null) {
+                return false;
+            }
+            entry.loaded = new Loaded(value, clock.getAsLong(), true);
+            return true;
+        }
+    }
+
+    /** The cached value of {@code dataset} without loading or refreshing it, or {@code null}. */
+    public Object peek(String dataset) {
+        Entry entry = entries.get(dataset);
+        Loaded loaded = entry != null ? entry.loaded : null;
+        return loaded != null ? loaded.value() : null;
+    }
+
+    /** Drops the cached value of {@code dataset}; the next read reloads it. */
+    public boolean invalidate(String dataset) {
+        boolean present = entries.remove(dataset) != null;
+        if (present) {
+            logger.info("Invalidated reference data cache for {}", dataset);
+        }
+        return present;
+    }
+
+    /** Drops every cached dataset and returns their names. */
+    public List<String> invalidateAll() {
+        List<String> datasets = List.copyOf(entries.keySet());
+        datasets.forEach(this::invalidate);
+        return datasets;
+    }
+
+    public List<String> getDatasets() {
+        return List.copyOf(entries.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    /** Whether the last load of the entry failed less than the retry backoff ago. */
+    private boolean backingOff(Entry entry, long now) {
+        Long failedAt = entry.failedAt;
+        return failedAt != null && now - failedAt < retryBackoffMillis;
+    }
+
+    /** Starts a load unless one is already running for the entry, and returns the shared future. */
+    private CompletableFuture<Object> load(String dataset, Entry entry, Callable<?> loader, boolean async) {
+        CompletableFuture<Object> future;
+        synchronized (entry) {
+            if (entry.inFlight != null) {
+                return entry.inFlight;
+            }
+            future = new CompletableFuture<>();
+            entry.inFlight = future;
+        }
+
+        Runnable task = () -> {
+            Object value = null;
+            Throwable failure = null;
+            try {
+                value = loader.call();
+                entry.loaded = new Loaded(value, clock.getAsLong(), false);
+                entry.failedAt = null;
+            } catch (Throwable t) {
+                entry.failedAt = clock.getAsLong();
+                failure = t;
+            }
+            synchronized (entry) {
+                entry.inFlight = null;
+            }
+            if (failure == null) {
+                future.complete(value);
+            } else {
+                if (async) {
+                    logger.warn("Background refresh of {} failed: {}", dataset, failure.toString());
+                }
+                future.completeExceptionally(failure);
+            }
+        };
+
+        if (!async) {
+            task.run();
+            return future;
+        }
+        try {
+            refreshExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            synchronized (entry) {
+                entry.inFlight = null;
+            }
+            entry.failedAt = clock.getAsLong();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static final class Entry {
+        volatile Loaded loaded;
+        volatile Long failedAt;
+        CompletableFuture<Object> inFlight;
+    }
+
+    private record Loaded(Object value, long loadedAt, boolean seeded) {}
+}
@@ -0,0 +1,19 @@
+package com.example.coursework1.repository;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.ServicePoint;
+import com.example.coursework1.dto.ServicePointDrones;
+import com.example.coursework1.model.RestrictedArea;
+
+import java.util.List;
+
+/**
+ * The four ILP reference datasets as persisted by {@link ReferenceSnapshotCodec}, with the time
+ * the snapshot was written.
+ */
+public record ReferenceSnapshot(List<Drone> drones,
+                                List<ServicePoint> servicePoints,
+                                List<RestrictedArea> restrictedAreas,
+                                List<ServicePointDrones> dronesForServicePoints,
+                                long writtenAt) {
+}
@@ -0,0 +1,355 @@
+package com.example.coursework1.repository;
+
+import com.example.coursework1.dto.*;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedArea;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary encoding of a {@link ReferenceSnapshot}, read back from a (typically
+ * memory-mapped) {@link ByteBuffer} without any JSON parsing.
+ *
+ * Layout, big-endian:
+ * <pre>
+ *   header        magic "ILPS", u16 version, u16 reserved, i64 writtenAt
+ *   strings       i32 count, then per string i32 length + UTF-8 bytes
+ *   drones        i32 count, then id, name, capability
+ *   servicePoints i32 count, then id, name, location
+ *   areas         i32 count, then name, id, limits, i32 vertexCount + flat lng/lat doubles
+ *   availability  i32 count, then servicePointId, drones with their time windows
+ *   trailer       i32 CRC32 of everything before it
+ * </pre>
+ * Every string (drone ids, names, day names, window times) is interned into the string table and
+ * referenced by index, so repeated ids decode to one shared instance. A null string is index -1,
+ * a null Integer is {@link Integer#MIN_VALUE}, a null Double is NaN and a null list has count -1.
+ * Null list elements are not written.
+ */
+public final class ReferenceSnapshotCodec {
+
+    static final int MAGIC = 0x494C5053;
+    static final short VERSION = 1;
+
+    private static final int NULL_REF = -1;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private ReferenceSnapshotCodec() {}
+
+    public static byte[] encode(ReferenceSnapshot snapshot) {
+        try {
+            StringTable strings = new StringTable();
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(16 * 1024);
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+            writeDrones(body, strings, snapshot.drones());
+            writeServicePoints(body, strings, snapshot.servicePoints());
+            writeAreas(body, strings, snapshot.restrictedAreas());
+            writeAvailability(body, strings, snapshot.dronesForServicePoints());
+            body.flush();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(bodyBytes.size() + 4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeLong(snapshot.writtenAt());
+            strings.writeTo(out);
+            bodyBytes.writeTo(out);
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes a snapshot from {@code buffer}'s position to its limit. The buffer itself is not
+     * modified.
+     *
+     * @throws IllegalArgumentException if the data is not a snapshot, has another version or is corrupt
+     */
+    public static ReferenceSnapshot decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice();
+        if (in.remaining() < 20 || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a reference data snapshot");
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+
+        int end = in.limit() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate().position(0).limit(end));
+        if ((int) crc.getValue() != in.getInt(end)) {
+            throw new IllegalArgumentException("Snapshot checksum mismatch");
+        }
+        in.limit(end);
+
+        try {
+            in.getShort();
+            long writtenAt = in.getLong();
+            String[] strings = readStrings(in);
+            List<Drone> drones = readDrones(in, strings);
+            List<ServicePoint> servicePoints = readServicePoints(in, strings);
+            List<RestrictedArea> areas = readAreas(in, strings);
+            List<ServicePointDrones> availability = readAvailability(in, strings);
+            return new ReferenceSnapshot(drones, servicePoints, areas, availability, writtenAt);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed reference data snapshot", e);
+        }
+    }
+
+    private static void writeDrones(DataOutputStream out, StringTable strings, List<Drone> drones) throws IOException {
+        List<Drone> present = nonNull(drones);
+        out.writeInt(present.size());
+        for (Drone drone : present) {
+            out.writeInt(strings.ref(drone.getId()));
+            out.writeInt(strings.ref(drone.getName()));
+            Capability capability = drone.getCapability();
+            out.writeBoolean(capability != null);
+            if (capability != null) {
+                out.writeByte((capability.isCooling() ? 1 : 0) | (capability.isHeating() ? 2 : 0));
+                out.writeDouble(capability.getCapacity());
+                out.writeInt(capability.getMaxMoves());
+                out.writeDouble(capability.getCostPerMove());
+                out.writeDouble(capability.getCostInitial());
+                out.writeDouble(capability.getCostFinal());
+            }
+        }
+    }
+
+    private static List<Drone> readDrones(ByteBuffer in, String[] strings) {
+        int count = in.getInt();
+        List<Drone> drones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Drone drone = new Drone();
+            drone.setId(string(strings, in.getInt()));
+            drone.setName(string(strings, in.getInt()));
+            if (in.get() != 0) {
+                Capability capability = new Capability();
+                byte flags = in.get();
+                capability.setCooling((flags & 1) != 0);
+                capability.setHeating((flags & 2) != 0);
+                capability.setCapacity(in.getDouble());
+                capability.setMaxMoves(in.getInt());
+                capability.setCostPerMove(in.getDouble());
+                capability.setCostInitial(in.getDouble());
+                capability.setCostFinal(in.getDouble());
+                drone.setCapability(capability);
+            }
+            drones.add(drone);
+        }
+        return drones;
+    }
+
+    private static void writeServicePoints(DataOutputStream out, StringTable strings,
+                                           List<ServicePoint> servicePoints) throws IOException {
+        List<ServicePoint> present = nonNull(servicePoints);
+        out.writeInt(present.size());
+        for (ServicePoint servicePoint : present) {
+            out.writeInt(servicePoint.getId());
+            out.writeInt(strings.ref(servicePoint.getName()));
+            ServicePoint.Location location = servicePoint.getLocation();
+            out.writeBoolean(location != null);
+            if (location != null) {
+                out.writeDouble(location.getLng());
+                out.writeDouble(location.getLat());
+                out.writeDouble(location.getAlt());
+            }
+        }
+    }
+
+    private static List<ServicePoint> readServicePoints(ByteBuffer in, String[] strings) {
+        int count = in.getInt();
+        List<ServicePoint> servicePoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ServicePoint servicePoint = new ServicePoint();
+            servicePoint.setId(in.getInt());
+            servicePoint.setName(string(strings, in.getInt()));
+            if (in.get() != 0) {
+                ServicePoint.Location location = new ServicePoint.Location();
+                location.setLng(in.getDouble());
+                location.setLat(in.getDouble());
+                location.setAlt(in.getDouble());
+                servicePoint.setLocation(location);
+            }
+            servicePoints.add(servicePoint);
+        }
+        return servicePoints;
+    }
+
+    private static void writeAreas(DataOutputStream out, StringTable strings,
+                                   List<RestrictedArea> areas) throws IOException {
+        List<RestrictedArea> present = nonNull(areas);
+        out.writeInt(present.size());
+        for (RestrictedArea area : present) {
+            out.writeInt(strings.ref(area.getName()));
+            out.writeInt(area.getId() != null ? area.getId() : NULL_INT);
+            RestrictedArea.Limits limits = area.getLimits();
+            out.writeBoolean(limits != null);
+            if (limits != null) {
+                out.writeDouble(orNaN(limits.getLower()));
+                out.writeDouble(orNaN(limits.getUpper()));
+            }
+            List<Position> vertices = area.getVertices();
+            if (vertices == null) {
+                out.writeInt(-1);
+                continue;
+            }
+            List<Position> points = nonNull(vertices);
+            out.writeInt(points.size());
+            for (Position vertex : points) {
+                out.writeDouble(orNaN(vertex.getLng()));
+                out.writeDouble(orNaN(vertex.getLat()));
+            }
+        }
+    }
+
+    private static List<RestrictedArea> readAreas(ByteBuffer in, String[] strings) {
+        int count = in.getInt();
+        List<RestrictedArea> areas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = string(strings, in.getInt());
+            int id = in.getInt();
+            RestrictedArea.Limits limits = null;
+            if (in.get() != 0) {
+                limits = new RestrictedArea.Limits(orNull(in.getDouble()), orNull(in.getDouble()));
+            }
+            int vertexCount = in.getInt();
+            List<Position> vertices = null;
+            if (vertexCount >= 0) {
+                double[] flat = new double[vertexCount * 2];
+                in.asDoubleBuffer().get(flat);
+                in.position(in.position() + flat.length * Double.BYTES);
+                vertices = new ArrayList<>(vertexCount);
+                for (int v = 0; v < flat.length; v += 2) {
+                    vertices.add(new Position(orNull(flat[v]), orNull(flat[v + 1])));
+                }
+            }
+            areas.add(new RestrictedArea(name, id == NULL_INT ? null : id, limits, vertices));
+        }
+        return areas;
+    }
+
+    private static void writeAvailability(DataOutputStream out, StringTable strings,
+                                          List<ServicePointDrones> availability) throws IOException {
+        List<ServicePointDrones> present = nonNull(availability);
+        out.writeInt(present.size());
+        for (ServicePointDrones servicePoint : present) {
+            out.writeInt(servicePoint.getServicePointId() != null ? servicePoint.getServicePointId() : NULL_INT);
+            if (servicePoint.getDrones() == null) {
+                out.writeInt(-1);
+                continue;
+            }
+            List<DroneWithAvailability> drones = nonNull(servicePoint.getDrones());
+            out.writeInt(drones.size());
+            for (DroneWithAvailability drone : drones) {
+                out.writeInt(strings.ref(drone.getId()));
+                if (drone.getAvailability() == null) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                List<TimeWindow> windows = nonNull(drone.getAvailability());
+                out.writeInt(windows.size());
+                for (TimeWindow window : windows) {
+                    out.writeInt(strings.ref(window.getDayOfWeek()));
+                    out.writeInt(strings.ref(window.getFrom()));
+                    out.writeInt(strings.ref(window.getUntil()));
+                }
+            }
+        }
+    }
+
+    private static List<ServicePointDrones> readAvailability(ByteBuffer in, String[] strings) {
+        int count = in.getInt();
+        List<ServicePointDrones> availability = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ServicePointDrones servicePoint = new ServicePointDrones();
+            int id = in.getInt();
+            servicePoint.setServicePointId(id == NULL_INT ? null : id);
+            int droneCount = in.getInt();
+            if (droneCount >= 0) {
+                List<DroneWithAvailability> drones = new ArrayList<>(droneCount);
+                for (int d = 0; d < droneCount; d++) {
+                    DroneWithAvailability drone = new DroneWithAvailability();
+                    drone.setId(string(strings, in.getInt()));
+                    int windowCount = in.getInt();
+                    if (windowCount >= 0) {
+                        List<TimeWindow> windows = new ArrayList<>(windowCount);
+                        for (int w = 0; w < windowCount; w++) {
+                            TimeWindow window = new TimeWindow();
+                            window.setDayOfWeek(string(strings, in.getInt()));
+                            window.setFrom(string(strings, in.getInt()));
+                            window.setUntil(string(strings, in.getInt()));
+                            windows.add(window);
+                        }
+                        drone.setAvailability(windows);
+                    }
+                    drones.add(drone);
+                }
+                servicePoint.setDrones(drones);
+            }
+            availability.add(servicePoint);
+        }
+        return availability;
+    }
+
+    private static String[] readStrings(ByteBuffer in) {
+        int count = in.getInt();
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = in.getInt();
+            byte[] utf8 = new byte[length];
+            in.get(utf8);
+            strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref == NULL_REF ? null : strings[ref];
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        if (list == null) {
+            return List.of();
+        }
+        return list.stream().filter(Objects::nonNull).toList();
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new LinkedHashMap<>();
+
+        int ref(String value) {
+            return value == null ? NULL_REF : refs.computeIfAbsent(value, k -> refs.size());
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(refs.size());
+            for (String value : refs.keySet()) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+        }
+    }
+}
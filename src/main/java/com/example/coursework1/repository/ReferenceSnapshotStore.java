@@ -0,0 +1,119 @@
+package com.example.coursework1.repository;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.ServicePoint;
+import com.example.coursework1.dto.ServicePointDrones;
+import com.example.coursework1.model.RestrictedArea;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Persists the cached ILP reference data to a binary snapshot file ({@code ilp.snapshot.path})
+ * and seeds the cache from it at start-up, so a restarted or freshly scheduled instance can plan
+ * straight away while the live data is fetched in the background. Disabled when the path is blank.
+ */
+@Component
+public class ReferenceSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceSnapshotStore.class);
+
+    static final String DRONES = "drones";
+    static final String SERVICE_POINTS = "service-points";
+    static final String RESTRICTED_AREAS = "restricted-areas";
+    static final String DRONES_FOR_SERVICE_POINTS = "drones-for-service-points";
+
+    private final ReferenceDataCache cache;
+    private final Path path;
+
+    public ReferenceSnapshotStore(ReferenceDataCache cache, @Value("${ilp.snapshot.path:}") String path) {
+        this.cache = cache;
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /** Seeds the cache from the snapshot file, if there is a readable one. */
+    @PostConstruct
+    public void restore() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        ReferenceSnapshot snapshot;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            snapshot = ReferenceSnapshotCodec.decode(buffer);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable reference data snapshot {}: {}", path, e.toString());
+            return;
+        }
+
+        cache.seed(DRONES, snapshot.drones());
+        cache.seed(SERVICE_POINTS, snapshot.servicePoints());
+        cache.seed(RESTRICTED_AREAS, snapshot.restrictedAreas());
+        cache.seed(DRONES_FOR_SERVICE_POINTS, snapshot.dronesForServicePoints());
+        logger.info("Seeded reference data from {} in {} ms: {} drones, {} service points, {} restricted areas",
+                path, (System.nanoTime() - start) / 1_000_000, snapshot.drones().size(),
+                snapshot.servicePoints().size(), snapshot.restrictedAreas().size());
+    }
+
+    /**
+     * Writes the currently cached datasets to the snapshot file, replacing it atomically.
+     *
+     * @return {@code false} if disabled or not every dataset has been loaded yet
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized boolean save() throws IOException {
+        if (path == null) {
+            return false;
+        }
+        Object drones = cache.peek(DRONES);
+        Object servicePoints = cache.peek(SERVICE_POINTS);
+        Object areas = cache.peek(RESTRICTED_AREAS);
+        Object availability = cache.peek(DRONES_FOR_SERVICE_POINTS);
+        if (!(drones instanceof List<?>) || !(servicePoints instanceof List<?>)
+                || !(areas instanceof List<?>) || !(availability instanceof List<?>)) {
+            logger.debug("Not all reference datasets are loaded, skipping snapshot");
+            return false;
+        }
+
+        byte[] bytes = ReferenceSnapshotCodec.encode(new ReferenceSnapshot((List<Drone>) drones,
+                (List<ServicePoint>) servicePoints, (List<RestrictedArea>) areas,
+                (List<ServicePointDrones>) availability, System.currentTimeMillis()));
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        logger.info("Wrote reference data snapshot {} ({} bytes)", path, bytes.length);
+        return true;
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write reference data snapshot {}: {}", path, e.toString());
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package com.example.coursework1.repository;
 
 import com.example.coursework1.model.RestrictedArea;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,50 +15,41 @@ import java.util.List;
 public class RestrictedAreaRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(RestrictedAreaRepository.class);
-    private final RestTemplate restTemplate;
-    private final String ilpEndpoint;
+    private static final String DATASET = "restricted-areas";
 
-    private List<RestrictedArea> cachedRestrictedAreas = null;
+    private final IlpDataSource ilpSource;
+    private final ReferenceDataCache cache;
+    private final Duration ttl;
 
-    public RestrictedAreaRepository(RestTemplate restTemplate, String ilpEndpoint) {
-        this.restTemplate = restTemplate;
-        this.ilpEndpoint = ilpEndpoint.endsWith("/") ? ilpEndpoint : ilpEndpoint + "/";
+    public RestrictedAreaRepository(IlpDataSource ilpSource, ReferenceDataCache cache,
+                                    @Value("${ilp.cache.restricted-areas.ttl:30m}") Duration ttl) {
+        this.ilpSource = ilpSource;
+        this.cache = cache;
+        this.ttl = ttl;
     }
 
+    /**
+     * Returns the cached restricted areas. The same list instance is returned until the cache
+     * reloads, which is what lets callers keep derived indexes keyed by list identity.
+     */
     public List<RestrictedArea> fetchRestrictedAreas() {
-        if (cachedRestrictedAreas != null) {
-            logger.debug("Returning cached restricted areas");
-            return cachedRestrictedAreas;
-        }
-
-        try {
-            String url = ilpEndpoint + "restricted-areas";
-            logger.debug("Fetching restricted areas from: {}", url);
-
-            ResponseEntity<List<RestrictedArea>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<RestrictedArea>>() {}
-            );
+        return cache.get(DATASET, ttl, this::loadRestrictedAreas, List.of());
+    }
 
-            cachedRestrictedAreas = response.getBody();
+    public void clearCache() {
+        logger.info("Clearing restricted areas cache");
+        cache.invalidate(DATASET);
+    }
 
-            if (cachedRestrictedAreas == null) {
-                logger.warn("Received null restricted areas from ILP service");
-                cachedRestrictedAreas = new ArrayList<>();
-            }
+    private List<RestrictedArea> loadRestrictedAreas() {
+        List<RestrictedArea> areas = ilpSource.get("restricted-areas", new TypeReference<List<RestrictedArea>>() {});
 
-            logger.info("Successfully fetched {} restricted areas", cachedRestrictedAreas.size());
-            return cachedRestrictedAreas;
-        } catch (Exception e) {
-            logger.error("Failed to fetch restricted areas from ILP service", e);
-            return new ArrayList<>();
+        if (areas == null) {
+            logger.warn("Received null restricted areas from ILP service");
+            areas = new ArrayList<>();
         }
-    }
 
-    public void clearCache() {
-        logger.info("Clearing restricted areas cache");
-        cachedRestrictedAreas = null;
+        logger.info("Successfully fetched {} restricted areas", areas.size());
+        return areas;
     }
-}
\ No newline at end of file
+}
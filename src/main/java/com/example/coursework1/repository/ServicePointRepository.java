@@ -1,43 +1,43 @@
 package com.example.coursework1.repository;
 
 import com.example.coursework1.dto.ServicePoint;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
 
 @Repository
 public class ServicePointRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(ServicePointRepository.class);
-    private final RestTemplate restTemplate;
-    private final String ilpEndpoint;
-
-    public ServicePointRepository(RestTemplate restTemplate, String ilpEndpoint) {
-        this.restTemplate = restTemplate;
-        this.ilpEndpoint = ilpEndpoint.endsWith("/") ? ilpEndpoint : ilpEndpoint + "/";
+    private final IlpDataSource ilpSource;
+    private final ReferenceDataCache cache;
+    private final Duration ttl;
+
+    public ServicePointRepository(IlpDataSource ilpSource, ReferenceDataCache cache,
+                                  @Value("${ilp.cache.service-points.ttl:30m}") Duration ttl) {
+        this.ilpSource = ilpSource;
+        this.cache = cache;
+        this.ttl = ttl;
     }
 
     public List<ServicePoint> fetchAllServicePoints() {
-        try {
-            String url = ilpEndpoint + "service-points";
-            logger.debug("Fetching service points from: {}", url);
-
-            ServicePoint[] points = restTemplate.getForObject(url, ServicePoint[].class);
+        return cache.get("service-points", ttl, this::loadServicePoints, List.of());
+    }
 
-            if (points == null) {
-                logger.warn("Received null service points array from ILP service");
-                return List.of();
-            }
+    private List<ServicePoint> loadServicePoints() {
+        List<ServicePoint> points = ilpSource.get("service-points", new TypeReference<List<ServicePoint>>() {});
 
-            logger.info("Successfully fetched {} service points", points.length);
-            return Arrays.asList(points);
-        } catch (Exception e) {
-            logger.error("Failed to fetch service points from ILP service", e);
+        if (points == null) {
+            logger.warn("Received null service points array from ILP service");
             return List.of();
         }
+
+        logger.info("Successfully fetched {} service points", points.size());
+        return points;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,425 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedAreaIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A* search over the 16-direction move lattice used by the drones.
+ *
+ * Every move is exactly {@link #STEP} degrees along a compass direction that is a
+ * multiple of 22.5 degrees (same geometry as {@link NavigationService}). Nodes are
+ * de-duplicated on coordinates quantized to a fraction of a step, the open list is a
+ * binary heap over primitive node indices, and the heuristic is the exact obstacle-free
+ * move count for the 16-direction metric, which is admissible and much tighter than
+ * plain Euclidean distance.
+ *
+ * In open space that metric makes every node inside the cone between the two compass
+ * directions bracketing the target equally good, so the goal test is applied when a node is
+ * generated rather than when it is popped. Combined with the smaller-h tie-break this keeps
+ * expansions linear in leg length, at the cost of at most one move over the optimum.
+ */
+@Service
+public class AStarPathfinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AStarPathfinder.class);
+
+    private static final double STEP = 0.00015;
+    private static final double CLOSE_THRESHOLD = 0.00015;
+    private static final double QUANTUM = STEP / 4;
+    private static final int MAX_EXPANSIONS = 150_000;
+    // f values within this many moves are treated as equal so rounding noise cannot beat the h tie-break.
+    private static final double F_TIE_TOLERANCE = 1e-6;
+
+    private static final int DIRECTIONS = 16;
+    private static final double[] DX = new double[DIRECTIONS];
+    private static final double[] DY = new double[DIRECTIONS];
+
+    private static final double SIN_22_5 = Math.sin(Math.toRadians(22.5));
+    private static final double COS_22_5 = Math.cos(Math.toRadians(22.5));
+    private static final double TAN_22_5 = Math.tan(Math.toRadians(22.5));
+    private static final double SQRT_HALF = Math.sqrt(0.5);
+    // Largest ratio between the 16-direction distance and the Euclidean distance.
+    private static final double MAX_METRIC_RATIO = 1.0 / Math.cos(Math.toRadians(11.25));
+
+    static {
+        for (int i = 0; i < DIRECTIONS; i++) {
+            double rad = Math.toRadians(i * 22.5);
+            DX[i] = STEP * Math.cos(rad);
+            DY[i] = STEP * Math.sin(rad);
+        }
+    }
+
+    private final RestrictedAreaService restrictedAreaService;
+
+    public AStarPathfinder(RestrictedAreaService restrictedAreaService) {
+        this.restrictedAreaService = restrictedAreaService;
+    }
+
+    /**
+     * Finds a shortest sequence of legal moves from {@code from} to any point closer than
+     * {@link #CLOSE_THRESHOLD} to {@code to}.
+     *
+     * @return the visited points including the start, or {@code null} if no path exists
+     *         within the expansion budget
+     */
+    public List<LngLat> findPath(Position from, Position to) {
+        return findPath(from, to, null);
+    }
+
+    /**
+     * Same as {@link #findPath(Position, Position)} against the given restricted areas, so callers
+     * planning several legs look them up once; {@code null} looks up the current ones.
+     */
+    public List<LngLat> findPath(Position from, Position to, RestrictedAreaIndex restrictedAreas) {
+        if (from == null || to == null) {
+            logger.error("Null position in findPath: from={}, to={}", from, to);
+            return null;
+        }
+
+        double sx = from.getLng(), sy = from.getLat();
+        double tx = to.getLng(), ty = to.getLat();
+
+        if (isClose(sx, sy, tx, ty)) {
+            List<LngLat> trivial = new ArrayList<>();
+            trivial.add(new LngLat(sx, sy));
+            return trivial;
+        }
+
+        RestrictedAreaIndex areas = restrictedAreas != null ? restrictedAreas : restrictedAreaService.getAreaIndex();
+        if (isGoalUnreachable(areas, to)) {
+            logger.warn("Target {} lies inside a restricted area with no reachable approach", to);
+            return null;
+        }
+
+        SearchState search = new SearchState();
+        int start = search.addNode(sx, sy, -1, 0, heuristic(sx, sy, tx, ty));
+        search.bestG.put(key(sx, sy), 0);
+        search.heap.push(start);
+
+        int expansions = 0;
+        while (!search.heap.isEmpty()) {
+            int current = search.heap.pop();
+            double cx = search.xs[current];
+            double cy = search.ys[current];
+            long currentKey = key(cx, cy);
+
+            if (!search.closed.add(currentKey)) {
+                continue;
+            }
+
+            if (++expansions > MAX_EXPANSIONS) {
+                logger.warn("A* exceeded {} expansions from {} to {}", MAX_EXPANSIONS, from, to);
+                return null;
+            }
+
+            int nextG = search.g[current] + 1;
+            for (int dir = 0; dir < DIRECTIONS; dir++) {
+                double nx = cx + DX[dir];
+                double ny = cy + DY[dir];
+                long nextKey = key(nx, ny);
+
+                if (search.closed.contains(nextKey)) {
+                    continue;
+                }
+
+                int known = search.bestG.get(nextKey);
+                if (known != LongIntMap.MISSING && known <= nextG) {
+                    continue;
+                }
+
+                if (!isLegalMove(areas, cx, cy, nx, ny)) {
+                    continue;
+                }
+
+                int node = search.addNode(nx, ny, current, nextG, heuristic(nx, ny, tx, ty));
+                if (isClose(nx, ny, tx, ty)) {
+                    logger.debug("A* reached target in {} moves after {} expansions", nextG, expansions);
+                    return search.reconstruct(node);
+                }
+                search.bestG.put(nextKey, nextG);
+                search.heap.push(node);
+            }
+        }
+
+        logger.warn("A* exhausted search space from {} to {} after {} expansions", from, to, expansions);
+        return null;
+    }
+
+    private boolean isLegalMove(RestrictedAreaIndex areas, double x1, double y1, double x2, double y2) {
+        return !restrictedAreaService.segmentCrossesRestrictedArea(areas, x1, y1, x2, y2);
+    }
+
+    /**
+     * The goal region is the open disc of radius {@link #CLOSE_THRESHOLD} around the target.
+     * When the target and a ring just inside that disc are all restricted, no legal node can
+     * ever satisfy the goal test, so the search would only burn its whole budget.
+     */
+    private boolean isGoalUnreachable(RestrictedAreaIndex areas, Position target) {
+        if (!restrictedAreaService.isInRestrictedArea(areas, target)) {
+            return false;
+        }
+        double radius = CLOSE_THRESHOLD * 0.99;
+        for (int dir = 0; dir < DIRECTIONS; dir++) {
+            Position probe = new Position(
+                    target.getLng() + radius * DX[dir] / STEP,
+                    target.getLat() + radius * DY[dir] / STEP);
+            if (!restrictedAreaService.isInRestrictedArea(areas, probe)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lower bound on the number of moves needed to come within {@link #CLOSE_THRESHOLD} of
+     * the target. Uses the exact obstacle-free distance for 16 unit directions: the vector is
+     * folded into the first 45 degrees and decomposed onto the two bounding directions.
+     */
+    static double heuristic(double x, double y, double tx, double ty) {
+        double a = Math.abs(tx - x);
+        double b = Math.abs(ty - y);
+        if (b > a) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+
+        double metric;
+        if (b <= a * TAN_22_5) {
+            // Between 0 and 22.5 degrees: combination of the 0 and 22.5 degree directions.
+            metric = a + b * (1 - COS_22_5) / SIN_22_5;
+        } else {
+            // Between 22.5 and 45 degrees: combination of the 22.5 and 45 degree directions.
+            double alpha = (a - b) / (COS_22_5 - SIN_22_5);
+            double beta = (b - alpha * SIN_22_5) / SQRT_HALF;
+            metric = alpha + beta;
+        }
+
+        double remaining = metric - CLOSE_THRESHOLD * MAX_METRIC_RATIO;
+        return remaining <= 0 ? 0 : remaining / STEP;
+    }
+
+    private static boolean isClose(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy) < CLOSE_THRESHOLD;
+    }
+
+    private static long key(double x, double y) {
+        long kx = Math.round(x / QUANTUM);
+        long ky = Math.round(y / QUANTUM);
+        return (kx << 32) ^ (ky & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Per-call search state. Nodes live in parallel primitive arrays so the hot loop does not
+     * allocate an object per expansion.
+     */
+    private static final class SearchState {
+        double[] xs = new double[1024];
+        double[] ys = new double[1024];
+        int[] parent = new int[1024];
+        int[] g = new int[1024];
+        double[] f = new double[1024];
+        double[] h = new double[1024];
+        int size = 0;
+
+        final LongIntMap bestG = new LongIntMap();
+        final LongSet closed = new LongSet();
+        final NodeHeap heap = new NodeHeap(this);
+
+        int addNode(double x, double y, int parentIndex, int cost, double estimate) {
+            if (size == xs.length) {
+                int capacity = size * 2;
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                g = Arrays.copyOf(g, capacity);
+                f = Arrays.copyOf(f, capacity);
+                h = Arrays.copyOf(h, capacity);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            parent[size] = parentIndex;
+            g[size] = cost;
+            h[size] = estimate;
+            f[size] = cost + estimate;
+            return size++;
+        }
+
+        List<LngLat> reconstruct(int node) {
+            List<LngLat> path = new ArrayList<>(g[node] + 1);
+            for (int n = node; n != -1; n = parent[n]) {
+                path.add(new LngLat(xs[n], ys[n]));
+            }
+            Collections.reverse(path);
+            return path;
+        }
+    }
+
+    /**
+     * Binary min-heap of node indices ordered by f, breaking ties towards the node closer to
+     * the goal (smaller h) so straight runs are followed depth-first.
+     */
+    private static final class NodeHeap {
+        private final SearchState state;
+        private int[] items = new int[1024];
+        private int size = 0;
+
+        NodeHeap(SearchState state) {
+            this.state = state;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int node) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            int i = size++;
+            items[i] = node;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (!less(items[i], items[p])) break;
+                swap(i, p);
+                i = p;
+            }
+        }
+
+        int pop() {
+            int top = items[0];
+            items[0] = items[--size];
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1;
+                if (l >= size) break;
+                int r = l + 1;
+                int c = (r < size && less(items[r], items[l])) ? r : l;
+                if (!less(items[c], items[i])) break;
+                swap(i, c);
+                i = c;
+            }
+            return top;
+        }
+
+        private boolean less(int a, int b) {
+            double fa = state.f[a], fb = state.f[b];
+            if (Math.abs(fa - fb) > F_TIE_TOLERANCE) return fa < fb;
+            return state.h[a] < state.h[b];
+        }
+
+        private void swap(int i, int j) {
+            int t = items[i];
+            items[i] = items[j];
+            items[j] = t;
+        }
+    }
+
+    /** Open-addressing long to int map; avoids boxing the quantized coordinate keys. */
+    private static final class LongIntMap {
+        static final int MISSING = Integer.MIN_VALUE;
+
+        private long[] keys = new long[2048];
+        private int[] values = new int[2048];
+        private boolean[] used = new boolean[2048];
+        private int size = 0;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return MISSING;
+        }
+
+        void put(long key, int value) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /** Open-addressing set of longs for the closed list. */
+    private static final class LongSet {
+        private long[] keys = new long[2048];
+        private boolean[] used = new boolean[2048];
+        private int size = 0;
+
+        boolean contains(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) return true;
+            }
+            return false;
+        }
+
+        boolean add(long key) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) return false;
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = key;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) add(oldKeys[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.coursework1.service;
 
 import com.example.coursework1.dto.*;
+import com.example.coursework1.model.FleetSnapshot;
 import com.example.coursework1.model.Position;
 import com.example.coursework1.model.RestrictedArea;
 import org.slf4j.Logger;
@@ -8,6 +9,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,31 +19,92 @@ public class DeliveryPlannerService {
 
     private static final Logger logger = LoggerFactory.getLogger(DeliveryPlannerService.class);
 
-    private final DroneService droneService;
-    private final ServicePointService servicePointService;
+    private final FleetSnapshotService fleetSnapshotService;
     private final RestrictedAreaService restrictedAreaService;
     private final DroneAvailabilityService droneAvailabilityService;
+    private final DistanceMatrixService distanceMatrixService;
+    private final ForkJoinPool planningPool;
 
     private static final double STEP = 0.00015;
     private static final double ANGLE_INCREMENT = 22.5;
-    private static final double CLOSE_THRESHOLD = 0.00015;
     private static final double EPS = 1e-12;
-    private static final int MAX_PATH_ITERATIONS = 30000;
+    private static final long OPTIMIZER_BUDGET_MILLIS = 200;
 
-    public DeliveryPlannerService(DroneService droneService,
-                                  ServicePointService servicePointService,
+    public DeliveryPlannerService(FleetSnapshotService fleetSnapshotService,
                                   RestrictedAreaService restrictedAreaService,
-                                  DroneAvailabilityService droneAvailabilityService) {
-        this.droneService = droneService;
-        this.servicePointService = servicePointService;
+                                  DroneAvailabilityService droneAvailabilityService,
+                                  DistanceMatrixService distanceMatrixService,
+                                  ForkJoinPool planningPool) {
+        this.fleetSnapshotService = fleetSnapshotService;
         this.restrictedAreaService = restrictedAreaService;
         this.droneAvailabilityService = droneAvailabilityService;
+        this.distanceMatrixService = distanceMatrixService;
+        this.planningPool = planningPool;
     }
     /**
      * Computes optimal flight path using A* pathfinding algorithm with restricted area avoidance.
+     * Each leg is searched by {@link AStarPathfinder} over the 16-direction move lattice.
      *
      **/
     public CalcDeliveryResult calcDeliveryPath(List<MedDispatchRec> dispatches) {
+        return calcDeliveryPath(dispatches, PlanningOptions.defaults());
+    }
+
+    /**
+     * Same as {@link #calcDeliveryPath(List)} with per-request settings such as the leg router.
+     */
+    public CalcDeliveryResult calcDeliveryPath(List<MedDispatchRec> dispatches, PlanningOptions options) {
+        return calcDeliveryPath(dispatches, options, null);
+    }
+
+    /**
+     * Plans against a fleet snapshot the caller already holds, so the drones, availability and
+     * service points are fetched at most once per request. A {@code null} fleet is captured here.
+     *
+     * With {@link PlanningOptions#getMaxPlanningMillis()} set, the planner checks the deadline
+     * between legs and, once it has passed, finishes only the flights already under way. The result
+     * is then flagged {@code optimal} if nothing was cut short and {@code partial} if some
+     * dispatches were left unplaced because of the budget. A leg already being searched is not
+     * interrupted, and the first delivery is planned however late, so a plan is never empty only
+     * because the budget ran out.
+     */
+    public CalcDeliveryResult calcDeliveryPath(List<MedDispatchRec> dispatches, PlanningOptions options,
+                                               FleetSnapshot fleet) {
+        PlanningOptions settings = (options != null ? options : PlanningOptions.defaults()).startClock();
+        return flagBudget(plan(dispatches, settings, fleet), dispatches, settings);
+    }
+
+    /**
+     * Plans {@code dispatches} as a single flight of {@code drone} from {@code base}, for callers
+     * that have already picked the drone. The result is empty if that drone cannot fly them.
+     */
+    public CalcDeliveryResult calcDeliveryPath(Drone drone, Position base, List<MedDispatchRec> dispatches,
+                                               PlanningOptions options) {
+        PlanningOptions settings = (options != null ? options : PlanningOptions.defaults()).startClock();
+        CalcDeliveryResult result = planSingleDroneDelivery(drone, new ArrayList<>(plannable(dispatches)),
+                base, settings);
+        if (result == null) {
+            result = new CalcDeliveryResult(0.0, 0, List.of());
+        }
+        return flagBudget(result, dispatches, settings);
+    }
+
+    private CalcDeliveryResult flagBudget(CalcDeliveryResult result, List<MedDispatchRec> dispatches,
+                                          PlanningOptions settings) {
+        if (settings.getMaxPlanningMillis() != null) {
+            long placed = result.getDronePaths().stream().mapToLong(p -> p.getDeliveries().size()).sum();
+            boolean cutShort = settings.wasCutShort();
+            result.setOptimal(!cutShort);
+            result.setPartial(cutShort && placed < plannable(dispatches).size());
+            if (cutShort) {
+                logger.info("Planning budget of {} ms ran out: {} of {} dispatches placed",
+                        settings.getMaxPlanningMillis(), placed, plannable(dispatches).size());
+            }
+        }
+        return result;
+    }
+
+    private CalcDeliveryResult plan(List<MedDispatchRec> dispatches, PlanningOptions settings, FleetSnapshot fleet) {
         logger.info("=== Starting calcDeliveryPath for {} dispatches ===",
                 dispatches != null ? dispatches.size() : 0);
 
@@ -64,33 +129,42 @@ public class DeliveryPlannerService {
             logger.info("Planning delivery path for date: {}", uniqueDates.iterator().next());
         }
 
-        List<MedDispatchRec> pending = new ArrayList<>(dispatches.stream()
-                .filter(d -> d != null && d.getId() != null &&
-                        d.getRequirements() != null && d.getDelivery() != null)
-                .toList());
+        List<MedDispatchRec> pending = new ArrayList<>(plannable(dispatches));
 
-        List<Drone> allDrones = droneService.fetchAllDrones();
-        List<ServicePoint> servicePoints = servicePointService.fetchAllServicePoints();
+        FleetSnapshot snapshot = fleet != null ? fleet : fleetSnapshotService.capture();
+        settings.useRestrictedAreas(snapshot.getRestrictedAreas());
+        List<Drone> allDrones = snapshot.getDrones();
+        List<ServicePoint> servicePoints = snapshot.getServicePoints();
 
         Position defaultBase = servicePoints.isEmpty() ?
                 new Position(0.0, 0.0) : safeGetPosition(servicePoints.get(0));
+        Map<String, Position> homes = settings.isMultiBase() ? homeBases(allDrones, snapshot, defaultBase) : null;
 
         logger.info("PHASE 1: Checking if any single drone can handle all {} dispatches", pending.size());
-        List<String> singleDroneCapable = droneAvailabilityService.queryAvailableDrones(pending);
+        List<String> singleDroneCapable = droneAvailabilityService.queryAvailableDrones(pending, snapshot);
 
         if (!singleDroneCapable.isEmpty()) {
             logger.info("Found {} drones capable of handling all dispatches in single journey: {}",
                     singleDroneCapable.size(), singleDroneCapable);
 
+            Comparator<Drone> preference = Comparator.comparingDouble((Drone dr) -> -safeGetCapabilityCapacity(dr));
+            if (homes != null) {
+                Position centroid = centroid(pending);
+                preference = Comparator.comparingDouble((Drone dr) -> dist(homes.get(dr.getId()), centroid))
+                        .thenComparing(preference);
+            }
             List<Drone> capableDrones = allDrones.stream()
                     .filter(d -> singleDroneCapable.contains(d.getId()))
-                    .sorted(Comparator.comparingDouble((Drone dr) -> -safeGetCapabilityCapacity(dr)))
+                    .sorted(preference)
                     .toList();
 
+            // The first drone is always tried so a late start still places something
             for (Drone drone : capableDrones) {
+                if (drone != capableDrones.get(0) && settings.isOutOfTime()) break;
                 logger.info("Attempting single-drone delivery with drone {}", drone.getId());
+                Position base = homes != null ? homes.get(drone.getId()) : defaultBase;
                 CalcDeliveryResult singleDroneResult = planSingleDroneDelivery(
-                        drone, new ArrayList<>(pending), defaultBase);
+                        drone, new ArrayList<>(pending), base, settings);
 
                 if (singleDroneResult != null && !singleDroneResult.getDronePaths().isEmpty()) {
                     logger.info(" Successfully planned all deliveries with single drone {}!", drone.getId());
@@ -106,11 +180,28 @@ public class DeliveryPlannerService {
         }
 
         logger.info("PHASE 2: Planning multi-drone delivery");
-        return planMultiDroneDelivery(pending, dispatches, allDrones, defaultBase);
+        if (homes != null && new HashSet<>(homes.values()).size() > 1) {
+            return planMultiBaseDelivery(pending, dispatches, allDrones, homes, settings, snapshot);
+        }
+        if (settings.isOptimize()) {
+            return planOptimizedDelivery(pending, dispatches, allDrones, defaultBase, settings, snapshot);
+        }
+        if (settings.isParallel()) {
+            return planMultiDroneDeliveryParallel(pending, dispatches, allDrones, defaultBase, settings, snapshot);
+        }
+        return planMultiDroneDelivery(pending, dispatches, allDrones, defaultBase, settings, snapshot);
+    }
+
+    private List<MedDispatchRec> plannable(List<MedDispatchRec> dispatches) {
+        if (dispatches == null) return List.of();
+        return dispatches.stream()
+                .filter(d -> d != null && d.getId() != null &&
+                        d.getRequirements() != null && d.getDelivery() != null)
+                .toList();
     }
 
     private CalcDeliveryResult planSingleDroneDelivery(Drone drone, List<MedDispatchRec> dispatches,
-                                                   Position base) {
+                                                   Position base, PlanningOptions options) {
         Capability cap = drone.getCapability();
         if (cap == null) return null;
 
@@ -119,22 +210,21 @@ public class DeliveryPlannerService {
         int totalMoves = 0;
 
         for (int deliveryIdx = 0; deliveryIdx < dispatches.size(); deliveryIdx++) {
+            if (deliveryIdx > 0 && options.isOutOfTime()) {
+                logger.info("Planning budget ran out during single-drone delivery with drone {}", drone.getId());
+                return null;
+            }
             MedDispatchRec dispatch = dispatches.get(deliveryIdx);
             Position dest = dispatch.getDelivery();
 
             logger.debug("Planning path for delivery {} from {} to {}",
                     dispatch.getId(), current, dest);
 
-            List<LngLat> pathToDest = buildPathAvoidingRestrictions(current, dest);
+            List<LngLat> pathToDest = buildPathAvoidingRestrictions(current, dest, options);
 
             if (pathToDest == null || pathToDest.isEmpty()) {
-                logger.warn("Failed to find path for delivery {}, trying relaxed", dispatch.getId());
                 diagnoseDeliveryFailure(dispatch, current);
-                pathToDest = buildPathWithRelaxedConstraints(current, dest);
-            }
-
-            if (pathToDest == null || pathToDest.isEmpty()) {
-                logger.error("All pathfinding failed for delivery {} - cannot complete single-drone delivery",
+                logger.error("Pathfinding failed for delivery {} - cannot complete single-drone delivery",
                         dispatch.getId());
                 return null;
             }
@@ -174,10 +264,7 @@ public class DeliveryPlannerService {
                     dispatch.getId(), steps, current.getLng(), current.getLat(), closestDist);
         }
 
-        List<LngLat> returnPath = buildPathAvoidingRestrictions(current, base);
-        if (returnPath == null) {
-            returnPath = buildPathWithRelaxedConstraints(current, base);
-        }
+        List<LngLat> returnPath = buildPathAvoidingRestrictions(current, base, options);
 
         if (returnPath == null || returnPath.isEmpty()) {
             logger.error("Failed to find return path - cannot complete single-drone delivery");
@@ -215,7 +302,9 @@ public class DeliveryPlannerService {
     private CalcDeliveryResult planMultiDroneDelivery(List<MedDispatchRec> pending,
                                                   List<MedDispatchRec> allDispatches,
                                                   List<Drone> allDrones,
-                                                  Position defaultBase) {
+                                                  Position defaultBase,
+                                                  PlanningOptions options,
+                                                  FleetSnapshot fleet) {
         double totalCost = 0.0;
         int totalMoves = 0;
         List<DronePathResult> dronePaths = new ArrayList<>();
@@ -223,8 +312,9 @@ public class DeliveryPlannerService {
         List<Drone> sortedDrones = new ArrayList<>(allDrones);
         sortedDrones.sort(Comparator.comparingDouble((Drone d) -> d.getCapability() != null ? d.getCapability().getCapacity() : 0).reversed());
 
+        // Until the first delivery is placed the budget is ignored, so there is always a best-so-far plan
         for (Drone drone : sortedDrones) {
-            if (pending.isEmpty()) break;
+            if (pending.isEmpty() || (!dronePaths.isEmpty() && options.isOutOfTime())) break;
 
             Capability cap = drone.getCapability();
             if (cap == null) continue;
@@ -235,7 +325,8 @@ public class DeliveryPlannerService {
             double totalDroneCost = 0.0;
             int flightNumber = 0;
 
-            while (!pending.isEmpty()) {
+            while (!pending.isEmpty()
+                    && ((dronePaths.isEmpty() && allDeliveries.isEmpty()) || !options.isOutOfTime())) {
                 flightNumber++;
                 logger.info("Drone {} starting flight #{}", drone.getId(), flightNumber);
 
@@ -252,8 +343,7 @@ public class DeliveryPlannerService {
                             if (!fitsRequirements(m.getRequirements(), cap)) {
                                 return false;
                             }
-                            List<String> available = droneAvailabilityService.queryAvailableDrones(List.of(m));
-                            boolean isAvailable = available.contains(drone.getId());
+                            boolean isAvailable = droneAvailabilityService.canHandleAll(drone, List.of(m), fleet);
                             if (!isAvailable) {
                                 logger.trace("Drone {} not available for dispatch {}", drone.getId(), m.getId());
                             }
@@ -268,7 +358,9 @@ public class DeliveryPlannerService {
 
                 logger.info("Drone {} has {} candidates for flight #{}", drone.getId(), candidates.size(), flightNumber);
 
-                while (!candidates.isEmpty() && movesLeft > 0) {
+                // Out of time: stop adding deliveries but still fly the ones taken back to base
+                while (!candidates.isEmpty() && movesLeft > 0
+                        && (flightDeliveries.isEmpty() || !options.isOutOfTime())) {
                     MedDispatchRec next = nearest(current, candidates);
                     if (next == null) break;
 
@@ -285,16 +377,11 @@ public class DeliveryPlannerService {
                         continue;
                     }
 
-                    List<LngLat> pathToDest = buildPathAvoidingRestrictions(current, dest);
+                    List<LngLat> pathToDest = buildPathAvoidingRestrictions(current, dest, options);
 
                     if (pathToDest == null || pathToDest.isEmpty()) {
-                        logger.warn("Failed to find path for delivery {}, trying relaxed", next.getId());
                         diagnoseDeliveryFailure(next, current);
-                        pathToDest = buildPathWithRelaxedConstraints(current, dest);
-                    }
-
-                    if (pathToDest == null || pathToDest.isEmpty()) {
-                        logger.error("All pathfinding failed for delivery {} - SKIPPING", next.getId());
+                        logger.error("Pathfinding failed for delivery {} - SKIPPING", next.getId());
                         candidates.remove(next);
                         pending.remove(next);
                         continue;
@@ -354,10 +441,7 @@ public class DeliveryPlannerService {
                     break;
                 }
 
-                List<LngLat> returnPath = buildPathAvoidingRestrictions(current, base);
-                if (returnPath == null) {
-                    returnPath = buildPathWithRelaxedConstraints(current, base);
-                }
+                List<LngLat> returnPath = buildPathAvoidingRestrictions(current, base, options);
 
                 int stepsBack = returnPath != null ? returnPath.size() - 1 : estimateStepsBack(current, base);
 
@@ -412,259 +496,493 @@ public class DeliveryPlannerService {
         return new CalcDeliveryResult(totalCost, totalMoves, dronePaths);
     }
 
-    private List<LngLat> buildPathAvoidingRestrictions(Position from, Position to) {
-        if (from == null || to == null) {
-            logger.error("Null position in buildPath: from={}, to={}", from, to);
-            return null;
+    /**
+     * Parallel variant of {@link #planMultiDroneDelivery}. Dispatches are split by
+     * cooling/heating requirement, each class gets a share of the drones that can serve it,
+     * and each class is cut into one angular sector around the base per drone. Every
+     * (drone, sector) pair is planned with the serial planner on {@link #planningPool}.
+     * Results are merged in partition order, never completion order, so the output is
+     * deterministic. Dispatches a partition could not place are then planned serially with
+     * the whole fleet. Every flight starts and ends at the base, so a drone's later flights
+     * simply append to its earlier ones.
+     */
+    private CalcDeliveryResult planMultiDroneDeliveryParallel(List<MedDispatchRec> pending,
+                                                          List<MedDispatchRec> allDispatches,
+                                                          List<Drone> allDrones,
+                                                          Position base,
+                                                          PlanningOptions options,
+                                                          FleetSnapshot fleet) {
+        PlanningOptions serial = options.serial();
+        List<Drone> sortedDrones = allDrones.stream()
+                .filter(d -> d.getCapability() != null)
+                .sorted(Comparator.comparingDouble((Drone d) -> d.getCapability().getCapacity()).reversed()
+                        .thenComparing(Drone::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        List<Partition> partitions = partitionDispatches(pending, sortedDrones, base);
+        if (partitions.size() < 2) {
+            logger.info("Parallel planning produced {} partition(s), planning serially", partitions.size());
+            return planMultiDroneDelivery(pending, allDispatches, allDrones, base, serial, fleet);
         }
 
-        double totalDistance = dist(from, to);
-        logger.debug("Building path from {} to {}, distance={}", from, to, totalDistance);
-
-        List<LngLat> path = new ArrayList<>();
-        path.add(new LngLat(from.getLng(), from.getLat()));
+        logger.info("Planning {} partitions in parallel on {} threads",
+                partitions.size(), planningPool.getParallelism());
 
-        Position current = new Position(from.getLng(), from.getLat());
-        int iterations = 0;
-        int consecutiveBlocked = 0;
+        List<ForkJoinTask<CalcDeliveryResult>> tasks = new ArrayList<>();
+        for (Partition partition : partitions) {
+            tasks.add(planningPool.submit(() -> planMultiDroneDelivery(
+                    partition.dispatches(), allDispatches, List.of(partition.drone()), base, serial, fleet)));
+        }
 
-        while (!isCloseEnough(current, to) && iterations < MAX_PATH_ITERATIONS) {
-            iterations++;
+        Map<String, List<DeliveryResult>> deliveriesByDrone = new LinkedHashMap<>();
+        double totalCost = 0.0;
+        int totalMoves = 0;
+        List<MedDispatchRec> leftovers = new ArrayList<>();
+
+        for (int i = 0; i < partitions.size(); i++) {
+            CalcDeliveryResult partial = tasks.get(i).join();
+            totalCost += partial.getTotalCost();
+            totalMoves += partial.getTotalMoves();
+            for (DronePathResult path : partial.getDronePaths()) {
+                deliveriesByDrone.computeIfAbsent(path.getDroneId(), id -> new ArrayList<>())
+                        .addAll(path.getDeliveries());
+            }
+            leftovers.addAll(partitions.get(i).dispatches().stream().filter(Objects::nonNull).toList());
+        }
 
-            double targetAngle = calculateAngle(current, to);
-            Position nextDirect = moveInDirection(current, targetAngle);
+        if (!leftovers.isEmpty()) {
+            logger.info("{} dispatches not placed by their partition, planning them serially", leftovers.size());
+            CalcDeliveryResult rest = planMultiDroneDelivery(leftovers, allDispatches, allDrones, base, serial, fleet);
+            totalCost += rest.getTotalCost();
+            totalMoves += rest.getTotalMoves();
+            for (DronePathResult path : rest.getDronePaths()) {
+                deliveriesByDrone.computeIfAbsent(path.getDroneId(), id -> new ArrayList<>())
+                        .addAll(path.getDeliveries());
+            }
+        }
 
-            double distanceToTarget = dist(current, to);
-            if (distanceToTarget < STEP * 5 && iterations % 50 == 0) {
-                logger.debug("Getting close to target: distance={}, iteration={}",
-                        distanceToTarget, iterations);
+        List<DronePathResult> dronePaths = new ArrayList<>();
+        for (Drone drone : sortedDrones) {
+            List<DeliveryResult> deliveries = deliveriesByDrone.get(drone.getId());
+            if (deliveries != null && !deliveries.isEmpty()) {
+                dronePaths.add(new DronePathResult(drone.getId(), deliveries));
             }
+        }
 
-            if (!pathSegmentCrossesRestriction(current, nextDirect)) {
-                current = nextDirect;
-                path.add(new LngLat(current.getLng(), current.getLat()));
-                consecutiveBlocked = 0;
-            } else {
-                logger.trace("Direct path blocked at iteration {}, trying alternatives", iterations);
+        logger.info("=== Parallel multi-drone completed: {} drones, {} moves, ${} cost ===",
+                dronePaths.size(), totalMoves, totalCost);
 
-                Position nextPos = findAlternativeMove(current, to, targetAngle);
+        return new CalcDeliveryResult(totalCost, totalMoves, dronePaths);
+    }
 
-                if (nextPos == null) {
-                    logger.warn("No alternative move found at iteration {} (distance to target: {})",
-                            iterations, distanceToTarget);
+    /**
+     * Splits dispatches into independent (drone, dispatches) work units. The most demanding
+     * requirement classes pick drones first, so drones with both cooling and heating are not
+     * used up by dispatches that need neither.
+     */
+    private List<Partition> partitionDispatches(List<MedDispatchRec> pending, List<Drone> sortedDrones,
+                                                Position base) {
+        Map<Integer, List<MedDispatchRec>> byClass = new TreeMap<>(Comparator.reverseOrder());
+        for (MedDispatchRec dispatch : pending) {
+            Requirements req = dispatch.getRequirements();
+            int requirementClass = (req.isCooling() ? 2 : 0) + (req.isHeating() ? 1 : 0);
+            byClass.computeIfAbsent(requirementClass, k -> new ArrayList<>()).add(dispatch);
+        }
 
-                    if (distanceToTarget < CLOSE_THRESHOLD * 1.5) {
-                        logger.debug("Close enough to target, accepting current position");
-                        break;
-                    }
+        Set<String> takenDrones = new HashSet<>();
+        List<Partition> partitions = new ArrayList<>();
+        int remainingDispatches = pending.size();
 
-                    return null;
-                }
+        for (List<MedDispatchRec> classDispatches : byClass.values()) {
+            List<Drone> eligible = sortedDrones.stream()
+                    .filter(d -> !takenDrones.contains(d.getId()))
+                    .filter(d -> classDispatches.stream()
+                            .anyMatch(m -> fitsRequirements(m.getRequirements(), d.getCapability())))
+                    .toList();
+            if (eligible.isEmpty()) {
+                continue;
+            }
 
-                current = nextPos;
-                path.add(new LngLat(current.getLng(), current.getLat()));
-                consecutiveBlocked++;
+            int share = (int) Math.round((double) eligible.size() * classDispatches.size() / remainingDispatches);
+            int droneCount = Math.max(1, Math.min(Math.min(share, eligible.size()), classDispatches.size()));
+            remainingDispatches -= classDispatches.size();
 
-                if (consecutiveBlocked > 30) {
-                    logger.warn("Blocked {} consecutive times, may be stuck", consecutiveBlocked);
-                }
-            }
+            List<MedDispatchRec> bySector = new ArrayList<>(classDispatches);
+            bySector.sort(Comparator.comparingDouble((MedDispatchRec m) -> bearingFrom(base, m.getDelivery()))
+                    .thenComparing(MedDispatchRec::getId));
 
-            if (iterations % 2000 == 0) {
-                logger.debug("Pathfinding iteration {}, distance remaining: {}, consecutive blocked: {}",
-                        iterations, dist(current, to), consecutiveBlocked);
+            for (int k = 0; k < droneCount; k++) {
+                int from = k * bySector.size() / droneCount;
+                int to = (k + 1) * bySector.size() / droneCount;
+                Drone drone = eligible.get(k);
+                takenDrones.add(drone.getId());
+                partitions.add(new Partition(drone, new ArrayList<>(bySector.subList(from, to))));
             }
         }
 
-        if (iterations >= MAX_PATH_ITERATIONS) {
-            logger.warn("Exceeded max iterations building path from {} to {}", from, to);
-            return null;
-        }
-
-        double finalDistance = dist(current, to);
-        logger.debug("Path built with {} steps, final position {}, distance to target: {}",
-                path.size(), current, finalDistance);
-
-        return path;
+        return partitions;
     }
 
-    private List<LngLat> buildPathWithRelaxedConstraints(Position from, Position to) {
-        logger.info("Trying RELAXED pathfinding from {} to {} (distance={})",
-                from, to, dist(from, to));
-
-        List<LngLat> path = new ArrayList<>();
-        path.add(new LngLat(from.getLng(), from.getLat()));
+    /**
+     * Multi-base planning. Drones are grouped by home service point and each dispatch goes to the
+     * nearest base with at least one drone that meets its requirements. The bases are planned
+     * concurrently on {@link #planningPool}, each with the optimising, parallel or serial planner as requested
+     * and every flight starting and ending at that base. Dispatches a base could not place are then
+     * offered to the other bases, nearest first. Output is in base order, so it is deterministic.
+     */
+    private CalcDeliveryResult planMultiBaseDelivery(List<MedDispatchRec> pending,
+                                                     List<MedDispatchRec> allDispatches,
+                                                     List<Drone> allDrones,
+                                                     Map<String, Position> homes,
+                                                     PlanningOptions options,
+                                                     FleetSnapshot fleet) {
+        PlanningOptions serial = options.serial();
+        Map<Position, List<Drone>> dronesByBase = new LinkedHashMap<>();
+        for (Drone drone : allDrones) {
+            if (drone.getCapability() != null) {
+                dronesByBase.computeIfAbsent(homes.get(drone.getId()), b -> new ArrayList<>()).add(drone);
+            }
+        }
 
-        Position current = new Position(from.getLng(), from.getLat());
-        int iterations = 0;
-        int stuckCounter = 0;
-        double lastDistance = dist(current, to);
-        double bestDistance = lastDistance;
+        Map<Position, List<MedDispatchRec>> work = new LinkedHashMap<>();
+        List<MedDispatchRec> leftovers = new ArrayList<>();
+        for (MedDispatchRec dispatch : pending) {
+            Position best = null;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (Map.Entry<Position, List<Drone>> base : dronesByBase.entrySet()) {
+                double d = dist(base.getKey(), dispatch.getDelivery());
+                if (d < bestDist && base.getValue().stream()
+                        .anyMatch(drone -> fitsRequirements(dispatch.getRequirements(), drone.getCapability()))) {
+                    best = base.getKey();
+                    bestDist = d;
+                }
+            }
+            if (best != null) {
+                work.computeIfAbsent(best, b -> new ArrayList<>()).add(dispatch);
+            } else {
+                leftovers.add(dispatch);
+            }
+        }
 
-        while (!isCloseEnough(current, to) && iterations < MAX_PATH_ITERATIONS) {
-            iterations++;
+        logger.info("Planning {} dispatches from {} bases in parallel", pending.size(), work.size());
+        Map<Position, ForkJoinTask<CalcDeliveryResult>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<Position, List<MedDispatchRec>> entry : work.entrySet()) {
+            Position base = entry.getKey();
+            List<MedDispatchRec> baseDispatches = entry.getValue();
+            List<Drone> baseDrones = dronesByBase.get(base);
+            tasks.put(base, planningPool.submit(() -> options.isOptimize()
+                    ? planOptimizedDelivery(new ArrayList<>(baseDispatches), allDispatches, baseDrones,
+                            base, serial, fleet)
+                    : options.isParallel()
+                    ? planMultiDroneDeliveryParallel(new ArrayList<>(baseDispatches), allDispatches, baseDrones,
+                            base, options, fleet)
+                    : planMultiDroneDelivery(new ArrayList<>(baseDispatches), allDispatches, baseDrones,
+                            base, serial, fleet)));
+        }
 
-            double targetAngle = calculateAngle(current, to);
-            Position nextDirect = moveInDirection(current, targetAngle);
+        Map<String, List<DeliveryResult>> deliveriesByDrone = new HashMap<>();
+        double totalCost = 0.0;
+        int totalMoves = 0;
+        Set<Integer> placed = new HashSet<>();
+        for (Map.Entry<Position, ForkJoinTask<CalcDeliveryResult>> task : tasks.entrySet()) {
+            CalcDeliveryResult partial = task.getValue().join();
+            totalCost += partial.getTotalCost();
+            totalMoves += partial.getTotalMoves();
+            mergeDeliveries(partial, deliveriesByDrone, placed);
+            work.get(task.getKey()).stream().filter(m -> !placed.contains(m.getId())).forEach(leftovers::add);
+        }
 
-            if (!pathSegmentCrossesRestriction(current, nextDirect)) {
-                current = nextDirect;
-                path.add(new LngLat(current.getLng(), current.getLat()));
-                stuckCounter = 0;
-                lastDistance = dist(current, to);
+        if (!leftovers.isEmpty()) {
+            logger.info("{} dispatches not placed from their nearest base, offering them to other bases",
+                    leftovers.size());
+            Position centroid = centroid(leftovers);
+            List<Position> bases = new ArrayList<>(dronesByBase.keySet());
+            bases.sort(Comparator.comparingDouble(base -> dist(base, centroid)));
+            for (Position base : bases) {
+                if (leftovers.isEmpty()) break;
+                CalcDeliveryResult rest = planMultiDroneDelivery(leftovers, allDispatches, dronesByBase.get(base),
+                        base, serial, fleet);
+                totalCost += rest.getTotalCost();
+                totalMoves += rest.getTotalMoves();
+                mergeDeliveries(rest, deliveriesByDrone, placed);
+            }
+        }
 
-                if (lastDistance < bestDistance) {
-                    bestDistance = lastDistance;
+        List<DronePathResult> dronePaths = new ArrayList<>();
+        for (List<Drone> baseDrones : dronesByBase.values()) {
+            for (Drone drone : baseDrones) {
+                List<DeliveryResult> deliveries = deliveriesByDrone.get(drone.getId());
+                if (deliveries != null && !deliveries.isEmpty()) {
+                    dronePaths.add(new DronePathResult(drone.getId(), deliveries));
                 }
-            } else {
-                Position nextPos = findAlternativeMoveRelaxed(current, to, targetAngle, stuckCounter);
+            }
+        }
 
-                if (nextPos == null) {
-                    logger.warn("No alternative move in relaxed mode at iteration {} (stuck={}, dist={})",
-                            iterations, stuckCounter, dist(current, to));
+        logger.info("=== Multi-base completed: {} bases, {} drones, {} moves, ${} cost ===",
+                work.size(), dronePaths.size(), totalMoves, totalCost);
 
-                    if (dist(current, to) < CLOSE_THRESHOLD * 2) {
-                        logger.info("Relaxed: Close enough to target, accepting position");
-                        break;
-                    }
+        return new CalcDeliveryResult(totalCost, totalMoves, dronePaths);
+    }
 
-                    return null;
-                }
+    /**
+     * Vehicle-routing variant of {@link #planMultiDroneDelivery}. Obstacle-aware move counts between
+     * the base and every dispatch come from {@link DistanceMatrixService}, {@link RouteOptimizer} turns them into
+     * flights that respect capacity, maxMoves and cooling/heating, and each flight is then given to
+     * a drone that can fly it, preferring drones already in use and then the cheapest. Flights are
+     * re-planned leg by leg exactly as the greedy planner would, and dispatches that cannot be
+     * placed this way fall back to the greedy planner with the whole fleet.
+     */
+    private CalcDeliveryResult planOptimizedDelivery(List<MedDispatchRec> pending,
+                                                     List<MedDispatchRec> allDispatches,
+                                                     List<Drone> allDrones,
+                                                     Position base,
+                                                     PlanningOptions options,
+                                                     FleetSnapshot fleet) {
+        // Within a request budget the search may use three quarters of what is left, leaving the
+        // rest for turning routes into flights
+        long start = System.nanoTime();
+        long deadline = options.getMaxPlanningMillis() != null
+                ? start + options.remainingNanos() / 4 * 3
+                : start + TimeUnit.MILLISECONDS.toNanos(OPTIMIZER_BUDGET_MILLIS);
+        List<Drone> drones = allDrones.stream()
+                .filter(d -> d.getCapability() != null)
+                .sorted(Comparator.comparingDouble((Drone d) -> d.getCapability().getCapacity()).reversed()
+                        .thenComparing(Drone::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        List<MedDispatchRec> stops = List.copyOf(pending);
+
+        int[][] cost = legCostMatrix(base, stops, options);
+        List<RouteOptimizer.Stop> demands = stops.stream()
+                .map(m -> new RouteOptimizer.Stop(m.getRequirements().getCapacity(),
+                        m.getRequirements().isCooling(), m.getRequirements().isHeating()))
+                .toList();
+        List<RouteOptimizer.VehicleType> vehicles = drones.stream()
+                .map(d -> new RouteOptimizer.VehicleType(d.getCapability().getCapacity(),
+                        d.getCapability().getMaxMoves(), d.getCapability().isCooling(), d.getCapability().isHeating()))
+                .distinct()
+                .toList();
+        RouteOptimizer optimizer = new RouteOptimizer(cost, demands, vehicles, flightPenalty(drones));
+        List<List<Integer>> routes = new ArrayList<>(optimizer.solve(deadline));
+        if (!optimizer.isConverged()) {
+            options.markCutShort();
+        }
+        logger.info("Optimiser grouped {} dispatches into {} flights ({} estimated moves)",
+                stops.size(), routes.size(), routes.stream().mapToInt(optimizer::moves).sum());
 
-                current = nextPos;
-                path.add(new LngLat(current.getLng(), current.getLat()));
+        // Flights that need scarce cooling/heating drones pick first, then the heaviest
+        routes.sort(Comparator.comparingInt((List<Integer> route) -> -requirementClass(route, stops))
+                .thenComparingDouble(route -> -route.stream().mapToDouble(n -> demands.get(n - 1).demand()).sum()));
 
-                double currentDistance = dist(current, to);
-                if (currentDistance >= lastDistance - EPS) {
-                    stuckCounter++;
-                } else {
-                    stuckCounter = Math.max(0, stuckCounter - 1);
-                    if (currentDistance < bestDistance) {
-                        bestDistance = currentDistance;
-                    }
-                }
-                lastDistance = currentDistance;
-
-                if (stuckCounter > 100) {
-                    logger.warn("Stuck for {} iterations (dist={}, best={}), abandoning",
-                            stuckCounter, currentDistance, bestDistance);
-                    return null;
+        Map<String, List<DeliveryResult>> deliveriesByDrone = new HashMap<>();
+        Set<Integer> placed = new HashSet<>();
+        double totalCost = 0.0;
+        int totalMoves = 0;
+        for (List<Integer> route : routes) {
+            List<MedDispatchRec> flightDispatches = route.stream().map(n -> stops.get(n - 1)).toList();
+            int estimatedMoves = optimizer.moves(route);
+            List<Drone> candidates = drones.stream()
+                    .filter(d -> canFly(d, flightDispatches, estimatedMoves))
+                    .filter(d -> droneAvailabilityService.canHandleAll(d, flightDispatches, fleet))
+                    .sorted(Comparator.comparing((Drone d) -> !deliveriesByDrone.containsKey(d.getId()))
+                            .thenComparingDouble(d -> computeFlightCost(d.getCapability(), estimatedMoves)))
+                    .toList();
+            for (Drone drone : candidates) {
+                Flight flight = planFlight(drone, base, flightDispatches, options);
+                if (flight != null) {
+                    totalMoves += flight.moves();
+                    totalCost += computeFlightCost(drone.getCapability(), flight.moves());
+                    deliveriesByDrone.computeIfAbsent(drone.getId(), id -> new ArrayList<>())
+                            .addAll(flight.deliveries());
+                    flightDispatches.forEach(m -> placed.add(m.getId()));
+                    break;
                 }
             }
+        }
 
-            if (iterations % 1000 == 0) {
-                logger.debug("Relaxed iteration {}, distance: {}, best: {}, stuck: {}",
-                        iterations, dist(current, to), bestDistance, stuckCounter);
-            }
+        List<MedDispatchRec> leftovers = pending.stream().filter(m -> !placed.contains(m.getId()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!leftovers.isEmpty()) {
+            logger.info("{} dispatches not placed by the optimiser, planning them greedily", leftovers.size());
+            CalcDeliveryResult rest = planMultiDroneDelivery(leftovers, allDispatches, drones, base,
+                    options.serial(), fleet);
+            totalCost += rest.getTotalCost();
+            totalMoves += rest.getTotalMoves();
+            mergeDeliveries(rest, deliveriesByDrone, placed);
         }
 
-        if (iterations >= MAX_PATH_ITERATIONS) {
-            logger.warn("Relaxed pathfinding exceeded max iterations");
-            return null;
+        List<DronePathResult> dronePaths = new ArrayList<>();
+        for (Drone drone : drones) {
+            List<DeliveryResult> deliveries = deliveriesByDrone.get(drone.getId());
+            if (deliveries != null && !deliveries.isEmpty()) {
+                dronePaths.add(new DronePathResult(drone.getId(), deliveries));
+            }
         }
 
-        logger.info("Relaxed pathfinding SUCCEEDED with {} steps, final distance: {}",
-                path.size(), dist(current, to));
+        logger.info("=== Optimised multi-drone completed: {} drones, {} moves, ${} cost ===",
+                dronePaths.size(), totalMoves, totalCost);
 
-        return path;
+        return new CalcDeliveryResult(totalCost, totalMoves, dronePaths);
     }
 
-    private Position findAlternativeMove(Position current, Position target, double targetAngle) {
-        double[] offsets = {
-                -ANGLE_INCREMENT, ANGLE_INCREMENT,
-                -2*ANGLE_INCREMENT, 2*ANGLE_INCREMENT,
-                -3*ANGLE_INCREMENT, 3*ANGLE_INCREMENT,
-                -4*ANGLE_INCREMENT, 4*ANGLE_INCREMENT,
-                -5*ANGLE_INCREMENT, 5*ANGLE_INCREMENT
-        };
+    /**
+     * Moves between every pair of points, node 0 being the base and node i dispatch i-1, with one
+     * hover added on arrival at a dispatch. Every leg lands in {@link LegPathCache}, so re-planning
+     * the chosen flights is cheap.
+     */
+    private int[][] legCostMatrix(Position base, List<MedDispatchRec> stops, PlanningOptions options) {
+        List<Position> points = new ArrayList<>();
+        points.add(base);
+        stops.forEach(m -> points.add(m.getDelivery()));
+
+        DistanceMatrixService.DistanceMatrix matrix =
+                distanceMatrixService.matrix(points, options.getEngine(), options.getRestrictedAreas());
+        int[][] cost = new int[points.size()][points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            for (int j = 0; j < points.size(); j++) {
+                int moves = matrix.moves(i, j);
+                cost[i][j] = i == j || j == 0 || moves >= RouteOptimizer.UNREACHABLE ? moves : moves + 1;
+            }
+        }
+        return cost;
+    }
 
-        for (double offset : offsets) {
-            double testAngle = normalizeAngle(targetAngle + offset);
-            Position testPos = moveInDirection(current, testAngle);
+    /**
+     * Flies {@code dispatches} in order from {@code base} and back, with the same hover and
+     * return-leg handling as {@link #planMultiDroneDelivery}; {@code null} if a leg cannot be
+     * planned or the flight exceeds the drone's maxMoves.
+     */
+    private Flight planFlight(Drone drone, Position base, List<MedDispatchRec> dispatches, PlanningOptions options) {
+        List<DeliveryResult> deliveries = new ArrayList<>();
+        Position current = base;
+        int usedMoves = 0;
 
-            if (!pathSegmentCrossesRestriction(current, testPos)) {
-                double distBefore = dist(current, target);
-                double distAfter = dist(testPos, target);
+        for (MedDispatchRec dispatch : dispatches) {
+            Position dest = dispatch.getDelivery();
+            List<LngLat> pathToDest = buildPathAvoidingRestrictions(current, dest, options);
+            if (pathToDest == null || pathToDest.isEmpty()) {
+                return null;
+            }
 
-                if (distAfter <= distBefore * 1.8) {
-                    return testPos;
+            int closestIndex = 0;
+            double closestDist = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < pathToDest.size(); i++) {
+                LngLat point = pathToDest.get(i);
+                double d = dist(new Position(point.getLng(), point.getLat()), dest);
+                if (d < closestDist) {
+                    closestDist = d;
+                    closestIndex = i;
                 }
             }
+            pathToDest = new ArrayList<>(pathToDest.subList(0, closestIndex + 1));
+            if (!deliveries.isEmpty()) {
+                pathToDest = new ArrayList<>(pathToDest.subList(1, pathToDest.size()));
+            }
+            LngLat hoverPoint = pathToDest.get(pathToDest.size() - 1);
+            pathToDest.add(new LngLat(hoverPoint.getLng(), hoverPoint.getLat()));
+
+            usedMoves += pathToDest.size() - 1;
+            deliveries.add(new DeliveryResult(dispatch.getId(), pathToDest));
+            current = dest;
         }
 
-        Position bestPos = null;
-        double bestDist = Double.POSITIVE_INFINITY;
+        List<LngLat> returnPath = buildPathAvoidingRestrictions(current, base, options);
+        if (returnPath == null || returnPath.isEmpty()) {
+            return null;
+        }
+        usedMoves += returnPath.size() - 1;
+        if (usedMoves > drone.getCapability().getMaxMoves()) {
+            logger.debug("Optimised flight needs {} moves, drone {} has {}",
+                    usedMoves, drone.getId(), drone.getCapability().getMaxMoves());
+            return null;
+        }
 
-        for (int i = 0; i < 16; i++) {
-            double testAngle = i * ANGLE_INCREMENT;
-            Position testPos = moveInDirection(current, testAngle);
+        DeliveryResult lastDelivery = deliveries.get(deliveries.size() - 1);
+        List<LngLat> lastPath = new ArrayList<>(lastDelivery.getFlightPath());
+        for (int i = 1; i < returnPath.size(); i++) {
+            lastPath.add(returnPath.get(i));
+        }
+        lastDelivery.setFlightPath(lastPath);
+        return new Flight(deliveries, usedMoves);
+    }
 
-            if (!pathSegmentCrossesRestriction(current, testPos)) {
-                double distToTarget = dist(testPos, target);
-                if (distToTarget < bestDist) {
-                    bestDist = distToTarget;
-                    bestPos = testPos;
-                }
-            }
+    private boolean canFly(Drone drone, List<MedDispatchRec> dispatches, int estimatedMoves) {
+        Capability cap = drone.getCapability();
+        double load = 0;
+        for (MedDispatchRec dispatch : dispatches) {
+            if (!fitsRequirements(dispatch.getRequirements(), cap)) return false;
+            load += dispatch.getRequirements().getCapacity();
         }
+        return load <= cap.getCapacity() + EPS && estimatedMoves <= cap.getMaxMoves();
+    }
 
-        return bestPos;
+    private int requirementClass(List<Integer> route, List<MedDispatchRec> stops) {
+        int requirementClass = 0;
+        for (int node : route) {
+            Requirements req = stops.get(node - 1).getRequirements();
+            requirementClass |= (req.isCooling() ? 2 : 0) | (req.isHeating() ? 1 : 0);
+        }
+        return requirementClass;
     }
 
-    private Position findAlternativeMoveRelaxed(Position current, Position target,
-                                                double targetAngle, int stuckCounter) {
-        double[] offsets = {
-                -ANGLE_INCREMENT, ANGLE_INCREMENT,
-                -2*ANGLE_INCREMENT, 2*ANGLE_INCREMENT,
-                -3*ANGLE_INCREMENT, 3*ANGLE_INCREMENT,
-                -4*ANGLE_INCREMENT, 4*ANGLE_INCREMENT,
-                -5*ANGLE_INCREMENT, 5*ANGLE_INCREMENT,
-                -6*ANGLE_INCREMENT, 6*ANGLE_INCREMENT,
-                -7*ANGLE_INCREMENT, 7*ANGLE_INCREMENT,
-                -8*ANGLE_INCREMENT, 8*ANGLE_INCREMENT
-        };
+    /** Fixed cost of one flight expressed in moves, averaged over the fleet. */
+    private double flightPenalty(List<Drone> drones) {
+        return drones.stream()
+                .map(Drone::getCapability)
+                .filter(cap -> cap.getCostPerMove() > 0)
+                .mapToDouble(cap -> (cap.getCostInitial() + cap.getCostFinal()) / cap.getCostPerMove())
+                .average()
+                .orElse(0.0);
+    }
 
-        double tolerance = stuckCounter > 50 ? 4.0 : (stuckCounter > 30 ? 3.0 : 2.0);
+    /** One planned round trip from the base: its deliveries and the moves it takes. */
+    private record Flight(List<DeliveryResult> deliveries, int moves) {}
 
-        for (double offset : offsets) {
-            double testAngle = normalizeAngle(targetAngle + offset);
-            Position testPos = moveInDirection(current, testAngle);
+    private void mergeDeliveries(CalcDeliveryResult result, Map<String, List<DeliveryResult>> deliveriesByDrone,
+                                 Set<Integer> placed) {
+        for (DronePathResult path : result.getDronePaths()) {
+            deliveriesByDrone.computeIfAbsent(path.getDroneId(), id -> new ArrayList<>())
+                    .addAll(path.getDeliveries());
+            path.getDeliveries().forEach(d -> placed.add(d.getDeliveryId()));
+        }
+    }
 
-            if (!pathSegmentCrossesRestriction(current, testPos)) {
-                double distBefore = dist(current, target);
-                double distAfter = dist(testPos, target);
+    /** Home base of every drone; drones not listed at a known service point fly from {@code fallback}. */
+    private Map<String, Position> homeBases(List<Drone> drones, FleetSnapshot fleet, Position fallback) {
+        Map<String, Position> homes = new HashMap<>();
+        for (Drone drone : drones) {
+            Position home = safeGetPosition(fleet.getHomeServicePoint(drone.getId()));
+            homes.put(drone.getId(), home != null ? home : fallback);
+        }
+        return homes;
+    }
 
-                if (distAfter <= distBefore * tolerance) {
-                    return testPos;
-                }
-            }
+    private Position centroid(List<MedDispatchRec> dispatches) {
+        double lng = 0;
+        double lat = 0;
+        for (MedDispatchRec dispatch : dispatches) {
+            lng += dispatch.getDelivery().getLng();
+            lat += dispatch.getDelivery().getLat();
         }
+        int n = Math.max(1, dispatches.size());
+        return new Position(lng / n, lat / n);
+    }
 
-        List<Position> validMoves = new ArrayList<>();
-        for (int i = 0; i < 16; i++) {
-            double testAngle = i * ANGLE_INCREMENT;
-            Position testPos = moveInDirection(current, testAngle);
+    private double bearingFrom(Position base, Position p) {
+        return Math.atan2(p.getLat() - base.getLat(), p.getLng() - base.getLng());
+    }
 
-            if (!pathSegmentCrossesRestriction(current, testPos)) {
-                validMoves.add(testPos);
-            }
-        }
+    /** One drone and the dispatches it plans on its own; the list is consumed by the planner. */
+    private record Partition(Drone drone, List<MedDispatchRec> dispatches) {}
 
-        if (validMoves.isEmpty()) {
+    private List<LngLat> buildPathAvoidingRestrictions(Position from, Position to, PlanningOptions options) {
+        if (from == null || to == null) {
+            logger.error("Null position in buildPath: from={}, to={}", from, to);
             return null;
         }
 
-        Position best = null;
-        double bestDist = Double.POSITIVE_INFINITY;
-        for (Position pos : validMoves) {
-            double d = dist(pos, target);
-            if (d < bestDist) {
-                bestDist = d;
-                best = pos;
-            }
-        }
-
-        return best;
+        logger.debug("Building path from {} to {}, distance={}, engine={}",
+                from, to, dist(from, to), options.getEngine());
+        return distanceMatrixService.leg(from, to, options.getEngine(), options.getRestrictedAreas());
     }
 
     private void diagnoseDeliveryFailure(MedDispatchRec dispatch, Position currentPos) {
@@ -708,10 +1026,6 @@ public class DeliveryPlannerService {
         logger.info("=== END DIAGNOSIS ===");
     }
 
-    private boolean pathSegmentCrossesRestriction(Position from, Position to) {
-        return restrictedAreaService.pathCrossesRestrictedArea(from, to);
-    }
-
     private Position moveInDirection(Position from, double angleDegrees) {
         double angleRad = Math.toRadians(angleDegrees);
         double newLng = from.getLng() + STEP * Math.cos(angleRad);
@@ -733,10 +1047,6 @@ public class DeliveryPlannerService {
         return Math.round(angle / ANGLE_INCREMENT) * ANGLE_INCREMENT;
     }
 
-    private boolean isCloseEnough(Position p1, Position p2) {
-        return dist(p1, p2) < CLOSE_THRESHOLD;
-    }
-
     private int estimateStepsBack(Position from, Position to) {
         double d = dist(from, to);
         if (Double.isInfinite(d)) return Integer.MAX_VALUE;
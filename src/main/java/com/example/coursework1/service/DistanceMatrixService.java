@@ -0,0 +1,238 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.dto.RoutingEngine;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedAreaIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Obstacle-aware leg costs between points.
+ *
+ * {@link #leg} plans one leg through {@link LegPathCache} with the requested engine (visibility
+ * graph falling back to A*, or A* alone). {@link #moves} returns just the number of moves of that
+ * leg, remembered per origin in a bounded LRU of rows keyed by origin, restricted-area version and
+ * engine, so repeated feasibility checks against the same bases never re-plan. {@link #matrix}
+ * fills a whole {@link DistanceMatrix} with rows computed concurrently on the planning pool, and
+ * {@link DistanceMatrix#add} extends it by a single point with one new row and one new column.
+ */
+@Service
+public class DistanceMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistanceMatrixService.class);
+
+    /** Move count of a leg that cannot be flown. */
+    public static final int UNREACHABLE = RouteOptimizer.UNREACHABLE;
+
+    // Same quantum as the leg cache, about 1 cm
+    private static final double KEY_QUANTUM = 1e-7;
+
+    private final RestrictedAreaService restrictedAreaService;
+    private final AStarPathfinder pathfinder;
+    private final VisibilityGraphRouter visibilityGraphRouter;
+    private final LegPathCache legPathCache;
+    private final ForkJoinPool planningPool;
+    private final int maxRows;
+    private final Map<RowKey, Map<PointKey, Integer>> rows;
+
+    public DistanceMatrixService(RestrictedAreaService restrictedAreaService,
+                                 AStarPathfinder pathfinder,
+                                 VisibilityGraphRouter visibilityGraphRouter,
+                                 LegPathCache legPathCache,
+                                 ForkJoinPool planningPool,
+                                 @Value("${planner.distance-matrix.max-rows:512}") int maxRows) {
+        this.restrictedAreaService = restrictedAreaService;
+        this.pathfinder = pathfinder;
+        this.visibilityGraphRouter = visibilityGraphRouter;
+        this.legPathCache = legPathCache;
+        this.planningPool = planningPool;
+        this.maxRows = maxRows;
+        this.rows = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RowKey, Map<PointKey, Integer>> eldest) {
+                return size() > DistanceMatrixService.this.maxRows;
+            }
+        };
+    }
+
+    /** Plans the leg from {@code from} to {@code to}; {@code null} if there is no legal path. */
+    public List<LngLat> leg(Position from, Position to, RoutingEngine engine) {
+        return leg(from, to, engine, null);
+    }
+
+    /**
+     * Same as {@link #leg(Position, Position, RoutingEngine)} against the restricted areas a
+     * planning run captured; {@code null} uses the current ones.
+     */
+    public List<LngLat> leg(Position from, Position to, RoutingEngine engine, RestrictedAreaIndex restrictedAreas) {
+        RestrictedAreaIndex areas = resolve(restrictedAreas);
+        List<LngLat> path = legPathCache.getOrPlan(from, to, areas, engine, () -> planLeg(from, to, engine, areas));
+        remember(from, to, areas.getVersion(), engine, path == null || path.isEmpty() ? UNREACHABLE : path.size() - 1);
+        return path;
+    }
+
+    /** Number of moves from {@code from} to {@code to}, or {@link #UNREACHABLE}. */
+    public int moves(Position from, Position to, RoutingEngine engine) {
+        return moves(from, to, engine, null);
+    }
+
+    /** Same as {@link #moves(Position, Position, RoutingEngine)} against the given restricted areas. */
+    public int moves(Position from, Position to, RoutingEngine engine, RestrictedAreaIndex restrictedAreas) {
+        RestrictedAreaIndex areas = resolve(restrictedAreas);
+        if (maxRows > 0) {
+            long areaVersion = areas.getVersion();
+            Map<PointKey, Integer> row;
+            synchronized (rows) {
+                row = rows.get(RowKey.of(from, areaVersion, engine));
+            }
+            Integer cached = row != null ? row.get(PointKey.of(to)) : null;
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<LngLat> path = leg(from, to, engine, areas);
+        return path == null || path.isEmpty() ? UNREACHABLE : path.size() - 1;
+    }
+
+    /** Pairwise move counts between {@code points}, one row per point planned concurrently. */
+    public DistanceMatrix matrix(List<Position> points, RoutingEngine engine) {
+        return matrix(points, engine, null);
+    }
+
+    /** Same as {@link #matrix(List, RoutingEngine)} against the given restricted areas. */
+    public DistanceMatrix matrix(List<Position> points, RoutingEngine engine, RestrictedAreaIndex restrictedAreas) {
+        RestrictedAreaIndex areas = resolve(restrictedAreas);
+        List<ForkJoinTask<int[]>> tasks = new ArrayList<>();
+        for (Position from : points) {
+            tasks.add(planningPool.submit(() -> row(from, points, engine, areas)));
+        }
+        int[][] moves = new int[points.size()][];
+        for (int i = 0; i < points.size(); i++) {
+            moves[i] = tasks.get(i).join();
+        }
+        logger.debug("Built {}x{} distance matrix ({} engine)", points.size(), points.size(), engine);
+        return new DistanceMatrix(new ArrayList<>(points), moves, engine, areas);
+    }
+
+    public void clear() {
+        synchronized (rows) {
+            rows.clear();
+        }
+    }
+
+    private int[] row(Position from, List<Position> points, RoutingEngine engine, RestrictedAreaIndex areas) {
+        int[] row = new int[points.size()];
+        for (int j = 0; j < points.size(); j++) {
+            row[j] = from == points.get(j) ? 0 : moves(from, points.get(j), engine, areas);
+        }
+        return row;
+    }
+
+    private RestrictedAreaIndex resolve(RestrictedAreaIndex areas) {
+        return areas != null ? areas : restrictedAreaService.getAreaIndex();
+    }
+
+    private List<LngLat> planLeg(Position from, Position to, RoutingEngine engine, RestrictedAreaIndex areas) {
+        if (engine == RoutingEngine.VISIBILITY) {
+            List<LngLat> path = visibilityGraphRouter.findPath(from, to, areas);
+            if (path != null) {
+                return path;
+            }
+            logger.debug("Visibility router found no path, falling back to A*");
+        }
+        return pathfinder.findPath(from, to, areas);
+    }
+
+    private void remember(Position from, Position to, long areaVersion, RoutingEngine engine, int moves) {
+        if (maxRows <= 0) {
+            return;
+        }
+        Map<PointKey, Integer> row;
+        synchronized (rows) {
+            row = rows.computeIfAbsent(RowKey.of(from, areaVersion, engine), k -> new ConcurrentHashMap<>());
+        }
+        row.put(PointKey.of(to), moves);
+    }
+
+    /**
+     * Move counts between a growing list of points; {@code moves(i, j)} is the leg from point i to
+     * point j. Not thread-safe, meant to be owned by one planning request.
+     */
+    public final class DistanceMatrix {
+
+        private final List<Position> points;
+        private final RoutingEngine engine;
+        private final RestrictedAreaIndex areas;
+        private int[][] moves;
+
+        private DistanceMatrix(List<Position> points, int[][] moves, RoutingEngine engine, RestrictedAreaIndex areas) {
+            this.points = points;
+            this.moves = moves;
+            this.engine = engine;
+            this.areas = areas;
+        }
+
+        public int size() {
+            return points.size();
+        }
+
+        public Position point(int index) {
+            return points.get(index);
+        }
+
+        public int moves(int from, int to) {
+            return moves[from][to];
+        }
+
+        /**
+         * Appends {@code point}, planning only its row and column (concurrently), and returns its
+         * index.
+         */
+        public int add(Position point) {
+            int n = points.size();
+            ForkJoinTask<int[]> row = planningPool.submit(() -> row(point, points, engine, areas));
+            List<ForkJoinTask<Integer>> column = new ArrayList<>(n);
+            for (Position from : points) {
+                column.add(planningPool.submit(() -> DistanceMatrixService.this.moves(from, point, engine, areas)));
+            }
+
+            int[][] grown = new int[n + 1][];
+            for (int i = 0; i < n; i++) {
+                grown[i] = Arrays.copyOf(moves[i], n + 1);
+                grown[i][n] = column.get(i).join();
+            }
+            grown[n] = Arrays.copyOf(row.join(), n + 1);
+            moves = grown;
+            points.add(point);
+            return n;
+        }
+    }
+
+    private record PointKey(long x, long y) {
+        static PointKey of(Position p) {
+            return new PointKey(quantize(p.getLng()), quantize(p.getLat()));
+        }
+    }
+
+    private record RowKey(long x, long y, long areaVersion, RoutingEngine engine) {
+        static RowKey of(Position from, long areaVersion, RoutingEngine engine) {
+            return new RowKey(quantize(from.getLng()), quantize(from.getLat()), areaVersion, engine);
+        }
+    }
+
+    private static long quantize(double value) {
+        return Math.round(value / KEY_QUANTUM);
+    }
+}
@@ -1,15 +1,12 @@
 package com.example.coursework1.service;
 
 import com.example.coursework1.dto.*;
+import com.example.coursework1.model.AvailabilityIndex;
+import com.example.coursework1.model.FleetSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,11 +17,21 @@ public class DroneAvailabilityService {
     private final DroneService droneService;
     private static final double EPS = 1e-12;
 
+    private volatile AvailabilityIndex index;
+
     public DroneAvailabilityService(DroneService droneService) {
         this.droneService = droneService;
     }
 
     public List<String> queryAvailableDrones(List<MedDispatchRec> dispatches) {
+        return queryAvailableDrones(dispatches, null);
+    }
+
+    /**
+     * Same as {@link #queryAvailableDrones(List)}, answered from {@code fleet} instead of
+     * fetching the drones and their availability again. A {@code null} fleet fetches as before.
+     */
+    public List<String> queryAvailableDrones(List<MedDispatchRec> dispatches, FleetSnapshot fleet) {
         if (dispatches == null || dispatches.isEmpty()) {
             logger.debug("No dispatches provided for availability query");
             return List.of();
@@ -42,18 +49,17 @@ public class DroneAvailabilityService {
         logger.info("Querying available drones for {} valid dispatches (single journey - must handle ALL in one trip)",
                 validDispatches.size());
 
-        List<Drone> allDrones = droneService.fetchAllDrones();
+        List<Drone> allDrones = fleet != null ? fleet.getDrones() : droneService.fetchAllDrones();
 
-        List<ServicePointDrones> servicePointData = droneService.fetchDronesForServicePoints();
-
-        Map<String, List<TimeWindow>> availabilityMap = buildAvailabilityMap(servicePointData);
+        AvailabilityIndex availability = fleet != null ? fleet.getAvailability() : getAvailabilityIndex();
 
-        logger.debug("Built availability map for {} drones", availabilityMap.size());
+        // Resolve each dispatch to its minute-of-week slot once, not once per drone
+        int[] slots = resolveSlots(validDispatches);
 
         List<String> availableDroneIds = new ArrayList<>();
 
         for (Drone drone : allDrones) {
-            if (canHandleAllDispatches(drone, validDispatches, availabilityMap)) {
+            if (canHandleAllDispatches(drone, validDispatches, slots, availability)) {
                 availableDroneIds.add(drone.getId());
                 logger.debug("Drone {} CAN handle all {} dispatches in single journey",
                         drone.getId(), validDispatches.size());
@@ -68,29 +74,49 @@ public class DroneAvailabilityService {
         return availableDroneIds;
     }
 
-    private Map<String, List<TimeWindow>> buildAvailabilityMap(
-            List<ServicePointDrones> servicePointData) {
-
-        Map<String, List<TimeWindow>> map = new HashMap<>();
-
-        for (ServicePointDrones spData : servicePointData) {
-            if (spData.getDrones() == null) continue;
+    /**
+     * Whether {@code drone} alone can take every dispatch in one journey, using the fleet's
+     * availability. Dispatches with null requirements are ignored, as in the fleet-wide query.
+     */
+    public boolean canHandleAll(Drone drone, List<MedDispatchRec> dispatches, FleetSnapshot fleet) {
+        List<MedDispatchRec> validDispatches = dispatches.stream()
+                .filter(d -> d != null && d.getRequirements() != null)
+                .toList();
+        if (validDispatches.isEmpty()) {
+            return false;
+        }
+        return canHandleAllDispatches(drone, validDispatches, resolveSlots(validDispatches), fleet.getAvailability());
+    }
 
-            for (DroneWithAvailability droneWithAvail : spData.getDrones()) {
-                String droneId = droneWithAvail.getId();
-                List<TimeWindow> windows = droneWithAvail.getAvailability();
+    /**
+     * Returns the availability bitmaps for the current drones-for-service-points data,
+     * rebuilding them only when the repository hands back a different list.
+     */
+    public AvailabilityIndex getAvailabilityIndex() {
+        List<ServicePointDrones> servicePointData = droneService.fetchDronesForServicePoints();
+        AvailabilityIndex current = index;
+        if (current == null || current.getSource() != servicePointData) {
+            current = AvailabilityIndex.build(servicePointData);
+            index = current;
+        }
+        return current;
+    }
 
-                if (windows != null && !windows.isEmpty()) {
-                    map.put(droneId, windows);
-                }
+    private int[] resolveSlots(List<MedDispatchRec> dispatches) {
+        int[] slots = new int[dispatches.size()];
+        for (int i = 0; i < slots.length; i++) {
+            MedDispatchRec dispatch = dispatches.get(i);
+            slots[i] = AvailabilityIndex.slotOf(dispatch.getDate(), dispatch.getTime());
+            if (slots[i] == AvailabilityIndex.UNKNOWN_SLOT && dispatch.getDate() != null && dispatch.getTime() != null) {
+                logger.warn("Could not parse date/time '{} {}' for dispatch {}, assuming available",
+                        dispatch.getDate(), dispatch.getTime(), dispatch.getId());
             }
         }
-
-        return map;
+        return slots;
     }
 
-    private boolean canHandleAllDispatches(Drone drone, List<MedDispatchRec> dispatches,
-                                           Map<String, List<TimeWindow>> availabilityMap) {
+    private boolean canHandleAllDispatches(Drone drone, List<MedDispatchRec> dispatches, int[] slots,
+                                           AvailabilityIndex availability) {
         if (drone == null || drone.getCapability() == null) {
             return false;
         }
@@ -107,7 +133,8 @@ public class DroneAvailabilityService {
             return false;
         }
 
-        for (MedDispatchRec dispatch : dispatches) {
+        for (int i = 0; i < dispatches.size(); i++) {
+            MedDispatchRec dispatch = dispatches.get(i);
             Requirements req = dispatch.getRequirements();
 
             if (capability.getCapacity() + EPS < req.getCapacity()) {
@@ -129,7 +156,7 @@ public class DroneAvailabilityService {
                 return false;
             }
 
-            if (!isAvailableForDispatch(drone.getId(), dispatch, availabilityMap)) {
+            if (!isAvailableForDispatch(drone.getId(), slots[i], availability)) {
                 logger.trace("Drone {} failed availability check for dispatch {} ({} at {})",
                         drone.getId(), dispatch.getId(),
                         dispatch.getDate(), dispatch.getTime());
@@ -149,80 +176,10 @@ public class DroneAvailabilityService {
         return true;
     }
 
-    private boolean isAvailableForDispatch(String droneId, MedDispatchRec dispatch,
-                                           Map<String, List<TimeWindow>> availabilityMap) {
-        if (dispatch.getDate() == null || dispatch.getTime() == null) {
-            return true;
-        }
-
-        List<TimeWindow> windows = availabilityMap.get(droneId);
-        if (windows == null || windows.isEmpty()) {
-            return true;
-        }
-
-        try {
-            LocalDate date = LocalDate.parse(dispatch.getDate());
-            DayOfWeek dayOfWeek = date.getDayOfWeek();
-            String dayName = dayOfWeek.toString();
-
-            LocalTime dispatchTime = parseTime(dispatch.getTime());
-            if (dispatchTime == null) {
-                logger.warn("Could not parse dispatch time '{}', assuming available",
-                        dispatch.getTime());
-                return true;
-            }
-
-            for (TimeWindow window : windows) {
-                if (isInTimeWindow(dayName, dispatchTime, window)) {
-                    return true;
-                }
-            }
-
-            return false;
-
-        } catch (DateTimeParseException e) {
-            logger.warn("Failed to parse date '{}' for dispatch {}, assuming available",
-                    dispatch.getDate(), dispatch.getId());
+    private boolean isAvailableForDispatch(String droneId, int slot, AvailabilityIndex availability) {
+        if (slot == AvailabilityIndex.UNKNOWN_SLOT) {
             return true;
         }
+        return availability.isAvailable(droneId, slot);
     }
-
-    private boolean isInTimeWindow(String dayName, LocalTime dispatchTime, TimeWindow window) {
-        if (!window.getDayOfWeek().equalsIgnoreCase(dayName)) {
-            return false;
-        }
-
-        LocalTime fromTime = parseTime(window.getFrom());
-        LocalTime untilTime = parseTime(window.getUntil());
-
-        if (fromTime == null || untilTime == null) {
-            logger.warn("Could not parse window times: from='{}', until='{}'",
-                    window.getFrom(), window.getUntil());
-            return false;
-        }
-
-        return !dispatchTime.isBefore(fromTime) && !dispatchTime.isAfter(untilTime);
-    }
-
-    private LocalTime parseTime(String timeStr) {
-        if (timeStr == null || timeStr.isEmpty()) {
-            return null;
-        }
-
-        DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("HH:mm:ss"),
-                DateTimeFormatter.ofPattern("H:mm:ss"),
-                DateTimeFormatter.ofPattern("HH:mm"),
-                DateTimeFormatter.ofPattern("H:mm")
-        };
-
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalTime.parse(timeStr, formatter);
-            } catch (DateTimeParseException e) {
-            }
-        }
-
-        return null;
-    }
-}
\ No newline at end of file
+}
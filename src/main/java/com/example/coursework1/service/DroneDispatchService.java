@@ -1,15 +1,19 @@
 package com.example.coursework1.service;
 
 import com.example.coursework1.dto.*;
+import com.example.coursework1.model.FleetSnapshot;
 import com.example.coursework1.model.Position;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
@@ -17,25 +21,47 @@ public class DroneDispatchService {
 
     private static final Logger logger = LoggerFactory.getLogger(DroneDispatchService.class);
 
+    private static final long BATCH_STEP_MILLIS = 50;
+    private static final long SINGLE_STEP_MILLIS = 100;
+    private static final double MOVE_LENGTH = 0.00015;
+    private static final long SINGLE_PLANNING_MILLIS = 100;
+    private static final long COMPLETED_HOLD_MILLIS = 3000;
+
     private final DeliveryPlannerService plannerService;
-    private final DroneService droneService;
-    private final ServicePointService servicePointService;
+    private final FleetSnapshotService fleetSnapshotService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MissionScheduler missionScheduler;
+    private final TelemetryAggregator telemetryAggregator;
+    private final ForkJoinPool planningPool;
+    private final DistanceMatrixService distanceMatrixService;
+    private final DroneAvailabilityService droneAvailabilityService;
 
     private static final Map<String, ActiveDroneState> activeDrones = new ConcurrentHashMap<>();
     private static final AtomicInteger deliveryIdCounter = new AtomicInteger(1000);
+    private static final AtomicInteger missionIdCounter = new AtomicInteger();
     private static final Map<String, BatchData> activeBatches = new ConcurrentHashMap<>();
 
     private List<List<Double>> allDeliveryDestinations;
 
+    // Fleet as of the last submission; broadcasts and missions read it instead of refetching.
+    private volatile FleetSnapshot fleet;
+
     public DroneDispatchService(DeliveryPlannerService plannerService,
-                                DroneService droneService,
-                                ServicePointService servicePointService,
-                                SimpMessagingTemplate messagingTemplate) {
+                                FleetSnapshotService fleetSnapshotService,
+                                SimpMessagingTemplate messagingTemplate,
+                                MissionScheduler missionScheduler,
+                                TelemetryAggregator telemetryAggregator,
+                                ForkJoinPool planningPool,
+                                DistanceMatrixService distanceMatrixService,
+                                DroneAvailabilityService droneAvailabilityService) {
         this.plannerService = plannerService;
-        this.droneService = droneService;
-        this.servicePointService = servicePointService;
+        this.fleetSnapshotService = fleetSnapshotService;
         this.messagingTemplate = messagingTemplate;
+        this.missionScheduler = missionScheduler;
+        this.telemetryAggregator = telemetryAggregator;
+        this.planningPool = planningPool;
+        this.distanceMatrixService = distanceMatrixService;
+        this.droneAvailabilityService = droneAvailabilityService;
 
         logger.info("DroneDispatchService initialized - {} active drones", activeDrones.size());
     }
@@ -47,7 +73,8 @@ public class DroneDispatchService {
         logger.info("Processing batch: {} with {} deliveries",
                 batchRequest.getBatchId(), batchRequest.getDeliveries().size());
 
-        List<Drone> allDrones = droneService.fetchAllDrones();
+        FleetSnapshot fleet = refreshFleet();
+        List<Drone> allDrones = fleet.getDrones();
         int totalDrones = allDrones.size();
         int busyDrones = activeDrones.size();
         int availableDrones = totalDrones - busyDrones;
@@ -107,22 +134,29 @@ public class DroneDispatchService {
                     batchRequest.getBatchId());
         }
 
-        List<ServicePoint> servicePoints = servicePointService.fetchAllServicePoints();
-        Position base = servicePoints.isEmpty() ?
-                new Position(-3.1892, 55.9445) :
-                new Position(servicePoints.get(0).getLocation().getLng(),
-                        servicePoints.get(0).getLocation().getLat());
-
-        double totalDistance = 0;
-        Position current = base;
-        for (Position dest : deliveryDestinations) {
-            totalDistance += calculateDistance(current, dest);
-            current = dest;
+        Position base = nearestBase(fleet, deliveryDestinations.isEmpty() ? null : deliveryDestinations.get(0));
+
+        // Obstacle-aware legs in submission order, planned concurrently; the planner then reuses
+        // them from the leg cache
+        List<Position> waypoints = new ArrayList<>();
+        waypoints.add(base);
+        waypoints.addAll(deliveryDestinations);
+        RoutingEngine engine = PlanningOptions.defaults().getEngine();
+        List<ForkJoinTask<Integer>> legs = new ArrayList<>();
+        for (int i = 0; i < waypoints.size(); i++) {
+            Position from = waypoints.get(i);
+            Position to = waypoints.get((i + 1) % waypoints.size());
+            legs.add(planningPool.submit(() -> distanceMatrixService.moves(from, to, engine)));
+        }
+        int estimatedMoves = deliveryDestinations.size(); // +1 hover per delivery
+        for (int i = 0; i < waypoints.size(); i++) {
+            int next = (i + 1) % waypoints.size();
+            int moves = legs.get(i).join();
+            estimatedMoves += moves < DistanceMatrixService.UNREACHABLE ? moves
+                    : (int) Math.ceil(calculateDistance(waypoints.get(i), waypoints.get(next)) / MOVE_LENGTH);
         }
-        totalDistance += calculateDistance(current, base);
-        int estimatedMoves = (int) Math.ceil(totalDistance / 0.00015) + deliveryDestinations.size(); // +1 hover per delivery
-        
-        logger.info("Estimated moves for batch: {} (total distance: {})", estimatedMoves, totalDistance);
+
+        logger.info("Estimated moves for batch: {}", estimatedMoves);
 
         final double finalTotalCapacity = totalCapacity;
         final boolean finalBatchNeedsCooling = batchNeedsCooling;
@@ -150,7 +184,7 @@ public class DroneDispatchService {
         }
 
         logger.info("Planning delivery path for {} dispatches...", allDispatches.size());
-        CalcDeliveryResult result = plannerService.calcDeliveryPath(allDispatches);
+        CalcDeliveryResult result = plannerService.calcDeliveryPath(allDispatches, multiBaseOptions(), fleet);
 
         Map<String, Object> response = new HashMap<>();
         if (result.getDronePaths() == null || result.getDronePaths().isEmpty()) {
@@ -182,7 +216,7 @@ public class DroneDispatchService {
 
         for (DronePathResult pathResult : result.getDronePaths()) {
             String plannedDroneId = pathResult.getDroneId();
-            Drone drone = droneService.getDroneById(plannedDroneId);
+            Drone drone = fleet.getDrone(plannedDroneId);
             
             if (drone == null) {
                 logger.error("Planned drone {} not found", plannedDroneId);
@@ -208,15 +242,23 @@ public class DroneDispatchService {
                 }
             }
 
+            DronePathResult flightPath = pathResult;
             if (activeDrones.containsKey(drone.getId())) {
                 logger.warn("Planned drone {} is BUSY - searching for alternative...", drone.getId());
-                
-                Drone alternativeDrone = findAlternativeDrone(
-                        allDrones, 
-                        drone.getCapability(), 
-                        droneDispatches
-                );
-                
+
+                // The planned path starts at the busy drone's base and fits its maxMoves, so a
+                // replacement flies a path re-planned from its own home
+                Drone alternativeDrone = null;
+                for (Drone candidate : findAlternativeDrones(fleet, drone.getCapability(), droneDispatches)) {
+                    flightPath = planReplacement(candidate, fleet, base, droneDispatches);
+                    if (flightPath != null) {
+                        alternativeDrone = candidate;
+                        break;
+                    }
+                    logger.info("Alternative drone {} cannot fly the deliveries of drone {}",
+                            candidate.getId(), plannedDroneId);
+                }
+
                 if (alternativeDrone != null) {
                     logger.info("Found alternative: Drone {} will replace busy Drone {}",
                             alternativeDrone.getId(), plannedDroneId);
@@ -230,10 +272,11 @@ public class DroneDispatchService {
                 logger.info("Using planned drone {} (available)", drone.getId());
             }
 
+            // Hold the drone where the path it will fly starts, which is its own home
             ActiveDroneState placeholderState = new ActiveDroneState(
                     drone.getId(),
                     -1,
-                    List.of(new LngLat(base.getLng(), base.getLat())),
+                    List.of(launchPoint(flightPath, homeOf(fleet, drone, base))),
                     drone.getCapability().getCapacity(),
                     0,
                     batchRequest.getBatchId(),
@@ -244,7 +287,7 @@ public class DroneDispatchService {
             activeDrones.put(drone.getId(), placeholderState);
             logger.info("Drone {} marked as unavailable for batch {}", drone.getId(), batchRequest.getBatchId());
 
-            startBatchMission(drone, droneDispatches, base, batchRequest.getBatchId(), droneDestinations);
+            startBatchMission(drone, flightPath, droneDispatches, batchRequest.getBatchId(), droneDestinations);
             dispatchedDrones++;
         }
 
@@ -291,13 +334,10 @@ public class DroneDispatchService {
                 actualDestination
         );
 
-        List<ServicePoint> servicePoints = servicePointService.fetchAllServicePoints();
-        Position base = servicePoints.isEmpty() ?
-                new Position(-3.1892, 55.9445) :
-                new Position(servicePoints.get(0).getLocation().getLng(),
-                        servicePoints.get(0).getLocation().getLat());
+        FleetSnapshot fleet = refreshFleet();
+        Position defaultBase = nearestBase(fleet, null);
 
-        List<Drone> allDrones = droneService.fetchAllDrones();
+        List<Drone> allDrones = fleet.getDrones();
         Requirements reqs = dispatch.getRequirements();
 
         List<Drone> availableDrones = allDrones.stream()
@@ -316,7 +356,7 @@ public class DroneDispatchService {
             return new DeliverySubmissionResult(false, deliveryId, null, "No drones match requirements");
         }
 
-        Drone selectedDrone = selectBestDrone(availableDrones, dispatch.getDelivery(), base);
+        Drone selectedDrone = selectBestDrone(fleet, availableDrones, dispatch.getDelivery(), defaultBase);
 
         if (selectedDrone == null) {
             logger.error("Failed to select drone");
@@ -324,6 +364,7 @@ public class DroneDispatchService {
         }
 
         logger.info("Selected drone {} for delivery {}", selectedDrone.getId(), deliveryId);
+        Position base = homeOf(fleet, selectedDrone, defaultBase);
 
         ActiveDroneState placeholderState = new ActiveDroneState(
                 selectedDrone.getId(),
@@ -352,223 +393,311 @@ public class DroneDispatchService {
     }
 
 
-    @Async
-    public void startBatchMission(Drone drone, List<MedDispatchRec> allDispatches, 
-                                Position base, String batchId, List<Position> deliveryDestinations) {
+    /**
+     * Flies the leg sequence that {@link #submitBatch} already planned and validated for this
+     * drone, so the batch is planned exactly once and the mission matches what was checked.
+     * Returns as soon as the mission is handed to the {@link MissionScheduler}.
+     */
+    public void startBatchMission(Drone drone, DronePathResult pathResult, List<MedDispatchRec> allDispatches,
+                                  String batchId, List<Position> deliveryDestinations) {
         String droneId = drone.getId();
         logger.info("Starting BATCH mission: Drone {} → {} deliveries", droneId, allDispatches.size());
 
-        try {
-            CalcDeliveryResult result = plannerService.calcDeliveryPath(allDispatches);
-
-            if (result.getDronePaths() == null || result.getDronePaths().isEmpty()) {
-                logger.error("Pathfinding failed for batch {}", batchId);
-                activeDrones.remove(droneId);
-                broadcastSystemState();
-                broadcastBatchFailed(batchId, droneId, "Pathfinding failed");
-                return;
-            }
+        if (pathResult == null || pathResult.getDeliveries() == null || pathResult.getDeliveries().isEmpty()) {
+            logger.error("No planned path for drone {} in batch {}", droneId, batchId);
+            activeDrones.remove(droneId);
+            broadcastSystemState();
+            broadcastBatchFailed(batchId, droneId, "Pathfinding failed");
+            return;
+        }
 
-            DronePathResult pathResult = result.getDronePaths().get(0);
-            List<DeliveryResult> deliveryResults = pathResult.getDeliveries();
+        List<DeliveryResult> deliveryResults = pathResult.getDeliveries();
 
-            List<LngLat> completePath = new ArrayList<>();
-            for (int i = 0; i < deliveryResults.size(); i++) {
-                List<LngLat> deliveryPath = deliveryResults.get(i).getFlightPath();
-                if (i == 0) {
-                    completePath.addAll(deliveryPath);
-                } else {
-                    completePath.addAll(deliveryPath.subList(1, deliveryPath.size()));
-                }
+        List<LngLat> completePath = new ArrayList<>();
+        for (int i = 0; i < deliveryResults.size(); i++) {
+            List<LngLat> deliveryPath = deliveryResults.get(i).getFlightPath();
+            if (i == 0) {
+                completePath.addAll(deliveryPath);
+            } else {
+                completePath.addAll(deliveryPath.subList(1, deliveryPath.size()));
             }
+        }
 
-            logger.info("Batch {} path: {} waypoints for {} deliveries",
-                    batchId, completePath.size(), deliveryResults.size());
+        logger.info("Batch {} path: {} waypoints for {} deliveries",
+                batchId, completePath.size(), deliveryResults.size());
 
-            List<Integer> hoverStepIndices = new ArrayList<>();
-            for (int i = 0; i < completePath.size() - 1; i++) {
-                LngLat current = completePath.get(i);
-                LngLat next = completePath.get(i + 1);
+        List<Integer> hoverStepIndices = new ArrayList<>();
+        for (int i = 0; i < completePath.size() - 1; i++) {
+            LngLat current = completePath.get(i);
+            LngLat next = completePath.get(i + 1);
 
-                if (Math.abs(current.getLng() - next.getLng()) < 1e-10 && 
-                    Math.abs(current.getLat() - next.getLat()) < 1e-10) {
-                    hoverStepIndices.add(i);
-                    logger.info("Delivery #{} hover point at step {}", hoverStepIndices.size(), i);
-                }
+            if (Math.abs(current.getLng() - next.getLng()) < 1e-10 &&
+                Math.abs(current.getLat() - next.getLat()) < 1e-10) {
+                hoverStepIndices.add(i);
+                logger.info("Delivery #{} hover point at step {}", hoverStepIndices.size(), i);
             }
+        }
 
-            ActiveDroneState state = new ActiveDroneState(
-                    droneId, -1, completePath, drone.getCapability().getCapacity(),
-                    0, batchId, allDispatches.size(), deliveryDestinations
-            );
-
-            activeDrones.put(droneId, state);
-            broadcastSystemState();
-
-            for (int i = 0; i < completePath.size(); i++) {
-                if (!activeDrones.containsKey(droneId)) {
-                    logger.warn("Drone {} mission cancelled", droneId);
-                    break;
-                }
+        ActiveDroneState state = new ActiveDroneState(
+                droneId, -1, completePath, drone.getCapability().getCapacity(),
+                0, batchId, allDispatches.size(), deliveryDestinations
+        );
 
-                LngLat position = completePath.get(i);
-                state.setCurrentPosition(position);
-                state.setStepIndex(i);
+        activeDrones.put(droneId, state);
+        broadcastSystemState();
 
-                int completedCount = 0;
-                for (int hoverIdx : hoverStepIndices) {
-                    if (i > hoverIdx) {
-                        completedCount++;
-                    }
-                }
+        missionScheduler.submit(new BatchMission(state, hoverStepIndices, allDispatches.size()));
+    }
 
-                state.setCurrentDeliveryIndex(completedCount);
+    /**
+     * Plans the single delivery on the planning pool and then hands the flight to the
+     * {@link MissionScheduler}; returns immediately.
+     */
+    public void startSingleDeliveryMission(Drone drone, MedDispatchRec dispatch, Position base, Position actualDestination) {
+        String droneId = drone.getId();
+        int deliveryId = dispatch.getId();
 
-                double progress = (double) i / completePath.size();
-                if (progress < 0.1) {
-                    state.setStatus("DEPLOYING");
-                } else if (progress < 0.2) {
-                    state.setStatus("FLYING");
-                } else if (progress < 0.95) {
-                    state.setStatus("DELIVERING");
-                } else {
-                    state.setStatus("RETURNING");
-                }
+        logger.info("Starting SINGLE delivery mission: Drone {} → Delivery {} at ({}, {})",
+                droneId, deliveryId, actualDestination.getLat(), actualDestination.getLng());
 
-                broadcastBatchUpdate(state);
-                Thread.sleep(50);
-            }
+        CompletableFuture
+                .supplyAsync(() -> plannerService.calcDeliveryPath(
+                        drone, base, List.of(dispatch), singleDeliveryOptions()), planningPool)
+                .thenAccept(result -> launchSingleDelivery(drone, dispatch, actualDestination, result))
+                .exceptionally(failure -> {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    logger.error("Drone {} mission failed with exception", droneId, cause);
+                    activeDrones.remove(droneId);
+                    broadcastSystemState();
+                    broadcastDeliveryFailed(droneId, deliveryId, "Mission failed: " + cause.getMessage());
+                    return null;
+                });
+    }
 
-            logger.info("Batch {} completed", batchId);
-            state.setStatus("COMPLETED");
-            state.setCurrentDeliveryIndex(allDispatches.size());
-            broadcastBatchUpdate(state);
-            Thread.sleep(3000);
+    private void launchSingleDelivery(Drone drone, MedDispatchRec dispatch, Position actualDestination,
+                                      CalcDeliveryResult result) {
+        String droneId = drone.getId();
+        int deliveryId = dispatch.getId();
 
+        if (result.getDronePaths() == null || result.getDronePaths().isEmpty()) {
+            boolean outOfTime = Boolean.TRUE.equals(result.getPartial());
+            logger.error("Pathfinding failed for delivery {}{}", deliveryId,
+                    outOfTime ? " within the " + SINGLE_PLANNING_MILLIS + " ms budget" : "");
             activeDrones.remove(droneId);
-            activeBatches.remove(batchId);
             broadcastSystemState();
-            broadcastBatchCompleted(batchId, droneId);
+            broadcastDeliveryFailed(droneId, deliveryId, outOfTime ? "Planning timed out" : "Pathfinding failed");
+            return;
+        }
 
-        } catch (InterruptedException e) {
-            logger.warn("Batch {} interrupted", batchId);
-            Thread.currentThread().interrupt();
-            activeDrones.remove(droneId);
-            activeBatches.remove(batchId);
-            broadcastSystemState();
-        } catch (Exception e) {
-            logger.error("Batch {} failed", batchId, e);
+        DronePathResult pathResult = result.getDronePaths().stream()
+                .filter(p -> droneId.equals(p.getDroneId()))
+                .findFirst()
+                .orElse(null);
+        if (pathResult == null || pathResult.getDeliveries().isEmpty()) {
+            logger.error("No delivery path for delivery {}", deliveryId);
             activeDrones.remove(droneId);
-            activeBatches.remove(batchId);
             broadcastSystemState();
-            broadcastBatchFailed(batchId, droneId, "Mission failed: " + e.getMessage());
+            broadcastDeliveryFailed(droneId, deliveryId, "No valid path");
+            return;
         }
+
+        List<LngLat> flightPath = pathResult.getDeliveries().get(0).getFlightPath();
+
+        ActiveDroneState state = new ActiveDroneState(
+                droneId,
+                deliveryId,
+                flightPath,
+                drone.getCapability().getCapacity(),
+                dispatch.getRequirements().getCapacity(),
+                null,
+                1,
+                List.of(actualDestination)
+        );
+
+        activeDrones.put(droneId, state);
+        broadcastSystemState();
+
+        logger.info("Drone {} starting flight with {} waypoints", droneId, flightPath.size());
+        missionScheduler.submit(new SingleDeliveryMission(state));
     }
 
-    @Async
-    public void startSingleDeliveryMission(Drone drone, MedDispatchRec dispatch, Position base, Position actualDestination) {
-        String droneId = drone.getId();
-        int deliveryId = dispatch.getId();
-        
-        logger.info("Starting SINGLE delivery mission: Drone {} → Delivery {} at ({}, {})",
-                droneId, deliveryId, actualDestination.getLat(), actualDestination.getLng());
+    /** Batch flight: one waypoint every {@link #BATCH_STEP_MILLIS}, then a hold before release. */
+    private final class BatchMission implements MissionScheduler.Mission {
+        private final ActiveDroneState state;
+        private final List<Integer> hoverStepIndices;
+        private final int deliveryCount;
+        private int step;
+        private boolean completed;
+
+        BatchMission(ActiveDroneState state, List<Integer> hoverStepIndices, int deliveryCount) {
+            this.state = state;
+            this.hoverStepIndices = hoverStepIndices;
+            this.deliveryCount = deliveryCount;
+        }
 
-        try {
-            CalcDeliveryResult result = plannerService.calcDeliveryPath(List.of(dispatch));
+        @Override
+        public long step() {
+            String droneId = state.getDroneId();
+            List<LngLat> completePath = state.getFlightPath();
 
-            if (result.getDronePaths() == null || result.getDronePaths().isEmpty()) {
-                logger.error("Pathfinding failed for delivery {}", deliveryId);
+            if (completed) {
+                telemetryAggregator.endMission(state.getMissionId());
                 activeDrones.remove(droneId);
+                activeBatches.remove(state.getBatchId());
                 broadcastSystemState();
-                broadcastDeliveryFailed(droneId, deliveryId, "Pathfinding failed");
-                return;
+                broadcastBatchCompleted(state.getBatchId(), droneId);
+                return -1;
             }
 
-            DronePathResult pathResult = result.getDronePaths().get(0);
-            if (pathResult.getDeliveries().isEmpty()) {
-                logger.error("No delivery path for delivery {}", deliveryId);
-                activeDrones.remove(droneId);
-                broadcastSystemState();
-                broadcastDeliveryFailed(droneId, deliveryId, "No valid path");
-                return;
-            }
+            if (step < completePath.size()) {
+                if (activeDrones.containsKey(droneId)) {
+                    int i = step++;
+                    state.setCurrentPosition(completePath.get(i));
+                    state.setStepIndex(i);
+
+                    int completedCount = 0;
+                    for (int hoverIdx : hoverStepIndices) {
+                        if (i > hoverIdx) {
+                            completedCount++;
+                        }
+                    }
+                    state.setCurrentDeliveryIndex(completedCount);
+
+                    double progress = (double) i / completePath.size();
+                    if (progress < 0.1) {
+                        state.setStatus("DEPLOYING");
+                    } else if (progress < 0.2) {
+                        state.setStatus("FLYING");
+                    } else if (progress < 0.95) {
+                        state.setStatus("DELIVERING");
+                    } else {
+                        state.setStatus("RETURNING");
+                    }
 
-            List<LngLat> flightPath = pathResult.getDeliveries().get(0).getFlightPath();
+                    broadcastBatchUpdate(state);
+                    return BATCH_STEP_MILLIS;
+                }
+                logger.warn("Drone {} mission cancelled", droneId);
+            }
 
-            ActiveDroneState state = new ActiveDroneState(
-                    droneId,
-                    deliveryId,
-                    flightPath,
-                    drone.getCapability().getCapacity(),
-                    dispatch.getRequirements().getCapacity(),
-                    null,
-                    1,
-                    List.of(actualDestination)
-            );
+            logger.info("Batch {} completed", state.getBatchId());
+            state.setStatus("COMPLETED");
+            state.setCurrentDeliveryIndex(deliveryCount);
+            broadcastBatchUpdate(state);
+            completed = true;
+            return COMPLETED_HOLD_MILLIS;
+        }
 
-            activeDrones.put(droneId, state);
+        @Override
+        public void failed(Exception e) {
+            logger.error("Batch {} failed", state.getBatchId(), e);
+            telemetryAggregator.endMission(state.getMissionId());
+            activeDrones.remove(state.getDroneId());
+            activeBatches.remove(state.getBatchId());
             broadcastSystemState();
+            broadcastBatchFailed(state.getBatchId(), state.getDroneId(), "Mission failed: " + e.getMessage());
+        }
+    }
 
-            logger.info("Drone {} starting flight with {} waypoints", droneId, flightPath.size());
+    /** Single-delivery flight: one waypoint every {@link #SINGLE_STEP_MILLIS}, then a hold before release. */
+    private final class SingleDeliveryMission implements MissionScheduler.Mission {
+        private final ActiveDroneState state;
+        private int step;
+        private boolean completed;
 
-            for (int i = 0; i < flightPath.size(); i++) {
-                if (!activeDrones.containsKey(droneId)) {
-                    logger.warn("Drone {} mission cancelled", droneId);
-                    break;
-                }
+        SingleDeliveryMission(ActiveDroneState state) {
+            this.state = state;
+        }
 
-                LngLat position = flightPath.get(i);
-                state.setCurrentPosition(position);
-                state.setStepIndex(i);
-
-                double progress = (double) i / flightPath.size();
-                if (i >= flightPath.size() - 2) {
-                    state.setStatus("DELIVERING");
-                } else if (progress > 0.55) {
-                    state.setStatus("RETURNING");
-                } else if (progress < 0.1) {
-                    state.setStatus("DEPLOYING");
-                } else {
-                    state.setStatus("FLYING");
-                }
+        @Override
+        public long step() {
+            String droneId = state.getDroneId();
+            List<LngLat> flightPath = state.getFlightPath();
 
-                broadcastSingleUpdate(state);
-                Thread.sleep(100);
+            if (completed) {
+                telemetryAggregator.endMission(state.getMissionId());
+                activeDrones.remove(droneId);
+                broadcastSystemState();
+                broadcastDeliveryCompleted(droneId, state.getDeliveryId());
+                return -1;
             }
 
-            logger.info("Drone {} completed delivery {}", droneId, deliveryId);
+            if (step < flightPath.size()) {
+                if (activeDrones.containsKey(droneId)) {
+                    int i = step++;
+                    state.setCurrentPosition(flightPath.get(i));
+                    state.setStepIndex(i);
+
+                    double progress = (double) i / flightPath.size();
+                    if (i >= flightPath.size() - 2) {
+                        state.setStatus("DELIVERING");
+                    } else if (progress > 0.55) {
+                        state.setStatus("RETURNING");
+                    } else if (progress < 0.1) {
+                        state.setStatus("DEPLOYING");
+                    } else {
+                        state.setStatus("FLYING");
+                    }
+
+                    broadcastSingleUpdate(state);
+                    return SINGLE_STEP_MILLIS;
+                }
+                logger.warn("Drone {} mission cancelled", droneId);
+            }
 
+            logger.info("Drone {} completed delivery {}", droneId, state.getDeliveryId());
             state.setStatus("COMPLETED");
             broadcastSingleUpdate(state);
-            Thread.sleep(3000);
-
-            activeDrones.remove(droneId);
-            broadcastSystemState();
-            broadcastDeliveryCompleted(droneId, deliveryId);
+            completed = true;
+            return COMPLETED_HOLD_MILLIS;
+        }
 
-        } catch (InterruptedException e) {
-            logger.warn("Drone {} mission interrupted", droneId);
-            Thread.currentThread().interrupt();
-            activeDrones.remove(droneId);
+        @Override
+        public void failed(Exception e) {
+            logger.error("Drone {} mission failed with exception", state.getDroneId(), e);
+            telemetryAggregator.endMission(state.getMissionId());
+            activeDrones.remove(state.getDroneId());
             broadcastSystemState();
-        } catch (Exception e) {
-            logger.error("Drone {} mission failed with exception", droneId, e);
-            activeDrones.remove(droneId);
-            broadcastSystemState();
-            broadcastDeliveryFailed(droneId, deliveryId, "Mission failed: " + e.getMessage());
+            broadcastDeliveryFailed(state.getDroneId(), state.getDeliveryId(), "Mission failed: " + e.getMessage());
         }
     }
 
-    private Drone selectBestDrone(List<Drone> availableDrones, Position deliveryLocation, Position base) {
+    /**
+     * Picks the drone with the fewest obstacle-aware moves from its home to the delivery, with a
+     * small bonus for capacity, skipping drones that cannot fly there and back within maxMoves. Only
+     * the legs between each distinct home and the delivery are planned, concurrently.
+     */
+    private Drone selectBestDrone(FleetSnapshot fleet, List<Drone> availableDrones, Position deliveryLocation,
+                                  Position defaultBase) {
         if (availableDrones.isEmpty()) return null;
 
+        RoutingEngine engine = PlanningOptions.defaults().getEngine();
+        Map<Position, ForkJoinTask<Integer>> outbound = new HashMap<>();
+        Map<Position, ForkJoinTask<Integer>> inbound = new HashMap<>();
+        for (Drone drone : availableDrones) {
+            Position home = homeOf(fleet, drone, defaultBase);
+            if (!outbound.containsKey(home)) {
+                outbound.put(home, planningPool.submit(() -> distanceMatrixService.moves(home, deliveryLocation, engine)));
+                inbound.put(home, planningPool.submit(() -> distanceMatrixService.moves(deliveryLocation, home, engine)));
+            }
+        }
+
         Drone bestDrone = null;
         double bestScore = Double.POSITIVE_INFINITY;
 
         for (Drone drone : availableDrones) {
-            double distance = calculateDistance(base, deliveryLocation);
-            double capacityBonus = drone.getCapability().getCapacity() * 0.0001;
-            double score = distance - capacityBonus;
+            Position home = homeOf(fleet, drone, defaultBase);
+            int out = outbound.get(home).join();
+            int back = inbound.get(home).join();
+            if (out >= DistanceMatrixService.UNREACHABLE || back >= DistanceMatrixService.UNREACHABLE
+                    || out + back + 1 > drone.getCapability().getMaxMoves()) {
+                logger.debug("Drone {} cannot reach ({}, {}) and return", drone.getId(),
+                        deliveryLocation.getLat(), deliveryLocation.getLng());
+                continue;
+            }
+            double capacityBonus = drone.getCapability().getCapacity() * 0.0001 / MOVE_LENGTH;
+            double score = out - capacityBonus;
 
             if (score < bestScore) {
                 bestScore = score;
@@ -579,10 +708,11 @@ public class DroneDispatchService {
         return bestDrone;
     }
 
-    private Drone findAlternativeDrone(List<Drone> allDrones, Capability requiredCapability, 
-                                        List<MedDispatchRec> dispatches) {
+    /** Idle drones that can carry {@code dispatches} and are available for them, best match first. */
+    private List<Drone> findAlternativeDrones(FleetSnapshot fleet, Capability requiredCapability,
+                                              List<MedDispatchRec> dispatches) {
         if (requiredCapability == null || dispatches == null || dispatches.isEmpty()) {
-            return null;
+            return List.of();
         }
 
         double totalCapacityNeeded = dispatches.stream()
@@ -598,7 +728,7 @@ public class DroneDispatchService {
         logger.info("Looking for drone with: capacity >= {}, cooling={}, heating={}",
                 totalCapacityNeeded, needsCooling, needsHeating);
 
-        List<Drone> candidates = allDrones.stream()
+        List<Drone> candidates = fleet.getDrones().stream()
                 .filter(drone -> !activeDrones.containsKey(drone.getId()))
                 .filter(drone -> {
                     Capability cap = drone.getCapability();
@@ -607,6 +737,7 @@ public class DroneDispatchService {
                     if (needsCooling && !cap.isCooling()) return false;
                     return !needsHeating || cap.isHeating();
                 })
+                .filter(drone -> droneAvailabilityService.canHandleAll(drone, dispatches, fleet))
                 .sorted(Comparator.comparingDouble((Drone d) -> {
                     double capacityDiff = Math.abs(d.getCapability().getCapacity() - totalCapacityNeeded);
                     double costFactor = d.getCapability().getCostPerMove() * 100;
@@ -614,18 +745,73 @@ public class DroneDispatchService {
                 }))
                 .toList();
 
-        if (!candidates.isEmpty()) {
-            Drone alternative = candidates.get(0);
-            logger.info("Found alternative drone: {} (capacity: {}, cooling: {}, heating: {})",
-                    alternative.getId(),
-                    alternative.getCapability().getCapacity(),
-                    alternative.getCapability().isCooling(),
-                    alternative.getCapability().isHeating());
-            return alternative;
+        if (candidates.isEmpty()) {
+            logger.warn("No alternative drones available with required capabilities");
+        }
+        return candidates;
+    }
+
+    /**
+     * Plans {@code dispatches} as one flight of {@code drone} from its own home, or returns
+     * {@code null} if it cannot fly all of them within its maxMoves.
+     */
+    private DronePathResult planReplacement(Drone drone, FleetSnapshot fleet, Position fallbackBase,
+                                            List<MedDispatchRec> dispatches) {
+        CalcDeliveryResult result = plannerService.calcDeliveryPath(drone, homeOf(fleet, drone, fallbackBase),
+                dispatches, multiBaseOptions());
+        return result.getDronePaths().stream()
+                .filter(path -> drone.getId().equals(path.getDroneId()))
+                .filter(path -> path.getDeliveries().size() == dispatches.size())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static PlanningOptions multiBaseOptions() {
+        PlanningOptions options = PlanningOptions.defaults();
+        options.setMultiBase(true);
+        return options;
+    }
+
+    /** Single deliveries are latency-sensitive, so they get a short planning budget. */
+    private static PlanningOptions singleDeliveryOptions() {
+        PlanningOptions options = multiBaseOptions();
+        options.setMaxPlanningMillis(SINGLE_PLANNING_MILLIS);
+        return options;
+    }
+
+    /** The service point nearest {@code target}, or the first one when there is no target. */
+    private Position nearestBase(FleetSnapshot fleet, Position target) {
+        Position best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (ServicePoint servicePoint : fleet.getServicePoints()) {
+            if (servicePoint.getLocation() == null) continue;
+            Position position = new Position(servicePoint.getLocation().getLng(), servicePoint.getLocation().getLat());
+            double distance = target == null ? 0 : calculateDistance(position, target);
+            if (best == null || distance < bestDistance) {
+                best = position;
+                bestDistance = distance;
+            }
+        }
+        return best != null ? best : new Position(-3.1892, 55.9445);
+    }
+
+    /** First waypoint of {@code path}, or {@code home} if it has none. */
+    private static LngLat launchPoint(DronePathResult path, Position home) {
+        List<DeliveryResult> deliveries = path.getDeliveries();
+        if (deliveries != null && !deliveries.isEmpty() && deliveries.get(0).getFlightPath() != null
+                && !deliveries.get(0).getFlightPath().isEmpty()) {
+            return deliveries.get(0).getFlightPath().get(0);
         }
+        return new LngLat(home.getLng(), home.getLat());
+    }
 
-        logger.warn("No alternative drones available with required capabilities");
-        return null;
+    /** Where the drone launches from: its home service point, or {@code fallback} if it has none. */
+    private Position homeOf(FleetSnapshot fleet, Drone drone, Position fallback) {
+        ServicePoint home = fleet.getHomeServicePoint(drone.getId());
+        if (home == null || home.getLocation() == null) {
+            return fallback;
+        }
+        return new Position(home.getLocation().getLng(), home.getLocation().getLat());
     }
 
     private double calculateDistance(Position a, Position b) {
@@ -636,6 +822,8 @@ public class DroneDispatchService {
 
     private void broadcastBatchUpdate(ActiveDroneState state) {
         DroneUpdate update = new DroneUpdate();
+        update.setMissionId(state.getMissionId());
+        update.setStepIndex(state.getStepIndex());
         update.setDroneId(state.getDroneId());
         update.setDeliveryId(state.getDeliveryId());
         update.setLatitude(state.getCurrentPosition().getLat());
@@ -681,11 +869,13 @@ public class DroneDispatchService {
             }
         }
 
-        messagingTemplate.convertAndSend("/topic/drone-updates", update);
+        telemetryAggregator.publish(update);
     }
 
     private void broadcastSingleUpdate(ActiveDroneState state) {
         DroneUpdate update = new DroneUpdate();
+        update.setMissionId(state.getMissionId());
+        update.setStepIndex(state.getStepIndex());
         update.setDroneId(state.getDroneId());
         update.setDeliveryId(state.getDeliveryId());
         update.setLatitude(state.getCurrentPosition().getLat());
@@ -719,7 +909,7 @@ public class DroneDispatchService {
             }
         }
 
-        messagingTemplate.convertAndSend("/topic/drone-updates", update);
+        telemetryAggregator.publish(update);
     }
 
     private void broadcastSystemState() {
@@ -764,13 +954,24 @@ public class DroneDispatchService {
     }
 
     private int countAvailableDrones() {
-        List<Drone> allDrones = droneService.fetchAllDrones();
+        List<Drone> allDrones = currentFleet().getDrones();
         return (int) allDrones.stream()
                 .filter(d -> d.getCapability() != null)
                 .filter(d -> !activeDrones.containsKey(d.getId()))
                 .count();
     }
 
+    private FleetSnapshot refreshFleet() {
+        FleetSnapshot snapshot = fleetSnapshotService.capture();
+        fleet = snapshot;
+        return snapshot;
+    }
+
+    private FleetSnapshot currentFleet() {
+        FleetSnapshot snapshot = fleet;
+        return snapshot != null ? snapshot : refreshFleet();
+    }
+
     private LngLat findDeliveryPoint(List<LngLat> flightPath) {
         if (flightPath == null || flightPath.size() < 2) {
             return null;
@@ -806,6 +1007,7 @@ public class DroneDispatchService {
     }
 
     public static class ActiveDroneState {
+        private final int missionId = missionIdCounter.incrementAndGet();
         private final String droneId;
         private final int deliveryId;
         private final List<LngLat> flightPath;
@@ -837,6 +1039,7 @@ public class DroneDispatchService {
             this.currentDeliveryIndex = 0;
         }
 
+        public int getMissionId() { return missionId; }
         public String getDroneId() { return droneId; }
         public int getDeliveryId() { return deliveryId; }
         public List<LngLat> getFlightPath() { return flightPath; }
@@ -895,6 +1098,8 @@ public class DroneDispatchService {
     }
 
     public static class DroneUpdate {
+        private Integer missionId;
+        private Integer stepIndex;
         private String droneId;
         private int deliveryId;
         private double latitude;
@@ -911,6 +1116,10 @@ public class DroneDispatchService {
         private Double deliveryLongitude;
         private List<List<Double>> allDeliveryDestinations;
 
+        public Integer getMissionId() { return missionId; }
+        public void setMissionId(Integer id) { this.missionId = id; }
+        public Integer getStepIndex() { return stepIndex; }
+        public void setStepIndex(Integer idx) { this.stepIndex = idx; }
         public String getDroneId() { return droneId; }
         public void setDroneId(String id) { this.droneId = id; }
         public int getDeliveryId() { return deliveryId; }
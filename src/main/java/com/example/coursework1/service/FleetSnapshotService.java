@@ -0,0 +1,85 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.ServicePoint;
+import com.example.coursework1.model.AvailabilityIndex;
+import com.example.coursework1.model.FleetSnapshot;
+import com.example.coursework1.model.RestrictedAreaIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+@Service
+public class FleetSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetSnapshotService.class);
+
+    private final DroneService droneService;
+    private final ServicePointService servicePointService;
+    private final DroneAvailabilityService droneAvailabilityService;
+    private final RestrictedAreaService restrictedAreaService;
+    private final Duration deadline;
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FleetSnapshotService(DroneService droneService,
+                                ServicePointService servicePointService,
+                                DroneAvailabilityService droneAvailabilityService,
+                                RestrictedAreaService restrictedAreaService,
+                                @Value("${planner.snapshot.deadline:15s}") Duration deadline) {
+        this.droneService = droneService;
+        this.servicePointService = servicePointService;
+        this.droneAvailabilityService = droneAvailabilityService;
+        this.restrictedAreaService = restrictedAreaService;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Fetches drones, availability, service points and restricted areas once and freezes them
+     * for one request. The four fetches are independent, so they run concurrently on virtual
+     * threads and a cold capture costs about the slowest of them rather than their sum.
+     *
+     * @throws IllegalStateException if they do not all complete within the configured deadline;
+     *         fetches still running carry on and warm the reference-data cache for the next request
+     */
+    public FleetSnapshot capture() {
+        long start = System.nanoTime();
+        CompletableFuture<List<Drone>> drones =
+                CompletableFuture.supplyAsync(droneService::fetchAllDrones, fetchExecutor);
+        CompletableFuture<AvailabilityIndex> availability =
+                CompletableFuture.supplyAsync(droneAvailabilityService::getAvailabilityIndex, fetchExecutor);
+        CompletableFuture<List<ServicePoint>> servicePoints =
+                CompletableFuture.supplyAsync(servicePointService::fetchAllServicePoints, fetchExecutor);
+        CompletableFuture<RestrictedAreaIndex> restrictedAreas =
+                CompletableFuture.supplyAsync(restrictedAreaService::getAreaIndex, fetchExecutor);
+
+        try {
+            CompletableFuture.allOf(drones, availability, servicePoints, restrictedAreas)
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Fleet data not loaded within " + deadline, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading fleet data", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load fleet data", e.getCause());
+        }
+
+        FleetSnapshot snapshot = FleetSnapshot.of(drones.join(), servicePoints.join(),
+                availability.join(), restrictedAreas.join());
+        logger.debug("Captured fleet snapshot in {} ms: {} drones, {} service points, {} restricted areas",
+                (System.nanoTime() - start) / 1_000_000, snapshot.getDrones().size(),
+                snapshot.getServicePoints().size(), snapshot.getRestrictedAreas().size());
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.dto.RoutingEngine;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedAreaIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of planned legs.
+ *
+ * Keys are the leg endpoints quantized to {@link #KEY_QUANTUM} degrees, the restricted-area
+ * index version and the routing engine, so reloading the areas retires every old entry.
+ * Legs are stored as compass direction codes and replayed from the caller's exact start,
+ * re-checking each move, so a hit never returns a path that is illegal for the actual
+ * endpoints. Failed plans are cached too, since they are deterministic for a given version
+ * and are the most expensive to recompute.
+ */
+@Service
+public class LegPathCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegPathCache.class);
+
+    private static final double STEP = 0.00015;
+    private static final double CLOSE_THRESHOLD = 0.00015;
+    // About 1 cm; far finer than a move, so replays land within the goal tolerance.
+    private static final double KEY_QUANTUM = 1e-7;
+    private static final int DIRECTIONS = 16;
+    private static final double ANGLE_INCREMENT = 360.0 / DIRECTIONS;
+
+    private final RestrictedAreaService restrictedAreaService;
+    private final int maxEntries;
+    private final Map<LegKey, CachedLeg> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LegPathCache(RestrictedAreaService restrictedAreaService,
+                        @Value("${planner.leg-cache.max-entries:2048}") int maxEntries) {
+        this.restrictedAreaService = restrictedAreaService;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LegKey, CachedLeg> eldest) {
+                if (size() > LegPathCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached leg from {@code from} to {@code to}, or plans it with {@code planner}
+     * and caches the result. A {@code null} plan is cached and returned as {@code null}.
+     */
+    public List<LngLat> getOrPlan(Position from, Position to, long areaVersion, RoutingEngine engine,
+                                  Supplier<List<LngLat>> planner) {
+        return getOrPlan(from, to, areaVersion, null, engine, planner);
+    }
+
+    /** Same as above, replaying cached legs against {@code areas} rather than the current areas. */
+    public List<LngLat> getOrPlan(Position from, Position to, RestrictedAreaIndex areas, RoutingEngine engine,
+                                  Supplier<List<LngLat>> planner) {
+        return getOrPlan(from, to, areas.getVersion(), areas, engine, planner);
+    }
+
+    private List<LngLat> getOrPlan(Position from, Position to, long areaVersion, RestrictedAreaIndex areas,
+                                   RoutingEngine engine, Supplier<List<LngLat>> planner) {
+        if (maxEntries <= 0) {
+            return planner.get();
+        }
+
+        LegKey key = LegKey.of(from, to, areaVersion, engine);
+        CachedLeg cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+
+        if (cached != null) {
+            if (cached.moves() == null) {
+                hits.increment();
+                return null;
+            }
+            List<LngLat> replayed = replay(cached.moves(), from, to, areas);
+            if (replayed != null) {
+                hits.increment();
+                return replayed;
+            }
+            logger.debug("Cached leg from {} to {} failed replay, re-planning", from, to);
+        }
+
+        misses.increment();
+        List<LngLat> path = planner.get();
+        CachedLeg entry = new CachedLeg(path == null ? null : encode(path));
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return path;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", this, LegPathCache::getHits)
+                .tag("cache", "legPaths").tag("result", "hit")
+                .description("Leg plans served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, LegPathCache::getMisses)
+                .tag("cache", "legPaths").tag("result", "miss")
+                .description("Leg plans computed by a router")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, LegPathCache::getEvictions)
+                .tag("cache", "legPaths")
+                .register(registry);
+        Gauge.builder("cache.size", this, LegPathCache::size)
+                .tag("cache", "legPaths")
+                .register(registry);
+    }
+
+    private static byte[] encode(List<LngLat> path) {
+        byte[] moves = new byte[path.size() - 1];
+        for (int i = 0; i < moves.length; i++) {
+            double dx = path.get(i + 1).getLng() - path.get(i).getLng();
+            double dy = path.get(i + 1).getLat() - path.get(i).getLat();
+            double angle = Math.toDegrees(Math.atan2(dy, dx));
+            moves[i] = (byte) Math.floorMod((int) Math.round(angle / ANGLE_INCREMENT), DIRECTIONS);
+        }
+        return moves;
+    }
+
+    /** Rebuilds the leg from the actual start; null if any move is now illegal or it misses the target. */
+    private List<LngLat> replay(byte[] moves, Position from, Position to, RestrictedAreaIndex restrictedAreas) {
+        RestrictedAreaIndex areas = restrictedAreas != null ? restrictedAreas : restrictedAreaService.getAreaIndex();
+        double cx = from.getLng(), cy = from.getLat();
+        List<LngLat> path = new ArrayList<>(moves.length + 1);
+        path.add(new LngLat(cx, cy));
+
+        for (byte move : moves) {
+            double rad = Math.toRadians(move * ANGLE_INCREMENT);
+            double nx = cx + STEP * Math.cos(rad);
+            double ny = cy + STEP * Math.sin(rad);
+            if (restrictedAreaService.segmentCrossesRestrictedArea(areas, cx, cy, nx, ny)) {
+                return null;
+            }
+            cx = nx;
+            cy = ny;
+            path.add(new LngLat(cx, cy));
+        }
+
+        double dx = cx - to.getLng(), dy = cy - to.getLat();
+        return Math.sqrt(dx * dx + dy * dy) < CLOSE_THRESHOLD ? path : null;
+    }
+
+    private record CachedLeg(byte[] moves) {}
+
+    private record LegKey(long fromX, long fromY, long toX, long toY, long areaVersion, RoutingEngine engine) {
+        static LegKey of(Position from, Position to, long areaVersion, RoutingEngine engine) {
+            return new LegKey(quantize(from.getLng()), quantize(from.getLat()),
+                    quantize(to.getLng()), quantize(to.getLat()), areaVersion, engine);
+        }
+
+        private static long quantize(double value) {
+            return Math.round(value / KEY_QUANTUM);
+        }
+    }
+}
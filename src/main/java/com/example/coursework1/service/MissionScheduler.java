@@ -0,0 +1,105 @@
+package com.example.coursework1.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick-driven engine that advances every simulated drone mission from one scheduler thread.
+ *
+ * Missions are small state machines: each {@link Mission#step()} does one unit of work (move one
+ * waypoint, hold at the end) and says how long to wait before the next one. On every tick the
+ * scheduler steps the missions that are due, so a mission holds no thread while it waits and
+ * hundreds of concurrent flights cost the same single thread as one.
+ */
+@Component
+public class MissionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MissionScheduler.class);
+
+    /** One simulated mission, advanced by the scheduler thread only. */
+    public interface Mission {
+
+        /** Performs the next step and returns the delay in milliseconds before the following one,
+         *  or a negative value when the mission is finished. */
+        long step();
+
+        /** Called instead of further steps if {@link #step()} throws. */
+        default void failed(Exception e) {}
+    }
+
+    private final Set<Scheduled> missions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+
+    public MissionScheduler(@Value("${missions.tick:10ms}") Duration tick) {
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mission-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, tick.toMillis());
+        ticker.scheduleAtFixedRate(this::tick, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Adds a mission; its first step runs on the next tick. */
+    public void submit(Mission mission) {
+        missions.add(new Scheduled(mission, System.nanoTime()));
+    }
+
+    public int getActiveMissionCount() {
+        return missions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    void tick() {
+        long now = System.nanoTime();
+        for (Scheduled scheduled : missions) {
+            if (now - scheduled.dueAt < 0) {
+                continue;
+            }
+            long delay;
+            try {
+                delay = scheduled.mission.step();
+            } catch (Exception e) {
+                missions.remove(scheduled);
+                logger.error("Mission step failed", e);
+                try {
+                    scheduled.mission.failed(e);
+                } catch (Exception handlerError) {
+                    logger.warn("Mission failure handler threw", handlerError);
+                }
+                continue;
+            }
+            if (delay < 0) {
+                missions.remove(scheduled);
+            } else {
+                // Advance from the previous due time so steps keep their rate despite tick jitter
+                long next = scheduled.dueAt + TimeUnit.MILLISECONDS.toNanos(delay);
+                scheduled.dueAt = next - now < 0 ? now : next;
+            }
+        }
+    }
+
+    private static final class Scheduled {
+        final Mission mission;
+        long dueAt;
+
+        Scheduled(Mission mission, long dueAt) {
+            this.mission = mission;
+            this.dueAt = dueAt;
+        }
+    }
+}
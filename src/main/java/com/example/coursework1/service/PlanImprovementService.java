@@ -0,0 +1,85 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.CalcDeliveryResult;
+import com.example.coursework1.dto.MedDispatchRec;
+import com.example.coursework1.dto.PlanningOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Anytime planning: answers within the request's budget and, if that plan was cut short and the
+ * caller asked for {@code improve}, plans the same request again in the background with
+ * {@code planner.improve.budget} and publishes the result on {@code /topic/plan-improvements}
+ * under the {@code improvementId} returned with the first answer.
+ *
+ * Improvements run as {@link PlanningJobService} jobs, so they share its bounded threads and
+ * queue; when those are full the improvement is skipped and no {@code improvementId} is returned.
+ */
+@Service
+public class PlanImprovementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanImprovementService.class);
+
+    public static final String TOPIC = "/topic/plan-improvements";
+
+    /** A background plan for the request that was answered with {@code improvementId}. */
+    public record PlanImprovement(String improvementId, CalcDeliveryResult result) {}
+
+    private final DeliveryPlannerService plannerService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PlanningJobService planningJobService;
+    private final long improveMillis;
+
+    public PlanImprovementService(DeliveryPlannerService plannerService,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  PlanningJobService planningJobService,
+                                  @Value("${planner.improve.budget:30s}") Duration improveBudget) {
+        this.plannerService = plannerService;
+        this.messagingTemplate = messagingTemplate;
+        this.planningJobService = planningJobService;
+        this.improveMillis = Math.max(1, improveBudget.toMillis());
+    }
+
+    /** Plans within the options' budget, scheduling a background improvement if requested and useful. */
+    public CalcDeliveryResult plan(List<MedDispatchRec> dispatches, PlanningOptions options) {
+        CalcDeliveryResult result = plannerService.calcDeliveryPath(dispatches, options);
+        if (options != null && options.isImprove() && Boolean.FALSE.equals(result.getOptimal())) {
+            result.setImprovementId(improve(dispatches, options));
+        }
+        return result;
+    }
+
+    /**
+     * Re-plans {@code dispatches} in the background and returns the id the result will carry, or
+     * {@code null} if the planning jobs are saturated and the improvement was skipped.
+     */
+    public String improve(List<MedDispatchRec> dispatches, PlanningOptions options) {
+        String improvementId = UUID.randomUUID().toString();
+        List<MedDispatchRec> copy = List.copyOf(dispatches);
+        PlanningOptions background = options.withBudget(improveMillis);
+
+        try {
+            planningJobService.submit("improvement", () -> {
+                CalcDeliveryResult result = plannerService.calcDeliveryPath(copy, background);
+                logger.info("Improved plan {} ready: {} moves, ${} cost", improvementId,
+                        result.getTotalMoves(), result.getTotalCost());
+                messagingTemplate.convertAndSend(TOPIC, new PlanImprovement(improvementId, result));
+                return result;
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Skipping improvement of {} dispatches: planning jobs are saturated", copy.size());
+            return null;
+        }
+        logger.info("Improving plan {} for {} dispatches in the background ({} ms budget)",
+                improvementId, copy.size(), improveMillis);
+        return improvementId;
+    }
+}
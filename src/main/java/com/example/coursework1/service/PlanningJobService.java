@@ -0,0 +1,153 @@
+package com.example.coursework1.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs planning requests as background jobs so long plans do not hold servlet threads.
+ *
+ * Jobs run on a fixed pool of {@code planner.jobs.threads} with at most
+ * {@code planner.jobs.queue-capacity} waiting; beyond that {@link #submit} throws
+ * {@link RejectedExecutionException} and nothing is queued, which the API turns into a 503.
+ * Clients poll {@link #find} by job id or listen on {@code /topic/plans}, where a
+ * {@link JobEvent} is sent when a job finishes. Finished jobs are kept for
+ * {@code planner.jobs.retention}.
+ */
+@Service
+public class PlanningJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanningJobService.class);
+
+    public static final String TOPIC = "/topic/plans";
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    /** State of a job as returned by the polling endpoint; {@code result} is set once it succeeded. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record JobView(String id, String kind, Status status, long submittedAt, Long startedAt,
+                          Long completedAt, Object result, String error) {}
+
+    /** Completion notice on {@link #TOPIC}; the result itself is fetched by polling. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record JobEvent(String id, String kind, Status status, String error) {}
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolExecutor executor;
+    private final long retentionMillis;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public PlanningJobService(SimpMessagingTemplate messagingTemplate,
+                              @Value("${planner.jobs.threads:2}") int threads,
+                              @Value("${planner.jobs.queue-capacity:16}") int queueCapacity,
+                              @Value("${planner.jobs.retention:10m}") Duration retention) {
+        this.messagingTemplate = messagingTemplate;
+        this.retentionMillis = retention.toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "planning-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues {@code work} and returns the new job's state.
+     *
+     * @throws RejectedExecutionException if every planning thread is busy and the queue is full
+     */
+    public JobView submit(String kind, Supplier<?> work) {
+        purgeExpired();
+        Job job = new Job(UUID.randomUUID().toString(), kind);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            logger.warn("Rejected {} planning job: {} running, {} queued", kind,
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw e;
+        }
+        logger.info("Queued {} planning job {}", kind, job.id);
+        return job.view();
+    }
+
+    public Optional<JobView> find(String id) {
+        Job job = jobs.get(id);
+        return job != null ? Optional.of(job.view()) : Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, Supplier<?> work) {
+        job.startedAt = System.currentTimeMillis();
+        job.status = Status.RUNNING;
+        Status outcome;
+        try {
+            job.result = work.get();
+            outcome = Status.SUCCEEDED;
+        } catch (Throwable e) {
+            // Errors too (e.g. a stack overflow in a deep plan), or the job would stay RUNNING forever
+            logger.error("Planning job {} failed", job.id, e);
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            outcome = Status.FAILED;
+        }
+        job.completedAt = System.currentTimeMillis();
+        job.status = outcome;
+        logger.info("Planning job {} {} in {} ms", job.id, job.status, job.completedAt - job.startedAt);
+        try {
+            messagingTemplate.convertAndSend(TOPIC, new JobEvent(job.id, job.kind, job.status, job.error));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to send completion of planning job {}: {}", job.id, e.toString());
+        }
+    }
+
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt < cutoff);
+    }
+
+    private static final class Job {
+        final String id;
+        final String kind;
+        final long submittedAt = System.currentTimeMillis();
+        volatile Status status = Status.QUEUED;
+        volatile Long startedAt;
+        volatile Long completedAt;
+        volatile Object result;
+        volatile String error;
+
+        Job(String id, String kind) {
+            this.id = id;
+            this.kind = kind;
+        }
+
+        JobView view() {
+            // Read the status first: everything else is written before it changes
+            Status current = status;
+            boolean done = current == Status.SUCCEEDED || current == Status.FAILED;
+            return new JobView(id, kind, current, submittedAt, startedAt, done ? completedAt : null,
+                    done ? result : null, done ? error : null);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.coursework1.service;
 
-import com.example.coursework1.dto.Region;
-import com.example.coursework1.dto.RegionRequest;
+import com.example.coursework1.model.OccupancyRaster;
 import com.example.coursework1.model.Position;
 import com.example.coursework1.model.RestrictedArea;
+import com.example.coursework1.model.RestrictedAreaIndex;
 import com.example.coursework1.repository.RestrictedAreaRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,15 +15,13 @@ import java.util.List;
 public class RestrictedAreaService {
 
     private static final Logger logger = LoggerFactory.getLogger(RestrictedAreaService.class);
-    private static final double TOLERANCE = 1e-10;
 
     private final RestrictedAreaRepository restrictedAreaRepository;
-    private final RegionService regionService;
 
-    public RestrictedAreaService(RestrictedAreaRepository restrictedAreaRepository,
-                                 RegionService regionService) {
+    private volatile RestrictedAreaIndex index = RestrictedAreaIndex.build(List.of());
+
+    public RestrictedAreaService(RestrictedAreaRepository restrictedAreaRepository) {
         this.restrictedAreaRepository = restrictedAreaRepository;
-        this.regionService = regionService;
     }
 
     public List<RestrictedArea> getRestrictedAreas() {
@@ -35,27 +33,7 @@ public class RestrictedAreaService {
             return false;
         }
 
-        List<RestrictedArea> areas = restrictedAreaRepository.fetchRestrictedAreas();
-
-        for (RestrictedArea area : areas) {
-            if (area.getVertices() == null || area.getVertices().isEmpty()) {
-                continue;
-            }
-
-            Region region = new Region(area.getName(), area.getVertices());
-            RegionRequest request = new RegionRequest(position, region);
-
-            try {
-                if (regionService.isInRegion(request)) {
-                    logger.debug("Position {} is in restricted area: {}", position, area.getName());
-                    return true;
-                }
-            } catch (Exception e) {
-                logger.warn("Error checking if position is in area {}: {}", area.getName(), e.getMessage());
-            }
-        }
-
-        return false;
+        return isInRestrictedArea(currentIndex(), position);
     }
 
     public boolean pathCrossesRestrictedArea(Position from, Position to) {
@@ -63,84 +41,77 @@ public class RestrictedAreaService {
             return false;
         }
 
-        if (isInRestrictedArea(from) || isInRestrictedArea(to)) {
-            logger.debug("Path endpoint in restricted area: from={}, to={}", from, to);
+        if (isSegmentBlocked(currentIndex(), from.getLng(), from.getLat(), to.getLng(), to.getLat())) {
+            logger.debug("Path blocked by restricted area: from={}, to={}", from, to);
             return true;
         }
 
-        List<RestrictedArea> areas = restrictedAreaRepository.fetchRestrictedAreas();
-
-        for (RestrictedArea area : areas) {
-            if (area.getVertices() == null || area.getVertices().isEmpty()) {
-                continue;
-            }
-
-            if (lineSegmentIntersectsPolygon(from, to, area.getVertices())) {
-                logger.debug("Path crosses restricted area {}: from {} to {}",
-                        area.getName(), from, to);
-                return true;
-            }
-        }
-
         return false;
     }
 
-    private boolean lineSegmentIntersectsPolygon(Position p1, Position p2, List<Position> polygon) {
-        if (polygon == null || polygon.size() < 2) {
-            return false;
-        }
-
-        for (int i = 0; i < polygon.size() - 1; i++) {
-            Position v1 = polygon.get(i);
-            Position v2 = polygon.get(i + 1);
-
-            if (lineSegmentsIntersect(p1, p2, v1, v2)) {
-                return true;
-            }
-        }
-
-        int samples = 10;
-        for (int i = 1; i < samples; i++) {
-            double t = (double) i / samples;
-            double lng = p1.getLng() + t * (p2.getLng() - p1.getLng());
-            double lat = p1.getLat() + t * (p2.getLat() - p1.getLat());
+    /**
+     * Primitive form of {@link #pathCrossesRestrictedArea} for the pathfinder's inner loop.
+     * Answered from the occupancy raster where possible; only segments touching boundary
+     * cells fall through to the exact polygon test.
+     */
+    public boolean segmentCrossesRestrictedArea(double x1, double y1, double x2, double y2) {
+        return isSegmentBlocked(currentIndex(), x1, y1, x2, y2);
+    }
 
-            Position testPoint = new Position(lng, lat);
+    /**
+     * Same as {@link #segmentCrossesRestrictedArea(double, double, double, double)} against an
+     * index the caller resolved once, so a search does not look the areas up for every segment.
+     */
+    public boolean segmentCrossesRestrictedArea(RestrictedAreaIndex areas, double x1, double y1, double x2, double y2) {
+        return isSegmentBlocked(areas, x1, y1, x2, y2);
+    }
 
-            Region region = new Region("test", polygon);
-            RegionRequest request = new RegionRequest(testPoint, region);
+    /** Prepared geometry for the areas currently held by the repository. */
+    public RestrictedAreaIndex getAreaIndex() {
+        return currentIndex();
+    }
 
-            try {
-                if (regionService.isInRegion(request)) {
-                    return true;
+    /**
+     * Returns the bounding-box index for the areas currently held by the repository,
+     * rebuilding it only when the repository hands back a different list.
+     */
+    private RestrictedAreaIndex currentIndex() {
+        List<RestrictedArea> areas = restrictedAreaRepository.fetchRestrictedAreas();
+        RestrictedAreaIndex current = index;
+        if (current.getSource() != areas) {
+            current = RestrictedAreaIndex.build(areas);
+            for (int i = 0; i < current.size(); i++) {
+                if (!current.getPolygon(i).isClosed()) {
+                    logger.warn("Restricted area {} is not a closed polygon with at least 4 vertices; "
+                            + "only its edges will be checked", current.getArea(i).getName());
                 }
-            } catch (Exception e) {
             }
+            index = current;
+            logger.debug("Rebuilt restricted area index for {} areas", current.size());
         }
-
-        return false;
+        return current;
     }
 
-    private boolean lineSegmentsIntersect(Position p1, Position p2, Position p3, Position p4) {
-        double x1 = p1.getLng(), y1 = p1.getLat();
-        double x2 = p2.getLng(), y2 = p2.getLat();
-        double x3 = p3.getLng(), y3 = p3.getLat();
-        double x4 = p4.getLng(), y4 = p4.getLat();
-
-        double d1x = x2 - x1, d1y = y2 - y1;
-        double d2x = x4 - x3, d2y = y4 - y3;
-
-        double denominator = d1x * d2y - d1y * d2x;
-
-        if (Math.abs(denominator) < TOLERANCE) {
+    /** Same as {@link #isInRestrictedArea(Position)} against an index the caller resolved once. */
+    public boolean isInRestrictedArea(RestrictedAreaIndex areas, Position position) {
+        if (position == null) {
             return false;
         }
 
-        double t = ((x3 - x1) * d2y - (y3 - y1) * d2x) / denominator;
-        double u = ((x3 - x1) * d1y - (y3 - y1) * d1x) / denominator;
+        double x = position.getLng(), y = position.getLat();
+        int cell = areas.getRaster().classifyPoint(x, y);
+        if (cell != OccupancyRaster.UNKNOWN) {
+            return cell == OccupancyRaster.BLOCKED;
+        }
 
-        double eps = TOLERANCE;
-        return (t >= -eps && t <= 1 + eps) && (u >= -eps && u <= 1 + eps);
+        for (int i : areas.candidatesAt(x, y)) {
+            if (areas.getPolygon(i).contains(x, y)) {
+                logger.debug("Position {} is in restricted area: {}", position, areas.getArea(i).getName());
+                return true;
+            }
+        }
+
+        return false;
     }
 
     public boolean flightPathCrossesRestrictedArea(List<Position> flightPath) {
@@ -148,8 +119,13 @@ public class RestrictedAreaService {
             return false;
         }
 
+        RestrictedAreaIndex areas = currentIndex();
+
         for (int i = 0; i < flightPath.size() - 1; i++) {
-            if (pathCrossesRestrictedArea(flightPath.get(i), flightPath.get(i + 1))) {
+            Position from = flightPath.get(i);
+            Position to = flightPath.get(i + 1);
+            if (from != null && to != null
+                    && isSegmentBlocked(areas, from.getLng(), from.getLat(), to.getLng(), to.getLat())) {
                 return true;
             }
         }
@@ -158,35 +134,44 @@ public class RestrictedAreaService {
     }
 
     public String getRestrictedAreaNameForPath(Position from, Position to) {
-        List<RestrictedArea> areas = restrictedAreaRepository.fetchRestrictedAreas();
+        RestrictedAreaIndex areas = currentIndex();
 
-        int samples = 20;
-        for (int i = 0; i <= samples; i++) {
-            double t = (double) i / samples;
-            double lng = from.getLng() + t * (to.getLng() - from.getLng());
-            double lat = from.getLat() + t * (to.getLat() - from.getLat());
+        int blocking = findBlockingArea(areas, from, to);
+        return blocking >= 0 ? areas.getArea(blocking).getName() : null;
+    }
 
-            Position point = new Position(lng, lat);
+    private boolean isSegmentBlocked(RestrictedAreaIndex areas, double x1, double y1, double x2, double y2) {
+        int cells = areas.getRaster().classifySegment(x1, y1, x2, y2);
+        if (cells != OccupancyRaster.UNKNOWN) {
+            return cells == OccupancyRaster.BLOCKED;
+        }
 
-            for (RestrictedArea area : areas) {
-                if (area.getVertices() == null || area.getVertices().isEmpty()) {
-                    continue;
-                }
+        RestrictedAreaIndex.Candidates candidates = areas.segmentCandidates(x1, y1, x2, y2);
+        for (int k = 0; k < candidates.size(); k++) {
+            if (areas.getPolygon(candidates.get(k)).intersectsSegment(x1, y1, x2, y2)) {
+                return true;
+            }
+        }
 
-                Region region = new Region(area.getName(), area.getVertices());
-                RegionRequest request = new RegionRequest(point, region);
+        return false;
+    }
 
-                try {
-                    if (regionService.isInRegion(request)) {
-                        return area.getName();
-                    }
-                } catch (Exception e) {
-                    logger.warn("Error checking area {}: {}", area.getName(), e.getMessage());
-                }
+    /**
+     * Index of the first area, in list order, that the segment enters, touches or crosses;
+     * -1 when the segment is clear. A zero-length segment is a point query.
+     */
+    private int findBlockingArea(RestrictedAreaIndex areas, Position from, Position to) {
+        double x1 = from.getLng(), y1 = from.getLat();
+        double x2 = to.getLng(), y2 = to.getLat();
+
+        RestrictedAreaIndex.Candidates candidates = areas.segmentCandidates(x1, y1, x2, y2);
+        for (int k = 0; k < candidates.size(); k++) {
+            if (areas.getPolygon(candidates.get(k)).intersectsSegment(x1, y1, x2, y2)) {
+                return candidates.get(k);
             }
         }
 
-        return null;
+        return -1;
     }
 
     public List<String> getRestrictedAreaNames() {
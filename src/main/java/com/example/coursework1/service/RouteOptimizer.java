@@ -0,0 +1,250 @@
+package com.example.coursework1.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Capacitated vehicle-routing solver for one base and a heterogeneous fleet.
+ *
+ * Node 0 is the base and nodes 1..n are the stops; {@code cost[i][j]} is the number of moves
+ * to fly from i to j (including any hover on arrival). A route is feasible if at least one
+ * {@link VehicleType} can fly it: enough capacity and moves, and cooling/heating if any stop
+ * needs them. The objective is total moves plus {@code flightPenalty} per route, so merging two
+ * flights pays off whenever it saves more than one flight's fixed cost in moves.
+ *
+ * Routes are seeded with Clarke–Wright savings and then improved with relocate (which can
+ * empty a route), Or-opt and 2-opt moves until no move improves or the deadline passes.
+ * Moves are tried in a fixed order, so the result only depends on the deadline when it cuts the
+ * search short.
+ */
+public final class RouteOptimizer {
+
+    /** Large enough to make a route infeasible, small enough not to overflow when summed. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE / 8;
+
+    private static final double EPS = 1e-12;
+
+    /** Limits of one kind of drone. */
+    public record VehicleType(double capacity, int maxMoves, boolean cooling, boolean heating) {}
+
+    /** Demand and requirements of one stop. */
+    public record Stop(double demand, boolean cooling, boolean heating) {}
+
+    private final int[][] cost;
+    private final List<Stop> stops;
+    private final List<VehicleType> vehicles;
+    private final double flightPenalty;
+    private boolean converged;
+
+    /**
+     * @param cost          (n+1)x(n+1) move counts, node 0 being the base
+     * @param stops         the n stops, in node order 1..n
+     * @param vehicles      the distinct drone types available
+     * @param flightPenalty cost of one extra flight, in moves
+     */
+    public RouteOptimizer(int[][] cost, List<Stop> stops, List<VehicleType> vehicles, double flightPenalty) {
+        this.cost = cost;
+        this.stops = stops;
+        this.vehicles = vehicles;
+        this.flightPenalty = flightPenalty;
+    }
+
+    /**
+     * Returns feasible routes as lists of stop nodes (1-based). Stops that no vehicle can serve on
+     * their own are left out.
+     */
+    public List<List<Integer>> solve(long deadlineNanos) {
+        converged = false;
+        List<List<Integer>> routes = savings();
+        improve(routes, deadlineNanos);
+        return routes;
+    }
+
+    /** Whether the last {@link #solve} stopped at a local optimum rather than at the deadline. */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public int moves(List<Integer> route) {
+        if (route.isEmpty()) {
+            return 0;
+        }
+        long total = cost[0][route.get(0)];
+        for (int k = 0; k + 1 < route.size(); k++) {
+            total += cost[route.get(k)][route.get(k + 1)];
+        }
+        total += cost[route.get(route.size() - 1)][0];
+        return (int) Math.min(total, UNREACHABLE);
+    }
+
+    public boolean feasible(List<Integer> route) {
+        double demand = 0;
+        boolean cooling = false;
+        boolean heating = false;
+        for (int node : route) {
+            Stop stop = stops.get(node - 1);
+            demand += stop.demand();
+            cooling |= stop.cooling();
+            heating |= stop.heating();
+        }
+        int moves = moves(route);
+        if (moves >= UNREACHABLE) {
+            return false;
+        }
+        for (VehicleType vehicle : vehicles) {
+            if (demand <= vehicle.capacity() + EPS && moves <= vehicle.maxMoves()
+                    && (!cooling || vehicle.cooling()) && (!heating || vehicle.heating())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double objective(List<List<Integer>> routes) {
+        double total = 0;
+        for (List<Integer> route : routes) {
+            if (!route.isEmpty()) {
+                total += moves(route) + flightPenalty;
+            }
+        }
+        return total;
+    }
+
+    private List<List<Integer>> savings() {
+        int n = stops.size();
+        List<List<Integer>> routeOf = new ArrayList<>(n + 1);
+        routeOf.add(null);
+        List<List<Integer>> routes = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            List<Integer> route = new ArrayList<>(List.of(i));
+            if (feasible(route)) {
+                routes.add(route);
+                routeOf.add(route);
+            } else {
+                routeOf.add(null);
+            }
+        }
+
+        List<long[]> savings = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= n; j++) {
+                if (i != j && routeOf.get(i) != null && routeOf.get(j) != null && cost[i][j] < UNREACHABLE) {
+                    long saving = (long) cost[i][0] + cost[0][j] - cost[i][j];
+                    savings.add(new long[]{saving, i, j});
+                }
+            }
+        }
+        savings.sort(Comparator.comparingLong((long[] s) -> -s[0])
+                .thenComparingLong(s -> s[1]).thenComparingLong(s -> s[2]));
+
+        for (long[] saving : savings) {
+            int i = (int) saving[1];
+            int j = (int) saving[2];
+            List<Integer> a = routeOf.get(i);
+            List<Integer> b = routeOf.get(j);
+            if (a == b || a.get(a.size() - 1) != i || b.get(0) != j) {
+                continue;
+            }
+            List<Integer> merged = new ArrayList<>(a);
+            merged.addAll(b);
+            if (!feasible(merged)) {
+                continue;
+            }
+            a.addAll(b);
+            b.forEach(node -> routeOf.set(node, a));
+            routes.removeIf(route -> route == b);
+        }
+        return routes;
+    }
+
+    private void improve(List<List<Integer>> routes, long deadlineNanos) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadlineNanos) {
+            improved = relocate(routes) || orOpt(routes) || twoOpt(routes);
+            routes.removeIf(List::isEmpty);
+        }
+        converged = !improved;
+    }
+
+    /** Moves one stop to the best position in any route, taking the first improving move. */
+    private boolean relocate(List<List<Integer>> routes) {
+        for (List<Integer> from : routes) {
+            for (int p = 0; p < from.size(); p++) {
+                int node = from.get(p);
+                List<Integer> shortened = new ArrayList<>(from);
+                shortened.remove(p);
+                double before = cost(from);
+                double removed = cost(shortened);
+                for (List<Integer> to : routes) {
+                    if (to == from) {
+                        continue;
+                    }
+                    double toBefore = cost(to);
+                    for (int q = 0; q <= to.size(); q++) {
+                        List<Integer> extended = new ArrayList<>(to);
+                        extended.add(q, node);
+                        if (removed + cost(extended) + EPS < before + toBefore && feasible(extended)
+                                && (shortened.isEmpty() || feasible(shortened))) {
+                            from.remove(p);
+                            to.add(q, node);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Moves a segment of one to three stops elsewhere within its route. */
+    private boolean orOpt(List<List<Integer>> routes) {
+        for (List<Integer> route : routes) {
+            double before = cost(route);
+            for (int length = 1; length <= 3; length++) {
+                for (int start = 0; start + length <= route.size(); start++) {
+                    List<Integer> segment = new ArrayList<>(route.subList(start, start + length));
+                    List<Integer> rest = new ArrayList<>(route);
+                    rest.subList(start, start + length).clear();
+                    for (int q = 0; q <= rest.size(); q++) {
+                        if (q == start) {
+                            continue;
+                        }
+                        List<Integer> candidate = new ArrayList<>(rest);
+                        candidate.addAll(q, segment);
+                        if (cost(candidate) + EPS < before && feasible(candidate)) {
+                            route.clear();
+                            route.addAll(candidate);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Reverses a section of a route, removing crossings. */
+    private boolean twoOpt(List<List<Integer>> routes) {
+        for (List<Integer> route : routes) {
+            double before = cost(route);
+            for (int i = 0; i + 1 < route.size(); i++) {
+                for (int k = i + 1; k < route.size(); k++) {
+                    List<Integer> candidate = new ArrayList<>(route);
+                    Collections.reverse(candidate.subList(i, k + 1));
+                    if (cost(candidate) + EPS < before && feasible(candidate)) {
+                        route.clear();
+                        route.addAll(candidate);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private double cost(List<Integer> route) {
+        return route.isEmpty() ? 0 : moves(route) + flightPenalty;
+    }
+}
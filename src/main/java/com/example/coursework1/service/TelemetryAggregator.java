@@ -0,0 +1,207 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.model.Polyline;
+import com.example.coursework1.service.DroneDispatchService.DroneUpdate;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces per-step drone telemetry into one {@link FleetFrame} per interval on
+ * {@code /topic/fleet-frame}.
+ *
+ * With the default {@code telemetry.encoding=delta}, a mission's route, destinations and fixed
+ * details are sent once as a {@link RouteRegistration} on {@code /topic/fleet-routes} (polyline
+ * encoded), and frames then carry only {@code [missionId, stepIndex, statusCode, deliveryIndex]}
+ * per moving drone; clients look positions up in the registered route. Active registrations can be
+ * fetched with {@link #getActiveRoutes()} by clients that join mid-mission.
+ * With {@code telemetry.encoding=full} frames carry whole {@link DroneUpdate}s instead, and the
+ * route from a drone's first step is carried forward if that update is superseded.
+ *
+ * Only the latest state per drone is kept between frames, so the message rate is one frame per
+ * interval regardless of fleet size. With {@code telemetry.legacy-topic=true} the latest full
+ * updates are also sent individually on {@code /topic/drone-updates}.
+ */
+@Component
+public class TelemetryAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryAggregator.class);
+
+    public static final String FRAME_TOPIC = "/topic/fleet-frame";
+    public static final String ROUTE_TOPIC = "/topic/fleet-routes";
+    public static final String LEGACY_TOPIC = "/topic/drone-updates";
+
+    /** Status strings by their code in delta frames. */
+    public static final List<String> STATUSES =
+            List.of("PENDING", "DEPLOYING", "FLYING", "DELIVERING", "RETURNING", "COMPLETED");
+
+    private static final int COMPLETED = STATUSES.indexOf("COMPLETED");
+
+    /**
+     * Latest state of every drone that moved since the previous frame: {@code steps} rows of
+     * {@code [missionId, stepIndex, statusCode, deliveryIndex]} in delta encoding, or full
+     * {@code drones} updates in full encoding.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record FleetFrame(long sequence, long timestamp, List<int[]> steps, List<DroneUpdate> drones) {}
+
+    /** Everything about a mission that does not change per step; {@code route} is a polyline. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RouteRegistration(int missionId, String droneId, String batchId, int deliveryId,
+                                    double totalCapacity, double capacityUsed, Integer totalDeliveries,
+                                    int precision, int steps, String route, String destinations) {}
+
+    public enum Encoding { DELTA, FULL }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Encoding encoding;
+    private final boolean legacyTopic;
+    private final Map<String, DroneUpdate> pending = new ConcurrentHashMap<>();
+    private final Map<Integer, int[]> pendingSteps = new ConcurrentHashMap<>();
+    private final Map<Integer, RouteRegistration> routes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    public TelemetryAggregator(SimpMessagingTemplate messagingTemplate,
+                               @Value("${telemetry.frame-interval:100ms}") Duration interval,
+                               @Value("${telemetry.encoding:delta}") Encoding encoding,
+                               @Value("${telemetry.legacy-topic:false}") boolean legacyTopic) {
+        this(messagingTemplate, encoding, legacyTopic);
+        long period = Math.max(1, interval.toMillis());
+        flusher.scheduleAtFixedRate(this::flushSafely, period, period, TimeUnit.MILLISECONDS);
+        logger.info("Telemetry frames every {} ms on {} ({} encoding, legacy topic: {})",
+                period, FRAME_TOPIC, encoding, legacyTopic);
+    }
+
+    /** Unscheduled aggregator; frames are only sent by explicit {@link #flush()} calls. */
+    TelemetryAggregator(SimpMessagingTemplate messagingTemplate, Encoding encoding, boolean legacyTopic) {
+        this.messagingTemplate = messagingTemplate;
+        this.encoding = encoding;
+        this.legacyTopic = legacyTopic;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "telemetry-frame");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues {@code update} for the next frame, replacing any pending state for the same drone.
+     * In delta encoding an update carrying a route registers its mission immediately.
+     */
+    public void publish(DroneUpdate update) {
+        boolean delta = encoding == Encoding.DELTA && update.getMissionId() != null;
+        if (delta) {
+            int missionId = update.getMissionId();
+            if (update.getRoute() != null) {
+                register(update);
+            }
+            int deliveryIndex = update.getCurrentDeliveryInBatch() != null ? update.getCurrentDeliveryInBatch() : 0;
+            pendingSteps.put(missionId, new int[]{missionId, update.getStepIndex() != null ? update.getStepIndex() : 0,
+                    STATUSES.indexOf(update.getStatus()), deliveryIndex});
+        }
+        if (!delta || legacyTopic) {
+            pending.merge(update.getDroneId(), update, TelemetryAggregator::supersede);
+        }
+    }
+
+    /** Sends the pending state as one frame; returns {@code false} if nothing had changed. */
+    public boolean flush() {
+        List<int[]> steps = drain(pendingSteps);
+        List<DroneUpdate> drones = drain(pending);
+        if (steps.isEmpty() && drones.isEmpty()) {
+            return false;
+        }
+
+        // Updates without a mission id cannot be delta-encoded and always go out in full
+        List<DroneUpdate> full = encoding == Encoding.FULL ? drones
+                : drones.stream().filter(update -> update.getMissionId() == null).toList();
+        if (!steps.isEmpty() || !full.isEmpty()) {
+            messagingTemplate.convertAndSend(FRAME_TOPIC, new FleetFrame(sequence.incrementAndGet(),
+                    System.currentTimeMillis(), steps.isEmpty() ? null : steps, full.isEmpty() ? null : full));
+        }
+        if (legacyTopic) {
+            drones.forEach(update -> messagingTemplate.convertAndSend(LEGACY_TOPIC, update));
+        }
+        for (int[] step : steps) {
+            if (step[2] == COMPLETED) {
+                routes.remove(step[0]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the route registration of a mission that has finished, whether it completed, failed or
+     * was cancelled, so missions that never send a {@code COMPLETED} step do not stay active.
+     */
+    public void endMission(int missionId) {
+        routes.remove(missionId);
+    }
+
+    /** Registrations of missions that have not finished yet. */
+    public List<RouteRegistration> getActiveRoutes() {
+        return List.copyOf(routes.values());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    private void register(DroneUpdate update) {
+        List<List<Double>> destinations = update.getAllDeliveryDestinations();
+        RouteRegistration registration = new RouteRegistration(update.getMissionId(), update.getDroneId(),
+                update.getBatchId(), update.getDeliveryId(), update.getTotalCapacity(), update.getCapacityUsed(),
+                update.getTotalDeliveriesInBatch(), Polyline.DEFAULT_PRECISION, update.getRoute().size(),
+                Polyline.encode(update.getRoute(), Polyline.DEFAULT_PRECISION),
+                destinations != null ? Polyline.encode(destinations, Polyline.DEFAULT_PRECISION) : null);
+        routes.put(registration.missionId(), registration);
+        messagingTemplate.convertAndSend(ROUTE_TOPIC, registration);
+    }
+
+    private static <K, V> List<V> drain(Map<K, V> map) {
+        List<V> values = new ArrayList<>(map.size());
+        for (K key : map.keySet()) {
+            V value = map.remove(key);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to send telemetry frame: {}", e.toString());
+        }
+    }
+
+    private static DroneUpdate supersede(DroneUpdate previous, DroneUpdate next) {
+        if (next.getRoute() == null && previous.getRoute() != null) {
+            next.setRoute(previous.getRoute());
+            next.setAllDeliveryDestinations(previous.getAllDeliveryDestinations());
+            next.setDeliveryLatitude(previous.getDeliveryLatitude());
+            next.setDeliveryLongitude(previous.getDeliveryLongitude());
+        }
+        return next;
+    }
+}
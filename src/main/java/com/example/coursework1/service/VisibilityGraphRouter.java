@@ -0,0 +1,444 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.PreparedPolygon;
+import com.example.coursework1.model.RestrictedAreaIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes long legs over a visibility graph instead of the move lattice.
+ *
+ * Each restricted area is offset outwards twice: its convex corners pushed out by
+ * {@link #NODE_MARGIN} become graph nodes, and a tighter copy pushed out by
+ * {@link #CLEARANCE_MARGIN} is the obstacle two nodes must see past. The node graph depends
+ * only on the areas, so it is built once per {@link RestrictedAreaIndex} version, and the
+ * graphs of the {@link #RETAINED_VERSIONS} newest versions are kept so plans pinned to the
+ * previous areas during a reload do not rebuild over the current graph. Per query
+ * only the start and goal are attached before running Dijkstra, and the resulting polyline
+ * is walked with 16-direction moves. Any stretch the walk cannot complete falls back to
+ * {@link AStarPathfinder}, so every move is still checked against the exact geometry.
+ *
+ * Planning cost therefore scales with the number of area vertices rather than leg length.
+ */
+@Service
+public class VisibilityGraphRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisibilityGraphRouter.class);
+
+    private static final double STEP = 0.00015;
+    private static final double CLOSE_THRESHOLD = 0.00015;
+    private static final double NODE_MARGIN = 2 * STEP;
+    private static final double CLEARANCE_MARGIN = STEP;
+    // Limits how far a sharp corner's miter may reach, in multiples of the margin.
+    private static final double MITER_LIMIT = 4.0;
+    private static final double WAYPOINT_TOLERANCE = STEP;
+    private static final int DIRECTIONS = 16;
+    private static final double ANGLE_INCREMENT = 360.0 / DIRECTIONS;
+    private static final int RETAINED_VERSIONS = 2;
+
+    private final RestrictedAreaService restrictedAreaService;
+    private final AStarPathfinder pathfinder;
+
+    private final Map<Long, Graph> graphs = new ConcurrentHashMap<>();
+    private final LongAdder graphBuilds = new LongAdder();
+
+    public VisibilityGraphRouter(RestrictedAreaService restrictedAreaService,
+                                 AStarPathfinder pathfinder) {
+        this.restrictedAreaService = restrictedAreaService;
+        this.pathfinder = pathfinder;
+    }
+
+    /**
+     * Finds a sequence of legal moves from {@code from} to a point closer than
+     * {@link #CLOSE_THRESHOLD} to {@code to}.
+     *
+     * @return the visited points including the start, or {@code null} if the graph has no
+     *         route and the fallback search also failed
+     */
+    public List<LngLat> findPath(Position from, Position to) {
+        return findPath(from, to, restrictedAreaService.getAreaIndex());
+    }
+
+    /** Same as {@link #findPath(Position, Position)} against the given restricted areas. */
+    public List<LngLat> findPath(Position from, Position to, RestrictedAreaIndex areas) {
+        if (from == null || to == null) {
+            logger.error("Null position in findPath: from={}, to={}", from, to);
+            return null;
+        }
+
+        Graph current = graphFor(areas);
+        double[] waypoints = current.route(from.getLng(), from.getLat(), to.getLng(), to.getLat());
+        if (waypoints == null) {
+            logger.debug("Visibility graph has no route from {} to {}", from, to);
+            return null;
+        }
+
+        return discretise(current.areas, waypoints);
+    }
+
+    private Graph graphFor(RestrictedAreaIndex index) {
+        Graph current = graphs.get(index.getVersion());
+        if (current != null) {
+            return current;
+        }
+
+        current = graphs.computeIfAbsent(index.getVersion(), version -> {
+            long started = System.nanoTime();
+            Graph built = new Graph(index);
+            graphBuilds.increment();
+            logger.info("Built visibility graph with {} nodes for area version {} in {} ms",
+                    built.nodeCount, version, (System.nanoTime() - started) / 1_000_000);
+            return built;
+        });
+        // Versions only increase, so the smallest keys belong to the oldest areas
+        while (graphs.size() > RETAINED_VERSIONS) {
+            graphs.keySet().stream().min(Long::compare).ifPresent(graphs::remove);
+        }
+        return current;
+    }
+
+    long getGraphBuildCount() {
+        return graphBuilds.sum();
+    }
+
+    /**
+     * Walks the waypoint polyline with single compass moves, turning towards the next
+     * waypoint once within {@link #WAYPOINT_TOLERANCE} of the current one.
+     */
+    private List<LngLat> discretise(RestrictedAreaIndex areas, double[] waypoints) {
+        List<LngLat> path = new ArrayList<>();
+        double cx = waypoints[0], cy = waypoints[1];
+        path.add(new LngLat(cx, cy));
+
+        int last = waypoints.length / 2 - 1;
+        for (int w = 1; w <= last; w++) {
+            double wx = waypoints[2 * w], wy = waypoints[2 * w + 1];
+            double tolerance = w == last ? CLOSE_THRESHOLD : WAYPOINT_TOLERANCE;
+            int budget = (int) Math.ceil(2 * Math.hypot(wx - cx, wy - cy) / STEP) + 16;
+
+            while (Math.hypot(wx - cx, wy - cy) >= tolerance) {
+                int dir = budget-- > 0 ? bestLegalDirection(areas, cx, cy, wx, wy) : -1;
+                if (dir < 0) {
+                    List<LngLat> detour = pathfinder.findPath(new Position(cx, cy), new Position(wx, wy), areas);
+                    if (detour == null) {
+                        return null;
+                    }
+                    path.addAll(detour.subList(1, detour.size()));
+                    LngLat end = detour.get(detour.size() - 1);
+                    cx = end.getLng();
+                    cy = end.getLat();
+                    break;
+                }
+                double rad = Math.toRadians(dir * ANGLE_INCREMENT);
+                cx += STEP * Math.cos(rad);
+                cy += STEP * Math.sin(rad);
+                path.add(new LngLat(cx, cy));
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Legal compass direction closest to the bearing that still brings the drone nearer the
+     * waypoint, or -1 when none of the three nearest directions on either side qualifies.
+     */
+    private int bestLegalDirection(RestrictedAreaIndex areas, double cx, double cy, double wx, double wy) {
+        double bearing = Math.toDegrees(Math.atan2(wy - cy, wx - cx));
+        int nearest = Math.floorMod((int) Math.round(bearing / ANGLE_INCREMENT), DIRECTIONS);
+        double distance = Math.hypot(wx - cx, wy - cy);
+
+        for (int offset = 0; offset <= 3; offset++) {
+            for (int sign : offset == 0 ? new int[]{1} : new int[]{1, -1}) {
+                int dir = Math.floorMod(nearest + sign * offset, DIRECTIONS);
+                double rad = Math.toRadians(dir * ANGLE_INCREMENT);
+                double nx = cx + STEP * Math.cos(rad);
+                double ny = cy + STEP * Math.sin(rad);
+                if (Math.hypot(wx - nx, wy - ny) < distance
+                        && !restrictedAreaService.segmentCrossesRestrictedArea(areas, cx, cy, nx, ny)) {
+                    return dir;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** Immutable visibility graph over the offset corners of one set of restricted areas. */
+    private static final class Graph {
+
+        final int nodeCount;
+        final double[] xs, ys;
+        final int[][] neighbours;
+        final PreparedPolygon[] obstacles;
+        final RestrictedAreaIndex areas;
+
+        Graph(RestrictedAreaIndex areas) {
+            this.areas = areas;
+
+            List<PreparedPolygon> inflated = new ArrayList<>();
+            List<double[]> corners = new ArrayList<>();
+            for (int i = 0; i < areas.size(); i++) {
+                double[][] ring = ring(areas.getArea(i).getVertices());
+                if (ring == null) {
+                    continue;
+                }
+                inflated.add(PreparedPolygon.of(toPositions(offset(ring, CLEARANCE_MARGIN, false))));
+                double[][] nodes = offset(ring, NODE_MARGIN, true);
+                corners.addAll(Arrays.asList(nodes));
+            }
+            obstacles = inflated.toArray(new PreparedPolygon[0]);
+
+            List<double[]> usable = new ArrayList<>();
+            for (double[] c : corners) {
+                if (!insideAnyObstacle(c[0], c[1])) {
+                    usable.add(c);
+                }
+            }
+
+            nodeCount = usable.size();
+            xs = new double[nodeCount];
+            ys = new double[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                xs[i] = usable.get(i)[0];
+                ys[i] = usable.get(i)[1];
+            }
+
+            List<List<Integer>> edges = new ArrayList<>();
+            for (int i = 0; i < nodeCount; i++) {
+                edges.add(new ArrayList<>());
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                for (int j = i + 1; j < nodeCount; j++) {
+                    if (clearOfObstacles(xs[i], ys[i], xs[j], ys[j])) {
+                        edges.get(i).add(j);
+                        edges.get(j).add(i);
+                    }
+                }
+            }
+            neighbours = new int[nodeCount][];
+            for (int i = 0; i < nodeCount; i++) {
+                neighbours[i] = edges.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        /**
+         * Shortest polyline from start to goal as interleaved x/y pairs, or null if the goal
+         * cannot be reached through the graph.
+         */
+        double[] route(double sx, double sy, double tx, double ty) {
+            if (clearOfAreas(sx, sy, tx, ty)) {
+                return new double[]{sx, sy, tx, ty};
+            }
+
+            // Node ids: 0..n-1 corners, n start, n+1 goal
+            int n = nodeCount;
+            int start = n, goal = n + 1;
+            double[] px = Arrays.copyOf(xs, n + 2);
+            double[] py = Arrays.copyOf(ys, n + 2);
+            px[start] = sx;
+            py[start] = sy;
+            px[goal] = tx;
+            py[goal] = ty;
+
+            boolean[] fromStart = new boolean[n];
+            boolean[] toGoal = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                fromStart[i] = clearOfAreas(sx, sy, xs[i], ys[i]);
+                toGoal[i] = clearOfAreas(xs[i], ys[i], tx, ty);
+            }
+
+            double[] dist = new double[n + 2];
+            int[] parent = new int[n + 2];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(parent, -1);
+            dist[start] = 0;
+
+            PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            queue.add(new double[]{0, start});
+            while (!queue.isEmpty()) {
+                double[] entry = queue.poll();
+                int u = (int) entry[1];
+                if (entry[0] > dist[u]) {
+                    continue;
+                }
+                if (u == goal) {
+                    break;
+                }
+
+                if (u == start) {
+                    for (int v = 0; v < n; v++) {
+                        if (fromStart[v]) relax(u, v, px, py, dist, parent, queue);
+                    }
+                } else {
+                    for (int v : neighbours[u]) {
+                        relax(u, v, px, py, dist, parent, queue);
+                    }
+                    if (toGoal[u]) {
+                        relax(u, goal, px, py, dist, parent, queue);
+                    }
+                }
+            }
+
+            if (parent[goal] < 0) {
+                return null;
+            }
+
+            List<Integer> order = new ArrayList<>();
+            for (int v = goal; v != -1; v = parent[v]) {
+                order.add(v);
+            }
+            double[] waypoints = new double[order.size() * 2];
+            for (int k = 0; k < order.size(); k++) {
+                int v = order.get(order.size() - 1 - k);
+                waypoints[2 * k] = px[v];
+                waypoints[2 * k + 1] = py[v];
+            }
+            return waypoints;
+        }
+
+        private static void relax(int u, int v, double[] px, double[] py, double[] dist,
+                                  int[] parent, PriorityQueue<double[]> queue) {
+            double candidate = dist[u] + Math.hypot(px[v] - px[u], py[v] - py[u]);
+            if (candidate < dist[v]) {
+                dist[v] = candidate;
+                parent[v] = u;
+                queue.add(new double[]{candidate, v});
+            }
+        }
+
+        /** Corner-to-corner sight line: must pass clear of every clearance polygon. */
+        private boolean clearOfObstacles(double x1, double y1, double x2, double y2) {
+            double lx = Math.min(x1, x2), hx = Math.max(x1, x2);
+            double ly = Math.min(y1, y2), hy = Math.max(y1, y2);
+            for (PreparedPolygon obstacle : obstacles) {
+                if (obstacle.boundsOverlap(lx, ly, hx, hy) && obstacle.intersectsSegment(x1, y1, x2, y2)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Sight lines from the start or to the goal only have to avoid the areas themselves,
+         * since either endpoint may sit closer than the clearance margin.
+         */
+        private boolean clearOfAreas(double x1, double y1, double x2, double y2) {
+            RestrictedAreaIndex.Candidates candidates = areas.segmentCandidates(x1, y1, x2, y2);
+            for (int k = 0; k < candidates.size(); k++) {
+                if (areas.getPolygon(candidates.get(k)).intersectsSegment(x1, y1, x2, y2)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean insideAnyObstacle(double x, double y) {
+            for (PreparedPolygon obstacle : obstacles) {
+                if (obstacle.contains(x, y)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Distinct vertices of a closed area in counter-clockwise order, or null if unusable. */
+        private static double[][] ring(List<Position> vertices) {
+            if (vertices == null || vertices.size() < 4) {
+                return null;
+            }
+            List<double[]> points = new ArrayList<>();
+            for (int i = 0; i < vertices.size() - 1; i++) {
+                Position v = vertices.get(i);
+                if (v == null || v.getLng() == null || v.getLat() == null) {
+                    return null;
+                }
+                double[] p = {v.getLng(), v.getLat()};
+                if (points.isEmpty() || !Arrays.equals(points.get(points.size() - 1), p)) {
+                    points.add(p);
+                }
+            }
+            if (points.size() > 1 && Arrays.equals(points.get(0), points.get(points.size() - 1))) {
+                points.remove(points.size() - 1);
+            }
+            if (points.size() < 3) {
+                return null;
+            }
+
+            double area = 0;
+            for (int i = 0; i < points.size(); i++) {
+                double[] a = points.get(i), b = points.get((i + 1) % points.size());
+                area += a[0] * b[1] - b[0] * a[1];
+            }
+            if (area < 0) {
+                Collections.reverse(points);
+            }
+            return points.toArray(new double[0][]);
+        }
+
+        /**
+         * Miter offset of a counter-clockwise ring. With {@code convexOnly} only the offset
+         * convex corners are returned, which are the only useful graph nodes.
+         */
+        private static double[][] offset(double[][] ring, double margin, boolean convexOnly) {
+            int n = ring.length;
+            List<double[]> result = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                double[] prev = ring[(i + n - 1) % n], v = ring[i], next = ring[(i + 1) % n];
+
+                double e1x = v[0] - prev[0], e1y = v[1] - prev[1];
+                double e2x = next[0] - v[0], e2y = next[1] - v[1];
+                double l1 = Math.hypot(e1x, e1y), l2 = Math.hypot(e2x, e2y);
+
+                // Outward normals of a counter-clockwise ring point to the right of each edge
+                double n1x = e1y / l1, n1y = -e1x / l1;
+                double n2x = e2y / l2, n2y = -e2x / l2;
+
+                boolean convex = e1x * e2y - e1y * e2x > 0;
+                if (convexOnly && !convex) {
+                    continue;
+                }
+
+                double denominator = 1 + n1x * n2x + n1y * n2y;
+                double mx, my;
+                if (denominator < 1e-9) {
+                    mx = n1x * MITER_LIMIT;
+                    my = n1y * MITER_LIMIT;
+                } else {
+                    mx = (n1x + n2x) / denominator;
+                    my = (n1y + n2y) / denominator;
+                    double length = Math.hypot(mx, my);
+                    if (length > MITER_LIMIT) {
+                        mx *= MITER_LIMIT / length;
+                        my *= MITER_LIMIT / length;
+                    }
+                }
+
+                result.add(new double[]{v[0] + margin * mx, v[1] + margin * my});
+            }
+            return result.toArray(new double[0][]);
+        }
+
+        private static List<Position> toPositions(double[][] ring) {
+            List<Position> positions = new ArrayList<>(ring.length + 1);
+            for (double[] p : ring) {
+                positions.add(new Position(p[0], p[1]));
+            }
+            if (ring.length > 0) {
+                positions.add(new Position(ring[0][0], ring[0][1]));
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.coursework1.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual DroppingSubProtocolWebSocketHandler production class
+ *
+ * Requirement: PR4 (slow telemetry clients must not block or lose their session)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: DroppingSubProtocolWebSocketHandler Production Class")
+class DroppingSubProtocolWebSocketHandlerTest {
+
+    private static final int BUFFER_LIMIT = 1024;
+
+    @Mock
+    private MessageChannel clientInboundChannel;
+    @Mock
+    private SubscribableChannel clientOutboundChannel;
+    @Mock
+    private WebSocketSession slowSession;
+
+    @Test
+    @DisplayName("A slow session loses its oldest frames instead of being closed")
+    void testSlowSessionDropsFrames() throws Exception {
+        // Arrange - the first send blocks until released, as on a stalled client
+        DroppingSubProtocolWebSocketHandler handler =
+                new DroppingSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel);
+        handler.setSendTimeLimit(60_000);
+        handler.setSendBufferSizeLimit(BUFFER_LIMIT);
+
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            delivered.incrementAndGet();
+            return null;
+        }).when(slowSession).sendMessage(any());
+
+        ConcurrentWebSocketSessionDecorator session =
+                (ConcurrentWebSocketSessionDecorator) handler.decorateSession(slowSession);
+        Thread stalled = new Thread(() -> {
+            try {
+                session.sendMessage(new TextMessage("first"));
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        stalled.start();
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        // Act - 50 frames of 100 bytes against a 1 KB buffer
+        String frame = "x".repeat(100);
+        for (int i = 0; i < 50; i++) {
+            session.sendMessage(new TextMessage(frame));
+        }
+        int buffered = session.getBufferSize();
+        release.countDown();
+        stalled.join(5_000);
+
+        // Assert
+        assertEquals(ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP, session.getOverflowStrategy());
+        assertTrue(buffered <= BUFFER_LIMIT, "Buffer held " + buffered + " bytes");
+        assertTrue(delivered.get() < 51, "Some frames should have been dropped");
+        assertTrue(delivered.get() > 1, "Frames still buffered should be sent once the client catches up");
+        verify(slowSession, never()).close(any());
+    }
+}
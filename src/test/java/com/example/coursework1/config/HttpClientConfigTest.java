@@ -0,0 +1,53 @@
+package com.example.coursework1.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UNIT TEST: Tests actual HttpClientConfig production class
+ *
+ * Requirement: PR2 (ILP connection reuse and timeouts)
+ */
+@DisplayName("UNIT: HttpClientConfig Production Class")
+class HttpClientConfigTest {
+
+    // Durations like "2s" are converted as SpringApplication would
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(HttpClientConfig.class);
+
+    @Test
+    @DisplayName("By default ILP calls go through the pooled Apache client")
+    void testPooledClientByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(PoolingHttpClientConnectionManager.class);
+            assertThat(context).hasSingleBean(CloseableHttpClient.class);
+            assertThat(context).hasSingleBean(MeterBinder.class);
+            assertThat(context.getBean(RestTemplate.class).getRequestFactory())
+                    .isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        });
+    }
+
+    @Test
+    @DisplayName("With HTTP/2 enabled no Apache pool or pool metrics are created")
+    void testHttp2SkipsApachePool() {
+        contextRunner.withPropertyValues("ilp.http.http2=true").run(context -> {
+            assertThat(context).doesNotHaveBean(PoolingHttpClientConnectionManager.class);
+            assertThat(context).doesNotHaveBean(CloseableHttpClient.class);
+            assertThat(context).doesNotHaveBean(MeterBinder.class);
+            assertThat(context.getBean(RestTemplate.class).getRequestFactory())
+                    .isInstanceOf(JdkClientHttpRequestFactory.class);
+        });
+    }
+}
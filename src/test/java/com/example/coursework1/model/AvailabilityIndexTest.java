@@ -0,0 +1,110 @@
+package com.example.coursework1.model;
+
+import com.example.coursework1.dto.DroneWithAvailability;
+import com.example.coursework1.dto.ServicePointDrones;
+import com.example.coursework1.dto.TimeWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual AvailabilityIndex production class
+ *
+ * Requirement: FR3 - Drone availability must match the published time windows
+ */
+@DisplayName("UNIT: AvailabilityIndex Production Class")
+class AvailabilityIndexTest {
+
+    // 2025-12-22 is a Monday
+    private static final String MONDAY = "2025-12-22";
+    private static final String TUESDAY = "2025-12-23";
+
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = AvailabilityIndex.build(List.of(
+                servicePoint(
+                        drone("1", window("MONDAY", "09:00:00", "17:00:00")),
+                        drone("2", window("Tuesday", "00:00", "23:59:59"), window("SUNDAY", "22:00", "23:59:59")),
+                        drone("3")),
+                servicePoint(
+                        drone("4", window("MONDAY", "17:00", "09:00"), window("FUNDAY", "09:00", "17:00")))
+        ));
+    }
+
+    @Test
+    @DisplayName("Window bounds are inclusive")
+    void testWindowBoundsInclusive() {
+        assertTrue(index.isAvailable("1", AvailabilityIndex.slotOf(MONDAY, "09:00")));
+        assertTrue(index.isAvailable("1", AvailabilityIndex.slotOf(MONDAY, "17:00:00")));
+        assertFalse(index.isAvailable("1", AvailabilityIndex.slotOf(MONDAY, "08:59")));
+        assertFalse(index.isAvailable("1", AvailabilityIndex.slotOf(MONDAY, "17:01")));
+        assertFalse(index.isAvailable("1", AvailabilityIndex.slotOf(TUESDAY, "12:00")));
+    }
+
+    @Test
+    @DisplayName("Day names are case-insensitive and week wraps at Sunday")
+    void testDayNamesAndWeekEnd() {
+        assertTrue(index.isAvailable("2", AvailabilityIndex.slotOf(TUESDAY, "0:00")));
+        assertTrue(index.isAvailable("2", AvailabilityIndex.slotOf("2025-12-28", "23:59")));
+        assertFalse(index.isAvailable("2", AvailabilityIndex.slotOf(MONDAY, "23:59")));
+        assertEquals(AvailabilityIndex.SLOTS - 1, AvailabilityIndex.slotOf("2025-12-28", "23:59:30"));
+    }
+
+    @Test
+    @DisplayName("Drones without windows are unconstrained")
+    void testUnconstrainedDrones() {
+        int slot = AvailabilityIndex.slotOf(MONDAY, "03:00");
+
+        assertTrue(index.isAvailable("3", slot), "Empty window list means no restriction");
+        assertTrue(index.isAvailable("unknown", slot), "Unlisted drone means no restriction");
+        assertFalse(index.isConstrained("3"));
+        assertTrue(index.isConstrained("1"));
+    }
+
+    @Test
+    @DisplayName("Invalid windows contribute nothing")
+    void testInvalidWindows() {
+        // Reversed times and unknown day names never matched before either
+        assertTrue(index.isConstrained("4"));
+        assertFalse(index.isAvailable("4", AvailabilityIndex.slotOf(MONDAY, "18:00")));
+        assertFalse(index.isAvailable("4", AvailabilityIndex.slotOf(MONDAY, "08:00")));
+    }
+
+    @Test
+    @DisplayName("Missing or unparseable dispatch times give the unknown slot")
+    void testUnknownSlot() {
+        assertEquals(AvailabilityIndex.UNKNOWN_SLOT, AvailabilityIndex.slotOf(null, "09:00"));
+        assertEquals(AvailabilityIndex.UNKNOWN_SLOT, AvailabilityIndex.slotOf(MONDAY, null));
+        assertEquals(AvailabilityIndex.UNKNOWN_SLOT, AvailabilityIndex.slotOf("22/12/2025", "09:00"));
+        assertEquals(AvailabilityIndex.UNKNOWN_SLOT, AvailabilityIndex.slotOf(MONDAY, "nine"));
+        assertTrue(index.isAvailable("1", AvailabilityIndex.UNKNOWN_SLOT));
+    }
+
+    private static ServicePointDrones servicePoint(DroneWithAvailability... drones) {
+        ServicePointDrones sp = new ServicePointDrones();
+        sp.setServicePointId(1);
+        sp.setDrones(List.of(drones));
+        return sp;
+    }
+
+    private static DroneWithAvailability drone(String id, TimeWindow... windows) {
+        DroneWithAvailability drone = new DroneWithAvailability();
+        drone.setId(id);
+        drone.setAvailability(List.of(windows));
+        return drone;
+    }
+
+    private static TimeWindow window(String day, String from, String until) {
+        TimeWindow window = new TimeWindow();
+        window.setDayOfWeek(day);
+        window.setFrom(from);
+        window.setUntil(until);
+        return window;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.coursework1.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual OccupancyRaster production class
+ *
+ * Requirement: SR1 - No-Fly Zone Compliance (raster answers must agree with exact geometry)
+ */
+@DisplayName("UNIT: OccupancyRaster Production Class")
+class OccupancyRasterTest {
+
+    private static final double STEP = 0.00015;
+
+    private PreparedPolygon georgeSquare;
+    private PreparedPolygon triangle;
+    private OccupancyRaster raster;
+
+    @BeforeEach
+    void setUp() {
+        // George Square (approximate boundaries) plus a diagonal-edged triangle to the east
+        georgeSquare = PreparedPolygon.of(Arrays.asList(
+                new Position(-3.1895, 55.9435),
+                new Position(-3.1875, 55.9435),
+                new Position(-3.1875, 55.9455),
+                new Position(-3.1895, 55.9455),
+                new Position(-3.1895, 55.9435)
+        ));
+        triangle = PreparedPolygon.of(Arrays.asList(
+                new Position(-3.1860, 55.9430),
+                new Position(-3.1820, 55.9440),
+                new Position(-3.1845, 55.9470),
+                new Position(-3.1860, 55.9430)
+        ));
+        raster = OccupancyRaster.build(new PreparedPolygon[]{georgeSquare, triangle});
+    }
+
+    @Test
+    @DisplayName("Centre of George Square is blocked without exact geometry")
+    void testInteriorBlocked() {
+        assertEquals(OccupancyRaster.BLOCKED, raster.classifyPoint(-3.1885, 55.9445));
+        assertEquals(OccupancyRaster.BLOCKED,
+                raster.classifySegment(-3.1885, 55.9445, -3.1885 + STEP, 55.9445));
+    }
+
+    @Test
+    @DisplayName("Open space well away from every zone is clear")
+    void testOpenSpaceClear() {
+        assertEquals(OccupancyRaster.CLEAR, raster.classifyPoint(-3.1700, 55.9300));
+        assertEquals(OccupancyRaster.CLEAR,
+                raster.classifySegment(-3.1885, 55.9470, -3.1885 + STEP, 55.9470));
+    }
+
+    @Test
+    @DisplayName("Points on an edge fall through to the exact test")
+    void testBoundaryUnknown() {
+        assertEquals(OccupancyRaster.UNKNOWN, raster.classifyPoint(-3.1895, 55.9445));
+        assertEquals(OccupancyRaster.UNKNOWN, raster.classifyPoint(-3.1840, 55.9435));
+    }
+
+    @Test
+    @DisplayName("Empty raster reports everything clear")
+    void testEmptyRaster() {
+        OccupancyRaster empty = OccupancyRaster.build(new PreparedPolygon[0]);
+
+        assertEquals(OccupancyRaster.CLEAR, empty.classifyPoint(0, 0));
+        assertEquals(OccupancyRaster.CLEAR, empty.classifySegment(0, 0, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Raster never contradicts the exact segment test")
+    void testAgreesWithExactGeometry() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            double x = -3.1910 + random.nextDouble() * 0.0100;
+            double y = 55.9420 + random.nextDouble() * 0.0060;
+            double angle = Math.toRadians(22.5 * random.nextInt(16));
+            double nx = x + STEP * Math.cos(angle);
+            double ny = y + STEP * Math.sin(angle);
+
+            boolean exact = georgeSquare.intersectsSegment(x, y, nx, ny)
+                    || triangle.intersectsSegment(x, y, nx, ny);
+            int cells = raster.classifySegment(x, y, nx, ny);
+
+            if (cells == OccupancyRaster.CLEAR) {
+                assertFalse(exact, "Raster said clear but segment is blocked at " + x + "," + y);
+            } else if (cells == OccupancyRaster.BLOCKED) {
+                assertTrue(exact, "Raster said blocked but segment is clear at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.coursework1.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual PreparedPolygon production class
+ *
+ * Requirement: SR1 - No-Fly Zone Compliance
+ */
+@DisplayName("UNIT: PreparedPolygon Production Class")
+class PreparedPolygonTest {
+
+    private PreparedPolygon georgeSquare;
+
+    @BeforeEach
+    void setUp() {
+        // George Square (approximate boundaries)
+        georgeSquare = PreparedPolygon.of(Arrays.asList(
+                new Position(-3.1895, 55.9435),
+                new Position(-3.1875, 55.9435),
+                new Position(-3.1875, 55.9455),
+                new Position(-3.1895, 55.9455),
+                new Position(-3.1895, 55.9435)
+        ));
+    }
+
+    @Test
+    @DisplayName("Closed square is validated and bounded")
+    void testPreparedState() {
+        assertTrue(georgeSquare.isClosed());
+        assertEquals(5, georgeSquare.vertexCount());
+        assertEquals(-3.1895, georgeSquare.getMinX(), 1e-12);
+        assertEquals(55.9455, georgeSquare.getMaxY(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Centre is inside, outside point is not, boundary counts as inside")
+    void testContains() {
+        assertTrue(georgeSquare.contains(-3.1885, 55.9445));
+        assertFalse(georgeSquare.contains(-3.1865, 55.9445));
+        assertTrue(georgeSquare.contains(-3.1895, 55.9445));
+        assertTrue(georgeSquare.contains(-3.1875, 55.9455));
+    }
+
+    @Test
+    @DisplayName("Boundary tolerance is the absolute cross-product bound of RegionService")
+    void testBoundaryTolerance() {
+        // West edge is 0.002 degrees long, so the cross-product bound is ~5e-10 degrees from it
+        assertTrue(georgeSquare.contains(-3.1895 - 3e-10, 55.9445));
+        assertFalse(georgeSquare.contains(-3.1895 - 1e-8, 55.9445));
+        assertFalse(georgeSquare.contains(-3.1895, 55.9455 + 1e-8));
+    }
+
+    @Test
+    @DisplayName("Segment through the square intersects, segment beside it does not")
+    void testIntersectsSegment() {
+        assertTrue(georgeSquare.intersectsSegment(-3.1905, 55.9445, -3.1865, 55.9445));
+        assertFalse(georgeSquare.intersectsSegment(-3.1905, 55.9465, -3.1865, 55.9465));
+    }
+
+    @Test
+    @DisplayName("Segment wholly inside intersects even though it crosses no edge")
+    void testSegmentWhollyInside() {
+        assertTrue(georgeSquare.intersectsSegment(-3.1890, 55.9440, -3.1880, 55.9450));
+        assertFalse(georgeSquare.crossesBoundary(-3.1890, 55.9440, -3.1880, 55.9450));
+    }
+
+    @Test
+    @DisplayName("Touching a corner or sliding along an edge counts as intersecting")
+    void testTouchingBoundary() {
+        assertTrue(georgeSquare.intersectsSegment(-3.1905, 55.9425, -3.1895, 55.9435));
+        assertTrue(georgeSquare.intersectsSegment(-3.1900, 55.9455, -3.1870, 55.9455));
+        assertFalse(georgeSquare.intersectsSegment(-3.1900, 55.94551, -3.1870, 55.94551));
+    }
+
+    @Test
+    @DisplayName("Segment across the notch of a concave polygon is clear")
+    void testConcaveNotch() {
+        // U shape opening north: notch spans x in (1, 2), y in (1, 3)
+        PreparedPolygon u = PreparedPolygon.of(Arrays.asList(
+                new Position(0.0, 0.0), new Position(3.0, 0.0), new Position(3.0, 3.0),
+                new Position(2.0, 3.0), new Position(2.0, 1.0), new Position(1.0, 1.0),
+                new Position(1.0, 3.0), new Position(0.0, 3.0), new Position(0.0, 0.0)
+        ));
+
+        assertFalse(u.intersectsSegment(1.5, 1.5, 1.5, 4.0));
+        assertTrue(u.intersectsSegment(1.5, 2.0, 2.5, 2.0));
+    }
+
+    @Test
+    @DisplayName("Unclosed polygon never contains a point")
+    void testUnclosedPolygon() {
+        PreparedPolygon open = PreparedPolygon.of(Arrays.asList(
+                new Position(-3.1895, 55.9435),
+                new Position(-3.1875, 55.9435),
+                new Position(-3.1875, 55.9455),
+                new Position(-3.1895, 55.9455)
+        ));
+
+        assertFalse(open.isClosed());
+        assertFalse(open.contains(-3.1885, 55.9445));
+    }
+
+    @Test
+    @DisplayName("Null list or missing coordinate yields empty polygon")
+    void testEmptyPolygons() {
+        List<Position> withGap = new ArrayList<>(List.of(new Position(-3.1895, 55.9435)));
+        withGap.add(new Position(null, 55.9445));
+
+        assertTrue(PreparedPolygon.of(null).isEmpty());
+        assertTrue(PreparedPolygon.of(withGap).isEmpty());
+        assertFalse(PreparedPolygon.of(withGap).intersectsSegment(-3.19, 55.94, -3.18, 55.95));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.coursework1.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual RestrictedAreaIndex production class
+ *
+ * Requirement: SR1 - No-Fly Zone Compliance (bounding-box prefilter must never drop a
+ * polygon that could touch the query)
+ */
+@DisplayName("UNIT: RestrictedAreaIndex Production Class")
+class RestrictedAreaIndexTest {
+
+    private RestrictedAreaIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // George Square and Bristo Square (approximate boundaries)
+        List<RestrictedArea> areas = List.of(
+                square("George Square", -3.1895, 55.9435, -3.1875, 55.9455),
+                square("Bristo Square", -3.1910, 55.9460, -3.1890, 55.9480)
+        );
+        index = RestrictedAreaIndex.build(areas);
+    }
+
+    @Test
+    @DisplayName("Point inside a box returns only that area")
+    void testPointCandidates() {
+        int[] candidates = index.candidatesAt(-3.1885, 55.9445);
+
+        assertEquals(1, candidates.length);
+        assertEquals("George Square", index.getArea(candidates[0]).getName());
+    }
+
+    @Test
+    @DisplayName("Point on a box corner is still a candidate")
+    void testPointOnCorner() {
+        assertEquals(1, index.candidatesAt(-3.1895, 55.9435).length);
+    }
+
+    @Test
+    @DisplayName("Point far from all zones has no candidates")
+    void testPointFarAway() {
+        assertEquals(0, index.candidatesAt(-3.1000, 55.9000).length);
+    }
+
+    @Test
+    @DisplayName("Segment spanning both boxes returns both areas in source order")
+    void testSegmentSpanningBothAreas() {
+        int[] candidates = index.candidatesForSegment(-3.1905, 55.9470, -3.1880, 55.9440);
+
+        assertEquals(2, candidates.length);
+        assertEquals("George Square", index.getArea(candidates[0]).getName());
+        assertEquals("Bristo Square", index.getArea(candidates[1]).getName());
+    }
+
+    @Test
+    @DisplayName("Reused per-thread candidates list each area once, in source order, on every query")
+    void testSegmentCandidatesReused() {
+        // Arrange - a long diagonal crosses many cells of both boxes
+        RestrictedAreaIndex.Candidates first = index.segmentCandidates(-3.1905, 55.9470, -3.1880, 55.9440);
+        int firstSize = first.size();
+        int firstId = first.get(0);
+
+        // Act
+        RestrictedAreaIndex.Candidates second = index.segmentCandidates(-3.1905, 55.9470, -3.1880, 55.9440);
+        RestrictedAreaIndex.Candidates none = index.segmentCandidates(-3.1870, 55.9458, -3.18685, 55.9458);
+
+        // Assert
+        assertSame(first, second, "The buffer is reused rather than allocated per query");
+        assertEquals(2, firstSize);
+        assertEquals("George Square", index.getArea(firstId).getName());
+        assertEquals(0, none.size());
+    }
+
+    @Test
+    @DisplayName("Short step between the zones has no candidates")
+    void testShortStepBetweenZones() {
+        assertEquals(0, index.candidatesForSegment(-3.1870, 55.9458, -3.18685, 55.9458).length);
+    }
+
+    @Test
+    @DisplayName("Areas with null or empty vertices are skipped")
+    void testUnusableAreasSkipped() {
+        RestrictedArea empty = new RestrictedArea();
+        empty.setName("Empty");
+        empty.setVertices(new ArrayList<>());
+        RestrictedArea missing = new RestrictedArea();
+        missing.setName("Missing");
+
+        RestrictedAreaIndex sparse = RestrictedAreaIndex.build(List.of(empty, missing));
+
+        assertEquals(0, sparse.size());
+        assertEquals(0, sparse.candidatesAt(0, 0).length);
+    }
+
+    @Test
+    @DisplayName("Index remembers the list it was built from")
+    void testSourceIdentity() {
+        List<RestrictedArea> areas = List.of(square("A", 0, 0, 1, 1));
+
+        assertSame(areas, RestrictedAreaIndex.build(areas).getSource());
+    }
+
+    private static RestrictedArea square(String name, double x1, double y1, double x2, double y2) {
+        RestrictedArea area = new RestrictedArea();
+        area.setName(name);
+        area.setVertices(List.of(
+                new Position(x1, y1),
+                new Position(x2, y1),
+                new Position(x2, y2),
+                new Position(x1, y2),
+                new Position(x1, y1)
+        ));
+        return area;
+    }
+}
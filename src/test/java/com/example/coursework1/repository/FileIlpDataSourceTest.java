@@ -0,0 +1,72 @@
+package com.example.coursework1.repository;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.ServicePointDrones;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedArea;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual FileIlpDataSource production class
+ *
+ * Requirement: PR3 (reproducible offline load tests)
+ */
+@DisplayName("UNIT: FileIlpDataSource Production Class")
+class FileIlpDataSourceTest {
+
+    private FileIlpDataSource source;
+
+    @BeforeEach
+    void setUp() {
+        source = new FileIlpDataSource(new DefaultResourceLoader(), new ObjectMapper(),
+                "classpath:ilp-fixtures");
+    }
+
+    @Test
+    @DisplayName("Bundled fixtures parse into the ILP DTOs")
+    void testFixturesParse() {
+        // Act
+        List<Drone> drones = source.get("drones", new TypeReference<List<Drone>>() {});
+        List<ServicePointDrones> availability =
+                source.get("drones-for-service-points", new TypeReference<List<ServicePointDrones>>() {});
+        List<RestrictedArea> areas = source.get("restricted-areas", new TypeReference<List<RestrictedArea>>() {});
+
+        // Assert
+        assertFalse(drones.isEmpty());
+        assertTrue(drones.stream().allMatch(d -> d.getId() != null && d.getCapability() != null));
+        assertFalse(availability.isEmpty());
+        for (RestrictedArea area : areas) {
+            List<Position> vertices = area.getVertices();
+            assertEquals(vertices.get(0).getLng(), vertices.get(vertices.size() - 1).getLng(), area.getName());
+            assertEquals(vertices.get(0).getLat(), vertices.get(vertices.size() - 1).getLat(), area.getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Unchanged fixture returns the same parsed instance")
+    void testUnchangedFixtureReused() {
+        // Act
+        Object first = source.get("service-points", new TypeReference<List<Object>>() {});
+        Object second = source.get("service-points", new TypeReference<List<Object>>() {});
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Missing fixture fails loudly")
+    void testMissingFixture() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> source.get("no-such-dataset", new TypeReference<List<Object>>() {}));
+    }
+}
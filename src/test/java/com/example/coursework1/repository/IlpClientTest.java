@@ -0,0 +1,140 @@
+package com.example.coursework1.repository;
+
+import com.example.coursework1.dto.ServicePoint;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * UNIT TEST: Tests actual IlpClient production class
+ *
+ * Requirement: PR2 (ILP bandwidth and parse cost on refresh)
+ */
+@DisplayName("UNIT: IlpClient Production Class")
+class IlpClientTest {
+
+    private static final String ENDPOINT = "http://ilp.test/";
+    private static final String POINTS_JSON =
+            "[{\"id\":1,\"name\":\"Appleton Tower\",\"location\":{\"lng\":-3.1863,\"lat\":55.9446}}]";
+
+    private MockRestServiceServer server;
+    private IlpClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        client = new IlpClient(restTemplate, ENDPOINT, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("304 reuses the previously parsed object")
+    void testNotModifiedReusesValue() {
+        // Arrange
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(POINTS_JSON, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.LAST_MODIFIED, "Mon, 22 Dec 2025 10:00:00 GMT"));
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(header(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 22 Dec 2025 10:00:00 GMT"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // Act
+        List<ServicePoint> first = client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+        List<ServicePoint> second = client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+
+        // Assert
+        server.verify();
+        assertEquals("Appleton Tower", first.get(0).getName());
+        assertSame(first, second, "304 must return the same parsed instance");
+        assertEquals(1, client.getNotModifiedCount());
+        assertEquals(1, client.getDownloadCount());
+    }
+
+    @Test
+    @DisplayName("Gzip bodies are decompressed")
+    void testGzipBody() throws IOException {
+        // Arrange
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andRespond(withSuccess(gzip(POINTS_JSON), MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        // Act
+        List<ServicePoint> points = client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+
+        // Assert
+        assertEquals(1, points.size());
+        assertEquals(-3.1863, points.get(0).getLocation().getLng(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Responses without validators are not sent conditionally")
+    void testNoValidators() {
+        // Arrange
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andRespond(withSuccess(POINTS_JSON, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // Act
+        client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+        List<ServicePoint> second = client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+
+        // Assert
+        server.verify();
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    @DisplayName("An empty body is not revalidated and a stray 304 is fetched again")
+    void testNotModifiedWithoutCachedBody() {
+        // Arrange
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andRespond(withSuccess().header(HttpHeaders.ETAG, "\"v0\""));
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo(ENDPOINT + "service-points"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(POINTS_JSON, MediaType.APPLICATION_JSON));
+
+        // Act
+        List<ServicePoint> first = client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+        List<ServicePoint> second = client.get("service-points", new TypeReference<List<ServicePoint>>() {});
+
+        // Assert
+        server.verify();
+        assertNull(first);
+        assertEquals("Appleton Tower", second.get(0).getName());
+        assertEquals(0, client.getNotModifiedCount());
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.coursework1.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual ReferenceDataCache production class
+ *
+ * Requirement: PR2 (ILP latency), RR1 (serve last good data when ILP is unavailable)
+ */
+@DisplayName("UNIT: ReferenceDataCache Production Class")
+class ReferenceDataCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(100);
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Runnable> queued = new ArrayList<>();
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Manual clock and executor so refresh timing is deterministic
+        cache = new ReferenceDataCache(0.8, queued::add, now::get);
+    }
+
+    @Test
+    @DisplayName("Fresh entries are served without reloading")
+    void testFreshHit() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        String first = cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+        now.set(79_000);
+        String second = cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+
+        // Assert
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        assertEquals(1, loads.get());
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Refresh-ahead serves the stale value and reloads in the background once")
+    void testRefreshAhead() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+        now.set(90_000);
+
+        // Act
+        String during = cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+        String again = cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+        queued.forEach(Runnable::run);
+        String after = cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+
+        // Assert
+        assertEquals("v1", during);
+        assertEquals("v1", again);
+        assertEquals(1, queued.size(), "Only one background refresh should be queued");
+        assertEquals("v2", after);
+    }
+
+    @Test
+    @DisplayName("Expired entries reload synchronously and keep the stale value on failure")
+    void testExpiredFailureServesStale() {
+        // Arrange
+        cache.get("areas", TTL, () -> "good", "none");
+        now.set(150_000);
+
+        // Act
+        String result = cache.get("areas", TTL, () -> { throw new IllegalStateException("ILP down"); }, "none");
+
+        // Assert
+        assertEquals("good", result);
+    }
+
+    @Test
+    @DisplayName("A failed reload backs off, then retries in the background")
+    void testFailedReloadBacksOff() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        AtomicBoolean up = new AtomicBoolean(false);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            if (!up.get()) {
+                throw new IllegalStateException("ILP down");
+            }
+            return "fresh";
+        };
+        cache.get("areas", TTL, () -> "good", "none");
+        now.set(150_000);
+        cache.get("areas", TTL, loader, "none");
+
+        // Act
+        now.set(150_000 + ReferenceDataCache.DEFAULT_RETRY_BACKOFF.toMillis() - 1);
+        String withinBackoff = cache.get("areas", TTL, loader, "none");
+        int loadsWithinBackoff = loads.get();
+        now.set(150_000 + ReferenceDataCache.DEFAULT_RETRY_BACKOFF.toMillis());
+        up.set(true);
+        String afterBackoff = cache.get("areas", TTL, loader, "none");
+        queued.forEach(Runnable::run);
+        String refreshed = cache.get("areas", TTL, loader, "none");
+
+        // Assert
+        assertEquals("good", withinBackoff);
+        assertEquals(1, loadsWithinBackoff, "No reload while backing off");
+        assertEquals("good", afterBackoff, "Retry must not block the caller");
+        assertEquals(1, queued.size());
+        assertEquals("fresh", refreshed);
+    }
+
+    @Test
+    @DisplayName("First load failure returns the fallback and is retried")
+    void testFallbackOnFirstFailure() {
+        // Act
+        String failed = cache.get("points", TTL, () -> { throw new IllegalStateException("ILP down"); }, "none");
+        String retried = cache.get("points", TTL, () -> "loaded", "none");
+
+        // Assert
+        assertEquals("none", failed);
+        assertEquals("loaded", retried);
+    }
+
+    @Test
+    @DisplayName("Concurrent misses share a single upstream call")
+    void testSingleFlight() throws Exception {
+        // Arrange
+        ReferenceDataCache realCache = new ReferenceDataCache(0.8, Runnable::run, System::currentTimeMillis);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> slowLoader = () -> {
+            loads.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "value";
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> realCache.get("drones", TTL, slowLoader, "none")));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Invalidation forces a reload")
+    void testInvalidate() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+
+        // Act
+        boolean removed = cache.invalidate("drones");
+        boolean missing = cache.invalidate("unknown");
+        String reloaded = cache.get("drones", TTL, () -> "v" + loads.incrementAndGet(), "none");
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(missing);
+        assertEquals("v2", reloaded);
+        assertEquals(List.of("drones"), cache.invalidateAll());
+    }
+
+    @Test
+    @DisplayName("Seeded values are served at once and refreshed in the background")
+    void testSeededValue() {
+        // Arrange
+        assertTrue(cache.seed("drones", "snapshot"));
+        assertFalse(cache.seed("drones", "other"), "Seeding must not replace a present value");
+
+        // Act
+        String seeded = cache.get("drones", TTL, () -> "live", "none");
+        queued.forEach(Runnable::run);
+        String after = cache.get("drones", TTL, () -> "unexpected", "none");
+
+        // Assert
+        assertEquals("snapshot", seeded);
+        assertEquals(1, queued.size());
+        assertEquals("live", after);
+        assertEquals("live", cache.peek("drones"));
+    }
+
+    @Test
+    @DisplayName("A failed refresh of a seeded value backs off before retrying")
+    void testSeededRefreshBacksOff() {
+        // Arrange
+        cache.seed("areas", "snapshot");
+        Callable<String> failing = () -> { throw new IllegalStateException("ILP down"); };
+        cache.get("areas", TTL, failing, "none");
+        queued.forEach(Runnable::run);
+        queued.clear();
+
+        // Act
+        now.set(ReferenceDataCache.DEFAULT_RETRY_BACKOFF.toMillis() - 1);
+        String withinBackoff = cache.get("areas", TTL, failing, "none");
+        int queuedWithinBackoff = queued.size();
+        now.set(ReferenceDataCache.DEFAULT_RETRY_BACKOFF.toMillis());
+        String afterBackoff = cache.get("areas", TTL, () -> "live", "none");
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals("snapshot", withinBackoff);
+        assertEquals(0, queuedWithinBackoff, "No refresh while backing off");
+        assertEquals("snapshot", afterBackoff);
+        assertEquals("live", cache.peek("areas"));
+    }
+}
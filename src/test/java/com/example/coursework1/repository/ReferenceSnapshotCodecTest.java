@@ -0,0 +1,110 @@
+package com.example.coursework1.repository;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.ServicePoint;
+import com.example.coursework1.dto.ServicePointDrones;
+import com.example.coursework1.model.RestrictedArea;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual ReferenceSnapshotCodec and ReferenceSnapshotStore production classes
+ *
+ * Requirement: PR1 (cold-start latency), RR1 (serve last good data when ILP is unavailable)
+ */
+@DisplayName("UNIT: ReferenceSnapshotCodec Production Class")
+class ReferenceSnapshotCodecTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ReferenceSnapshot original;
+
+    @BeforeEach
+    void setUp() {
+        // Parse the bundled ILP fixtures as the reference content
+        FileIlpDataSource fixtures = new FileIlpDataSource(new DefaultResourceLoader(), mapper,
+                "classpath:ilp-fixtures/");
+        original = new ReferenceSnapshot(
+                fixtures.get("drones", new TypeReference<List<Drone>>() {}),
+                fixtures.get("service-points", new TypeReference<List<ServicePoint>>() {}),
+                fixtures.get("restricted-areas", new TypeReference<List<RestrictedArea>>() {}),
+                fixtures.get("drones-for-service-points", new TypeReference<List<ServicePointDrones>>() {}),
+                1_700_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Encode then decode reproduces every dataset")
+    void testRoundTrip() throws Exception {
+        // Act
+        ReferenceSnapshot decoded = ReferenceSnapshotCodec.decode(ByteBuffer.wrap(ReferenceSnapshotCodec.encode(original)));
+
+        // Assert - compare through JSON so every field is covered
+        assertEquals(original.writtenAt(), decoded.writtenAt());
+        assertEquals(mapper.writeValueAsString(original.drones()), mapper.writeValueAsString(decoded.drones()));
+        assertEquals(mapper.writeValueAsString(original.servicePoints()),
+                mapper.writeValueAsString(decoded.servicePoints()));
+        assertEquals(mapper.writeValueAsString(original.restrictedAreas()),
+                mapper.writeValueAsString(decoded.restrictedAreas()));
+        assertEquals(mapper.writeValueAsString(original.dronesForServicePoints()),
+                mapper.writeValueAsString(decoded.dronesForServicePoints()));
+    }
+
+    @Test
+    @DisplayName("Repeated drone ids decode to one shared instance")
+    void testIdsInterned() {
+        // Act
+        ReferenceSnapshot decoded = ReferenceSnapshotCodec.decode(ByteBuffer.wrap(ReferenceSnapshotCodec.encode(original)));
+
+        // Assert
+        String droneId = decoded.drones().get(0).getId();
+        String availabilityId = decoded.dronesForServicePoints().get(0).getDrones().get(0).getId();
+        assertEquals(droneId, availabilityId);
+        assertSame(droneId, availabilityId);
+    }
+
+    @Test
+    @DisplayName("Corrupt snapshots are rejected")
+    void testCorruptRejected() {
+        // Arrange
+        byte[] bytes = ReferenceSnapshotCodec.encode(original);
+        bytes[bytes.length / 2] ^= 0x5A;
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ReferenceSnapshotCodec.decode(ByteBuffer.wrap(bytes)));
+        assertThrows(IllegalArgumentException.class, () -> ReferenceSnapshotCodec.decode(ByteBuffer.wrap(new byte[32])));
+    }
+
+    @Test
+    @DisplayName("Store writes a snapshot and seeds a fresh cache from the mapped file")
+    void testStoreRestoresIntoCache(@TempDir Path dir) throws Exception {
+        // Arrange
+        ReferenceDataCache source = new ReferenceDataCache(0.8, Runnable::run, System::currentTimeMillis);
+        source.seed("drones", original.drones());
+        source.seed("service-points", original.servicePoints());
+        source.seed("restricted-areas", original.restrictedAreas());
+        source.seed("drones-for-service-points", original.dronesForServicePoints());
+        String file = dir.resolve("reference.snapshot").toString();
+
+        // Act
+        boolean written = new ReferenceSnapshotStore(source, file).save();
+        ReferenceDataCache restored = new ReferenceDataCache(0.8, task -> {}, System::currentTimeMillis);
+        new ReferenceSnapshotStore(restored, file).restore();
+
+        // Assert
+        assertTrue(written);
+        List<?> drones = (List<?>) restored.peek("drones");
+        assertNotNull(drones);
+        assertEquals(original.drones().size(), drones.size());
+        assertNotNull(restored.peek("drones-for-service-points"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedArea;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual AStarPathfinder production class
+ *
+ * Requirement: CR5 (move precision), CR6 (path validity), SR1 (no-fly compliance)
+ * Test Level: Unit (real RestrictedAreaService, mocked repository)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: AStarPathfinder Production Class")
+class AStarPathfinderTest {
+
+    private static final double STEP = 0.00015;
+    private static final double CLOSE_THRESHOLD = 0.00015;
+    private static final double TOLERANCE = 1e-9;
+
+    @Mock
+    private RestrictedAreaRepository mockRepository;
+
+    private RestrictedAreaService restrictedAreaService;
+    private AStarPathfinder pathfinder;
+
+    private RestrictedArea georgeSquare;
+
+    @BeforeEach
+    void setUp() {
+        // Create REAL services with mocked repository
+        restrictedAreaService = new RestrictedAreaService(mockRepository);
+        pathfinder = new AStarPathfinder(restrictedAreaService);
+
+        // George Square (approximate boundaries)
+        georgeSquare = new RestrictedArea();
+        georgeSquare.setName("George Square");
+        georgeSquare.setId(1);
+        georgeSquare.setVertices(Arrays.asList(
+                new Position(-3.1895, 55.9435),
+                new Position(-3.1875, 55.9435),
+                new Position(-3.1875, 55.9455),
+                new Position(-3.1895, 55.9455),
+                new Position(-3.1895, 55.9435)
+        ));
+    }
+
+    @Test
+    @DisplayName("Open-space path reaches target within accuracy threshold")
+    void testOpenSpacePathReachesTarget() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.1800, 55.9400);
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert
+        assertNotNull(path, "Path should be found in open space");
+        assertEquals(from.getLng(), path.get(0).getLng(), TOLERANCE);
+        assertEquals(from.getLat(), path.get(0).getLat(), TOLERANCE);
+        assertTrue(distance(path.get(path.size() - 1), to) < CLOSE_THRESHOLD,
+                "Last point must be within accuracy threshold of target");
+    }
+
+    @Test
+    @DisplayName("Every move is exactly one step along a 22.5 degree multiple")
+    void testAllMovesAreLegalCompassSteps() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.1830, 55.9470);
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert
+        assertNotNull(path);
+        for (int i = 0; i < path.size() - 1; i++) {
+            double dx = path.get(i + 1).getLng() - path.get(i).getLng();
+            double dy = path.get(i + 1).getLat() - path.get(i).getLat();
+            assertEquals(STEP, Math.sqrt(dx * dx + dy * dy), TOLERANCE, "Move " + i + " must be one step");
+
+            double angle = (Math.toDegrees(Math.atan2(dy, dx)) + 360) % 360;
+            double ratio = angle / 22.5;
+            assertEquals(Math.round(ratio), ratio, 1e-6, "Move " + i + " must be a compass direction");
+        }
+    }
+
+    @Test
+    @DisplayName("Open-space path is no longer than the 16-direction lower bound allows")
+    void testOpenSpacePathIsShortest() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.1800, 55.9400);
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert - heuristic is a lower bound, so optimal length is within one move of it
+        double lowerBound = AStarPathfinder.heuristic(from.getLng(), from.getLat(), to.getLng(), to.getLat());
+        int moves = path.size() - 1;
+        assertTrue(moves >= Math.floor(lowerBound), "Heuristic must never overestimate");
+        assertTrue(moves <= Math.ceil(lowerBound) + 2, "Open-space path should be near optimal, was " + moves);
+    }
+
+    @Test
+    @DisplayName("Path around George Square never enters or crosses the no-fly zone")
+    void testPathAvoidsRestrictedArea() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of(georgeSquare));
+        Position from = new Position(-3.1905, 55.9445);  // West of George Square
+        Position to = new Position(-3.1865, 55.9445);    // East of George Square
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert
+        assertNotNull(path, "Path around the square should be found");
+        assertTrue(distance(path.get(path.size() - 1), to) < CLOSE_THRESHOLD);
+        for (int i = 0; i < path.size() - 1; i++) {
+            Position a = new Position(path.get(i).getLng(), path.get(i).getLat());
+            Position b = new Position(path.get(i + 1).getLng(), path.get(i + 1).getLat());
+            assertFalse(restrictedAreaService.pathCrossesRestrictedArea(a, b),
+                    "Move " + i + " crosses George Square");
+        }
+    }
+
+    @Test
+    @DisplayName("Target deep inside restricted area fails fast")
+    void testTargetInsideRestrictedAreaFails() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of(georgeSquare));
+        Position from = new Position(-3.1905, 55.9445);
+        Position to = new Position(-3.1885, 55.9445);    // Centre of George Square
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert
+        assertNull(path, "Unreachable target should return null");
+    }
+
+    @Test
+    @DisplayName("Start already close to target returns single-point path")
+    void testStartAlreadyAtTarget() {
+        // Arrange
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.18691, 55.94451);
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert
+        assertEquals(1, path.size());
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("Null endpoints return null")
+    void testNullEndpoints() {
+        assertNull(pathfinder.findPath(null, new Position(-3.18, 55.94)));
+        assertNull(pathfinder.findPath(new Position(-3.18, 55.94), null));
+    }
+
+    @Test
+    @DisplayName("Restricted areas are looked up once per search, not once per segment")
+    void testAreasResolvedOncePerSearch() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of(georgeSquare));
+        Position from = new Position(-3.1910, 55.9445);
+        Position to = new Position(-3.1860, 55.9445);
+
+        // Act
+        List<LngLat> path = pathfinder.findPath(from, to);
+
+        // Assert
+        assertNotNull(path, "Path around George Square should be found");
+        assertTrue(path.size() > 2, "Search should have checked many segments");
+        verify(mockRepository, times(1)).fetchRestrictedAreas();
+    }
+
+    private double distance(LngLat a, Position b) {
+        double dx = a.getLng() - b.getLng();
+        double dy = a.getLat() - b.getLat();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
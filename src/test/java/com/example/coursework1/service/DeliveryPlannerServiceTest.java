@@ -0,0 +1,365 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.*;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual DeliveryPlannerService production class
+ *
+ * Requirement: PR1 (planning throughput), CR6 (path validity)
+ * Test Level: Unit (real planner, pathfinders and RestrictedAreaService; mocked data services)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: DeliveryPlannerService Production Class")
+class DeliveryPlannerServiceTest {
+
+    private static final double BASE_LNG = -3.1863580788986368;
+    private static final double BASE_LAT = 55.94468066708487;
+
+    @Mock
+    private DroneService droneService;
+    @Mock
+    private ServicePointService servicePointService;
+    @Mock
+    private RestrictedAreaRepository restrictedAreaRepository;
+
+    private ForkJoinPool pool;
+    private AStarPathfinder pathfinder;
+    private DeliveryPlannerService planner;
+
+    @BeforeEach
+    void setUp() {
+        // Create REAL planner with real routing and availability, mocked data sources
+        RestrictedAreaService restrictedAreaService = new RestrictedAreaService(restrictedAreaRepository);
+        pathfinder = spy(new AStarPathfinder(restrictedAreaService));
+        DroneAvailabilityService droneAvailabilityService = new DroneAvailabilityService(droneService);
+        FleetSnapshotService fleetSnapshotService = new FleetSnapshotService(droneService, servicePointService,
+                droneAvailabilityService, restrictedAreaService, Duration.ofSeconds(5));
+        pool = new ForkJoinPool(4);
+        planner = new DeliveryPlannerService(fleetSnapshotService, restrictedAreaService,
+                droneAvailabilityService, new DistanceMatrixService(restrictedAreaService, pathfinder,
+                        new VisibilityGraphRouter(restrictedAreaService, pathfinder),
+                        new LegPathCache(restrictedAreaService, 0), pool, 0), pool);
+
+        List<Drone> drones = List.of(
+                drone("1", 4, false, false),
+                drone("2", 4, false, false),
+                drone("3", 4, true, false),
+                drone("4", 4, true, true));
+
+        when(restrictedAreaRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        when(droneService.fetchAllDrones()).thenReturn(drones);
+        when(droneService.fetchDronesForServicePoints()).thenReturn(List.of());
+        when(servicePointService.fetchAllServicePoints()).thenReturn(List.of(servicePoint()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Parallel planning places every dispatch exactly once")
+    void testParallelPlacesAllDispatches() {
+        // Arrange
+        List<MedDispatchRec> dispatches = dispatches();
+        PlanningOptions options = new PlanningOptions();
+        options.setParallel(true);
+
+        // Act
+        CalcDeliveryResult result = planner.calcDeliveryPath(dispatches, options);
+
+        // Assert
+        List<Integer> placed = new ArrayList<>();
+        for (DronePathResult path : result.getDronePaths()) {
+            path.getDeliveries().forEach(d -> placed.add(d.getDeliveryId()));
+        }
+        assertEquals(dispatches.size(), placed.size(), "Every dispatch should be placed");
+        assertEquals(dispatches.size(), placed.stream().distinct().count(), "No dispatch placed twice");
+        assertTrue(result.getDronePaths().size() > 1, "Work should be spread over several drones");
+    }
+
+    @Test
+    @DisplayName("Parallel planning is deterministic across runs")
+    void testParallelIsDeterministic() {
+        // Arrange
+        PlanningOptions options = new PlanningOptions();
+        options.setParallel(true);
+
+        // Act
+        CalcDeliveryResult first = planner.calcDeliveryPath(dispatches(), options);
+        CalcDeliveryResult second = planner.calcDeliveryPath(dispatches(), options);
+
+        // Assert
+        assertEquals(first.getTotalMoves(), second.getTotalMoves());
+        assertEquals(first.getTotalCost(), second.getTotalCost(), 1e-9);
+        assertEquals(first.getDronePaths().size(), second.getDronePaths().size());
+        for (int i = 0; i < first.getDronePaths().size(); i++) {
+            DronePathResult a = first.getDronePaths().get(i);
+            DronePathResult b = second.getDronePaths().get(i);
+            assertEquals(a.getDroneId(), b.getDroneId());
+            assertEquals(a.getDeliveries().stream().map(DeliveryResult::getDeliveryId).toList(),
+                    b.getDeliveries().stream().map(DeliveryResult::getDeliveryId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Cooling dispatches are only assigned to cooling drones")
+    void testRequirementClassesRespected() {
+        // Arrange
+        PlanningOptions options = new PlanningOptions();
+        options.setParallel(true);
+
+        // Act
+        CalcDeliveryResult result = planner.calcDeliveryPath(dispatches(), options);
+
+        // Assert
+        for (DronePathResult path : result.getDronePaths()) {
+            for (DeliveryResult delivery : path.getDeliveries()) {
+                if (delivery.getDeliveryId() >= 100) {
+                    assertTrue(List.of("3", "4").contains(path.getDroneId()),
+                            "Cooling dispatch " + delivery.getDeliveryId() + " on drone " + path.getDroneId());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Fleet data is fetched once per planning request")
+    void testSingleFleetFetchPerRequest() {
+        // Act
+        planner.calcDeliveryPath(dispatches());
+
+        // Assert
+        verify(droneService, times(1)).fetchAllDrones();
+        verify(droneService, times(1)).fetchDronesForServicePoints();
+        verify(servicePointService, times(1)).fetchAllServicePoints();
+    }
+
+    @Test
+    @DisplayName("Every leg of a request is planned against the snapshot's restricted areas")
+    void testLegsUseSnapshotAreas() {
+        // Act
+        CalcDeliveryResult result = planner.calcDeliveryPath(dispatches());
+
+        // Assert
+        assertFalse(result.getDronePaths().isEmpty());
+        verify(restrictedAreaRepository, times(1)).fetchRestrictedAreas();
+    }
+
+    @Test
+    @DisplayName("Multi-base planning launches each drone from its own service point")
+    void testMultiBaseUsesHomeBases() {
+        // Arrange - two bases ~240 moves apart, two drones and three dispatches at each
+        double farLat = BASE_LAT + 0.036;
+        when(servicePointService.fetchAllServicePoints())
+                .thenReturn(List.of(servicePoint(1, BASE_LAT), servicePoint(2, farLat)));
+        when(droneService.fetchDronesForServicePoints())
+                .thenReturn(List.of(listing(1, "1", "2"), listing(2, "3", "4")));
+
+        List<MedDispatchRec> recs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            recs.add(new MedDispatchRec(10 + i, "2025-12-22", "14:30", new Requirements(1.5, false, false, null),
+                    new Position(BASE_LNG + 0.001 * (i + 1), BASE_LAT + 0.001)));
+            recs.add(new MedDispatchRec(20 + i, "2025-12-22", "14:30", new Requirements(1.5, false, false, null),
+                    new Position(BASE_LNG + 0.001 * (i + 1), farLat - 0.001)));
+        }
+        PlanningOptions multiBase = new PlanningOptions();
+        multiBase.setMultiBase(true);
+
+        // Act
+        CalcDeliveryResult single = planner.calcDeliveryPath(new ArrayList<>(recs), new PlanningOptions());
+        CalcDeliveryResult multi = planner.calcDeliveryPath(new ArrayList<>(recs), multiBase);
+
+        // Assert
+        long placed = multi.getDronePaths().stream().mapToLong(p -> p.getDeliveries().size()).sum();
+        assertEquals(recs.size(), placed, "Every dispatch should be placed");
+        for (DronePathResult path : multi.getDronePaths()) {
+            double homeLat = List.of("1", "2").contains(path.getDroneId()) ? BASE_LAT : farLat;
+            LngLat launch = path.getDeliveries().get(0).getFlightPath().get(0);
+            assertEquals(homeLat, launch.getLat(), 1e-9, "Drone " + path.getDroneId() + " launch point");
+            for (DeliveryResult delivery : path.getDeliveries()) {
+                assertEquals(homeLat == BASE_LAT, delivery.getDeliveryId() < 20,
+                        "Dispatch " + delivery.getDeliveryId() + " on drone " + path.getDroneId());
+            }
+        }
+        assertTrue(multi.getTotalMoves() < single.getTotalMoves(),
+                "Multi-base " + multi.getTotalMoves() + " moves vs single-base " + single.getTotalMoves());
+    }
+
+    @Test
+    @DisplayName("Optimised planning places every dispatch once and costs no more than greedy")
+    void testOptimizedPlanning() {
+        // Arrange
+        PlanningOptions optimize = new PlanningOptions();
+        optimize.setOptimize(true);
+
+        // Act
+        CalcDeliveryResult greedy = planner.calcDeliveryPath(dispatches(), new PlanningOptions());
+        CalcDeliveryResult optimized = planner.calcDeliveryPath(dispatches(), optimize);
+
+        // Assert
+        List<Integer> placed = new ArrayList<>();
+        for (DronePathResult path : optimized.getDronePaths()) {
+            for (DeliveryResult delivery : path.getDeliveries()) {
+                placed.add(delivery.getDeliveryId());
+                if (delivery.getDeliveryId() >= 100) {
+                    assertTrue(List.of("3", "4").contains(path.getDroneId()),
+                            "Cooling dispatch " + delivery.getDeliveryId() + " on drone " + path.getDroneId());
+                }
+            }
+        }
+        assertEquals(dispatches().size(), placed.size(), "Every dispatch should be placed");
+        assertEquals(dispatches().size(), placed.stream().distinct().count(), "No dispatch placed twice");
+        assertTrue(optimized.getTotalCost() <= greedy.getTotalCost() + 1e-9,
+                "Optimised $" + optimized.getTotalCost() + " vs greedy $" + greedy.getTotalCost());
+    }
+
+    @Test
+    @DisplayName("A plan finished within its budget is flagged optimal and complete")
+    void testBudgetFlagsCompletePlan() {
+        // Arrange
+        PlanningOptions budget = new PlanningOptions();
+        budget.setMaxPlanningMillis(60_000L);
+
+        // Act
+        CalcDeliveryResult unlimited = planner.calcDeliveryPath(dispatches(), new PlanningOptions());
+        CalcDeliveryResult budgeted = planner.calcDeliveryPath(dispatches(), budget);
+
+        // Assert
+        assertNull(unlimited.getOptimal(), "No flags without a budget");
+        assertNull(unlimited.getPartial(), "No flags without a budget");
+        assertEquals(Boolean.TRUE, budgeted.getOptimal());
+        assertEquals(Boolean.FALSE, budgeted.getPartial());
+        assertEquals(unlimited.getTotalMoves(), budgeted.getTotalMoves());
+    }
+
+    @Test
+    @DisplayName("An exhausted budget returns the plan so far flagged partial")
+    void testExhaustedBudgetIsPartial() {
+        // Arrange - fetching the fleet alone takes longer than the budget
+        when(servicePointService.fetchAllServicePoints()).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return List.of(servicePoint());
+        });
+        PlanningOptions budget = new PlanningOptions();
+        budget.setMaxPlanningMillis(5L);
+
+        // Act
+        CalcDeliveryResult result = planner.calcDeliveryPath(dispatches(), budget);
+
+        // Assert
+        assertEquals(Boolean.FALSE, result.getOptimal());
+        assertEquals(Boolean.TRUE, result.getPartial());
+        long placed = result.getDronePaths().stream().mapToLong(p -> p.getDeliveries().size()).sum();
+        assertTrue(placed < dispatches().size(), "Planning should stop once the budget is spent");
+    }
+
+    @Test
+    @DisplayName("A dispatch whose legs overrun the budget is still placed")
+    void testSlowLegStillPlaced() {
+        // Arrange - the larger drone is tried first but cannot fly the round trip; each leg takes 150 ms
+        Drone shortRange = drone("1", 8, false, false);
+        shortRange.getCapability().setMaxMoves(10);
+        when(droneService.fetchAllDrones()).thenReturn(List.of(shortRange, drone("2", 4, false, false)));
+        doAnswer(invocation -> {
+            Thread.sleep(150);
+            return invocation.callRealMethod();
+        }).when(pathfinder).findPath(any(), any(), any());
+        PlanningOptions budget = new PlanningOptions(RoutingEngine.ASTAR);
+        budget.setMaxPlanningMillis(100L);
+        MedDispatchRec dispatch = new MedDispatchRec(1, "2025-12-22", "14:30",
+                new Requirements(1.0, false, false, null), new Position(BASE_LNG + 0.003, BASE_LAT));
+
+        // Act
+        CalcDeliveryResult result = planner.calcDeliveryPath(List.of(dispatch), budget);
+
+        // Assert
+        assertEquals(1, result.getDronePaths().size(), "The dispatch should be placed despite the budget");
+        assertEquals("2", result.getDronePaths().get(0).getDroneId());
+        assertEquals(Boolean.FALSE, result.getPartial());
+    }
+
+    private List<MedDispatchRec> dispatches() {
+        List<MedDispatchRec> recs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            double angle = Math.toRadians(i * 60);
+            Position p = new Position(BASE_LNG + 0.003 * Math.cos(angle), BASE_LAT + 0.002 * Math.sin(angle));
+            recs.add(new MedDispatchRec(i + 1, "2025-12-22", "14:30",
+                    new Requirements(1.0, false, false, null), p));
+        }
+        recs.add(new MedDispatchRec(100, "2025-12-22", "14:30",
+                new Requirements(1.0, true, false, null), new Position(BASE_LNG + 0.002, BASE_LAT + 0.001)));
+        recs.add(new MedDispatchRec(101, "2025-12-22", "14:30",
+                new Requirements(1.0, true, false, null), new Position(BASE_LNG - 0.002, BASE_LAT - 0.001)));
+        return recs;
+    }
+
+    private static Drone drone(String id, double capacity, boolean cooling, boolean heating) {
+        Capability capability = new Capability();
+        capability.setCapacity(capacity);
+        capability.setCooling(cooling);
+        capability.setHeating(heating);
+        capability.setMaxMoves(2000);
+        capability.setCostPerMove(0.01);
+        capability.setCostInitial(4.3);
+        capability.setCostFinal(6.5);
+
+        Drone drone = new Drone();
+        drone.setId(id);
+        drone.setName("Drone " + id);
+        drone.setCapability(capability);
+        return drone;
+    }
+
+    private static ServicePoint servicePoint() {
+        return servicePoint(1, BASE_LAT);
+    }
+
+    private static ServicePoint servicePoint(int id, double lat) {
+        ServicePoint.Location location = new ServicePoint.Location();
+        location.setLng(BASE_LNG);
+        location.setLat(lat);
+
+        ServicePoint servicePoint = new ServicePoint();
+        servicePoint.setId(id);
+        servicePoint.setName("Service point " + id);
+        servicePoint.setLocation(location);
+        return servicePoint;
+    }
+
+    private static ServicePointDrones listing(int servicePointId, String... droneIds) {
+        List<DroneWithAvailability> drones = new ArrayList<>();
+        for (String id : droneIds) {
+            TimeWindow window = new TimeWindow();
+            window.setDayOfWeek("MONDAY");
+            window.setFrom("00:00:00");
+            window.setUntil("23:59:59");
+            DroneWithAvailability drone = new DroneWithAvailability();
+            drone.setId(id);
+            drone.setAvailability(List.of(window));
+            drones.add(drone);
+        }
+        ServicePointDrones listing = new ServicePointDrones();
+        listing.setServicePointId(servicePointId);
+        listing.setDrones(drones);
+        return listing;
+    }
+}
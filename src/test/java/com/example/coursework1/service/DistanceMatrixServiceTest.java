@@ -0,0 +1,110 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.RoutingEngine;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual DistanceMatrixService production class
+ *
+ * Requirement: PR1 (planning latency)
+ * Test Level: Unit (real AStarPathfinder + RestrictedAreaService, mocked repository)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: DistanceMatrixService Production Class")
+class DistanceMatrixServiceTest {
+
+    private static final double STEP = 0.00015;
+
+    @Mock
+    private RestrictedAreaRepository mockRepository;
+
+    private AStarPathfinder pathfinder;
+    private ForkJoinPool pool;
+    private DistanceMatrixService service;
+
+    private final List<Position> points = List.of(
+            new Position(-3.1869, 55.9445),
+            new Position(-3.1840, 55.9430),
+            new Position(-3.1820, 55.9455));
+    private final Position newPoint = new Position(-3.1850, 55.9465);
+
+    @BeforeEach
+    void setUp() {
+        // Create REAL services with mocked repository; the leg cache is off so every plan is counted
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        RestrictedAreaService restrictedAreaService = new RestrictedAreaService(mockRepository);
+        pathfinder = spy(new AStarPathfinder(restrictedAreaService));
+        pool = new ForkJoinPool(4);
+        service = new DistanceMatrixService(restrictedAreaService, pathfinder,
+                new VisibilityGraphRouter(restrictedAreaService, pathfinder),
+                new LegPathCache(restrictedAreaService, 0), pool, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Adding a point plans only its row and column and matches a full rebuild")
+    void testAddPlansOneRowAndColumn() {
+        // Arrange
+        DistanceMatrixService.DistanceMatrix matrix = service.matrix(points, RoutingEngine.ASTAR);
+        clearInvocations(pathfinder);
+
+        // Act
+        int index = matrix.add(newPoint);
+
+        // Assert
+        verify(pathfinder, times(2 * points.size())).findPath(any(), any(), any());
+        assertEquals(0, matrix.moves(index, index));
+        assertEquals(points.size(), index);
+        assertEquals(points.size() + 1, matrix.size());
+
+        List<Position> all = List.of(points.get(0), points.get(1), points.get(2), newPoint);
+        for (int i = 0; i < all.size(); i++) {
+            for (int j = 0; j < all.size(); j++) {
+                if (i != j) {
+                    int planned = pathfinder.findPath(all.get(i), all.get(j)).size() - 1;
+                    assertEquals(planned, matrix.moves(i, j), "moves(" + i + ", " + j + ")");
+                    double dx = all.get(i).getLng() - all.get(j).getLng();
+                    double dy = all.get(i).getLat() - all.get(j).getLat();
+                    assertTrue(matrix.moves(i, j) >= Math.sqrt(dx * dx + dy * dy) / STEP - 1,
+                            "Leg cannot be shorter than the straight line");
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cached rows answer repeat requests without planning")
+    void testRowsAreCached() {
+        // Arrange
+        DistanceMatrixService.DistanceMatrix first = service.matrix(points, RoutingEngine.ASTAR);
+        clearInvocations(pathfinder);
+
+        // Act
+        DistanceMatrixService.DistanceMatrix second = service.matrix(points, RoutingEngine.ASTAR);
+        int single = service.moves(points.get(0), points.get(2), RoutingEngine.ASTAR);
+
+        // Assert
+        verify(pathfinder, never()).findPath(any(), any(), any());
+        assertEquals(first.moves(0, 2), second.moves(0, 2));
+        assertEquals(first.moves(0, 2), single);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.*;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual DroneDispatchService production class
+ *
+ * Requirement: FR4 (live single-delivery dispatch)
+ * Test Level: Unit (real planner and routing; mocked data services, messaging and scheduler)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: DroneDispatchService Production Class")
+class DroneDispatchServiceTest {
+
+    private static final double BASE_LNG = -3.1863580788986368;
+    private static final double BASE_LAT = 55.94468066708487;
+    private static final double FAR_LAT = BASE_LAT + 0.006;
+
+    @Mock
+    private DroneService droneService;
+    @Mock
+    private ServicePointService servicePointService;
+    @Mock
+    private RestrictedAreaRepository restrictedAreaRepository;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private MissionScheduler missionScheduler;
+    @Mock
+    private TelemetryAggregator telemetryAggregator;
+
+    private ForkJoinPool pool;
+    private AStarPathfinder pathfinder;
+    private DroneDispatchService dispatchService;
+
+    @BeforeEach
+    void setUp() {
+        // Create REAL planner and dispatcher with mocked data sources and no mission ticker
+        RestrictedAreaService restrictedAreaService = new RestrictedAreaService(restrictedAreaRepository);
+        pathfinder = spy(new AStarPathfinder(restrictedAreaService));
+        DroneAvailabilityService droneAvailabilityService = new DroneAvailabilityService(droneService);
+        FleetSnapshotService fleetSnapshotService = new FleetSnapshotService(droneService, servicePointService,
+                droneAvailabilityService, restrictedAreaService, Duration.ofSeconds(5));
+        pool = new ForkJoinPool(4);
+        DistanceMatrixService distanceMatrixService = new DistanceMatrixService(restrictedAreaService, pathfinder,
+                new VisibilityGraphRouter(restrictedAreaService, pathfinder),
+                new LegPathCache(restrictedAreaService, 0), pool, 0);
+        DeliveryPlannerService planner = new DeliveryPlannerService(fleetSnapshotService, restrictedAreaService,
+                droneAvailabilityService, distanceMatrixService, pool);
+        dispatchService = new DroneDispatchService(planner, fleetSnapshotService, messagingTemplate,
+                missionScheduler, telemetryAggregator, pool, distanceMatrixService, droneAvailabilityService);
+
+        // Two bases ~40 moves apart, one drone at each
+        when(restrictedAreaRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        when(droneService.fetchAllDrones()).thenReturn(List.of(drone("1"), drone("2")));
+        when(droneService.fetchDronesForServicePoints())
+                .thenReturn(List.of(listing(1, "1"), listing(2, "2")));
+        when(servicePointService.fetchAllServicePoints())
+                .thenReturn(List.of(servicePoint(1, BASE_LAT), servicePoint(2, FAR_LAT)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Missions never run here, so end them to release the drones they hold
+        ArgumentCaptor<MissionScheduler.Mission> missions = ArgumentCaptor.forClass(MissionScheduler.Mission.class);
+        verify(missionScheduler, atLeast(0)).submit(missions.capture());
+        missions.getAllValues().forEach(mission -> mission.failed(new IllegalStateException("test finished")));
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A delivery taken by a drone at another base is flown from that drone's base")
+    void testBusyNearestDroneFliesFromOwnBase() {
+        // Arrange - the first delivery occupies the drone at the nearby base
+        DroneDispatchService.DeliveryRequest nearBase = request(BASE_LAT + 0.001);
+        DroneDispatchService.DeliverySubmissionResult first = dispatchService.submitDelivery(nearBase);
+        verify(missionScheduler, timeout(10_000).times(1)).submit(any());
+
+        // Act
+        DroneDispatchService.DeliverySubmissionResult second = dispatchService.submitDelivery(request(BASE_LAT + 0.001));
+        verify(missionScheduler, timeout(10_000).times(2)).submit(any());
+
+        // Assert
+        assertEquals("1", first.getDroneId());
+        assertEquals("2", second.getDroneId());
+        DroneDispatchService.ActiveDroneState state = dispatchService.getActiveDrones().get("2");
+        assertNotNull(state, "Drone 2 should be flying");
+        List<LngLat> path = state.getFlightPath();
+        assertEquals(FAR_LAT, path.get(0).getLat(), 1e-9, "Launch from drone 2's own base");
+        assertEquals(FAR_LAT, path.get(path.size() - 1).getLat(), 0.00015, "Return to drone 2's own base");
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/delivery-status"),
+                argThat((Object update) -> update instanceof DroneDispatchService.DeliveryStatusUpdate status
+                        && "FAILED".equals(status.getStatus())));
+    }
+
+    @Test
+    @DisplayName("A delivery whose launch throws releases its drone and reports the failure")
+    void testLaunchFailureReleasesDrone() {
+        // Arrange
+        doThrow(new RejectedExecutionException("scheduler stopped")).when(missionScheduler).submit(any());
+
+        // Act
+        DroneDispatchService.DeliverySubmissionResult result = dispatchService.submitDelivery(request(BASE_LAT + 0.001));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        verify(messagingTemplate, timeout(10_000)).convertAndSend(eq("/topic/delivery-status"),
+                argThat((Object update) -> update instanceof DroneDispatchService.DeliveryStatusUpdate status
+                        && "FAILED".equals(status.getStatus())
+                        && result.getDroneId().equals(status.getDroneId())
+                        && status.getMessage().contains("scheduler stopped")));
+        assertFalse(dispatchService.getActiveDrones().containsKey(result.getDroneId()),
+                "The PENDING placeholder must not outlive the failure");
+    }
+
+    @Test
+    @DisplayName("Drone selection plans only the legs between each home and the delivery")
+    void testSelectionPlansHomeToTargetLegsOnly() {
+        // Act
+        DroneDispatchService.DeliverySubmissionResult result = dispatchService.submitDelivery(request(BASE_LAT + 0.001));
+        verify(missionScheduler, timeout(10_000)).submit(any());
+
+        // Assert
+        assertTrue(result.isSuccess());
+        Position near = new Position(BASE_LNG, BASE_LAT);
+        Position far = new Position(BASE_LNG, FAR_LAT);
+        verify(pathfinder, never()).findPath(eq(near), eq(far), any());
+        verify(pathfinder, never()).findPath(eq(far), eq(near), any());
+    }
+
+    @Test
+    @DisplayName("A batch whose planned drone is busy is re-planned from the replacement's own base")
+    void testBusyBatchDroneReplannedForReplacement() {
+        // Arrange - drone 1 is flying, but the batch is nearest its base, so the planner picks it
+        DroneDispatchService.DeliverySubmissionResult single = dispatchService.submitDelivery(request(BASE_LAT + 0.001));
+        verify(missionScheduler, timeout(10_000).times(1)).submit(any());
+        assertEquals("1", single.getDroneId());
+
+        // Act
+        Map<String, Object> response = dispatchService.submitBatch(
+                new BatchDeliveryRequest("batch-1", List.of(request(BASE_LAT + 0.001))));
+
+        // Assert
+        assertEquals(true, response.get("success"));
+        DroneDispatchService.ActiveDroneState state = dispatchService.getActiveDrones().get("2");
+        assertNotNull(state, "Drone 2 should replace busy drone 1");
+        List<LngLat> path = state.getFlightPath();
+        assertEquals(FAR_LAT, path.get(0).getLat(), 1e-9, "Launch from drone 2's own base");
+        assertEquals(FAR_LAT, path.get(path.size() - 1).getLat(), 0.00015, "Return to drone 2's own base");
+        assertTrue(path.size() - 1 <= drone("2").getCapability().getMaxMoves(), "Within drone 2's maxMoves");
+    }
+
+    private static DroneDispatchService.DeliveryRequest request(double lat) {
+        DroneDispatchService.DeliveryRequest request = new DroneDispatchService.DeliveryRequest();
+        request.setLatitude(lat);
+        request.setLongitude(BASE_LNG + 0.001);
+        request.setCapacity(1.0);
+        return request;
+    }
+
+    private static Drone drone(String id) {
+        Capability capability = new Capability();
+        capability.setCapacity(4);
+        capability.setMaxMoves(2000);
+        capability.setCostPerMove(0.01);
+        capability.setCostInitial(4.3);
+        capability.setCostFinal(6.5);
+
+        Drone drone = new Drone();
+        drone.setId(id);
+        drone.setName("Drone " + id);
+        drone.setCapability(capability);
+        return drone;
+    }
+
+    private static ServicePoint servicePoint(int id, double lat) {
+        ServicePoint.Location location = new ServicePoint.Location();
+        location.setLng(BASE_LNG);
+        location.setLat(lat);
+
+        ServicePoint servicePoint = new ServicePoint();
+        servicePoint.setId(id);
+        servicePoint.setName("Service point " + id);
+        servicePoint.setLocation(location);
+        return servicePoint;
+    }
+
+    private static ServicePointDrones listing(int servicePointId, String... droneIds) {
+        List<DroneWithAvailability> drones = new ArrayList<>();
+        for (String id : droneIds) {
+            List<TimeWindow> windows = new ArrayList<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                TimeWindow window = new TimeWindow();
+                window.setDayOfWeek(day.name());
+                window.setFrom("00:00:00");
+                window.setUntil("23:59:59");
+                windows.add(window);
+            }
+            DroneWithAvailability drone = new DroneWithAvailability();
+            drone.setId(id);
+            drone.setAvailability(windows);
+            drones.add(drone);
+        }
+        ServicePointDrones listing = new ServicePointDrones();
+        listing.setServicePointId(servicePointId);
+        listing.setDrones(drones);
+        return listing;
+    }
+}
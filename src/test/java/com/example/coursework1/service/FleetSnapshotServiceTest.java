@@ -0,0 +1,97 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.Drone;
+import com.example.coursework1.dto.ServicePoint;
+import com.example.coursework1.model.FleetSnapshot;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual FleetSnapshotService production class
+ *
+ * Requirement: PR1 (cold-start planning latency)
+ * Test Level: Unit (real availability and restricted-area services, mocked upstream fetches)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: FleetSnapshotService Production Class")
+class FleetSnapshotServiceTest {
+
+    private static final long FETCH_MILLIS = 300;
+
+    @Mock
+    private DroneService droneService;
+    @Mock
+    private ServicePointService servicePointService;
+    @Mock
+    private RestrictedAreaRepository restrictedAreaRepository;
+
+    private FleetSnapshotService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Independent fetches run concurrently")
+    void testFetchesOverlap() {
+        // Arrange - every upstream call takes FETCH_MILLIS
+        service = createService(Duration.ofSeconds(5));
+        when(droneService.fetchAllDrones()).thenAnswer(slow(List.of(new Drone())));
+        when(droneService.fetchDronesForServicePoints()).thenAnswer(slow(List.of()));
+        when(servicePointService.fetchAllServicePoints()).thenAnswer(slow(List.of(new ServicePoint())));
+        when(restrictedAreaRepository.fetchRestrictedAreas()).thenAnswer(slow(List.of()));
+
+        // Act
+        long start = System.nanoTime();
+        FleetSnapshot snapshot = service.capture();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert - serial would be at least 4 x FETCH_MILLIS
+        assertEquals(1, snapshot.getDrones().size());
+        assertEquals(1, snapshot.getServicePoints().size());
+        assertTrue(elapsed < 3 * FETCH_MILLIS, "Capture took " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("Overall deadline fails the capture")
+    void testDeadline() {
+        // Arrange
+        service = createService(Duration.ofMillis(100));
+        lenient().when(droneService.fetchAllDrones()).thenAnswer(slow(List.of()));
+        lenient().when(droneService.fetchDronesForServicePoints()).thenReturn(List.of());
+        lenient().when(servicePointService.fetchAllServicePoints()).thenReturn(List.of());
+        lenient().when(restrictedAreaRepository.fetchRestrictedAreas()).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.capture());
+    }
+
+    private FleetSnapshotService createService(Duration deadline) {
+        // Create REAL services with mocked fetches
+        return new FleetSnapshotService(droneService, servicePointService,
+                new DroneAvailabilityService(droneService),
+                new RestrictedAreaService(restrictedAreaRepository), deadline);
+    }
+
+    private static <T> Answer<T> slow(T value) {
+        return invocation -> {
+            Thread.sleep(FETCH_MILLIS);
+            return value;
+        };
+    }
+}
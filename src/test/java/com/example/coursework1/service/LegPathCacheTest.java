@@ -0,0 +1,145 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.dto.RoutingEngine;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual LegPathCache production class
+ *
+ * Requirement: PR1 (planning latency), CR6 (cached paths must still be valid)
+ * Test Level: Unit (real AStarPathfinder + RestrictedAreaService, mocked repository)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: LegPathCache Production Class")
+class LegPathCacheTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    @Mock
+    private RestrictedAreaRepository mockRepository;
+
+    private RestrictedAreaService restrictedAreaService;
+    private AStarPathfinder pathfinder;
+
+    private final Position clinic = new Position(-3.1869, 55.9445);
+    private final Position hospital = new Position(-3.1800, 55.9400);
+
+    @BeforeEach
+    void setUp() {
+        // Create REAL services with mocked repository
+        lenient().when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        restrictedAreaService = new RestrictedAreaService(mockRepository);
+        pathfinder = new AStarPathfinder(restrictedAreaService);
+    }
+
+    @Test
+    @DisplayName("Second request for the same leg is a hit with identical points")
+    void testRepeatLegIsHit() {
+        // Arrange
+        LegPathCache cache = new LegPathCache(restrictedAreaService, 16);
+        AtomicInteger plans = new AtomicInteger();
+
+        // Act
+        List<LngLat> first = cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR,
+                () -> { plans.incrementAndGet(); return pathfinder.findPath(clinic, hospital); });
+        List<LngLat> second = cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR,
+                () -> { plans.incrementAndGet(); return pathfinder.findPath(clinic, hospital); });
+
+        // Assert
+        assertEquals(1, plans.get(), "Router should only run once");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getLng(), second.get(i).getLng(), TOLERANCE);
+            assertEquals(first.get(i).getLat(), second.get(i).getLat(), TOLERANCE);
+        }
+    }
+
+    @Test
+    @DisplayName("New area version or engine misses")
+    void testVersionAndEngineAreKeyed() {
+        // Arrange
+        LegPathCache cache = new LegPathCache(restrictedAreaService, 16);
+        cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR, () -> pathfinder.findPath(clinic, hospital));
+
+        // Act
+        cache.getOrPlan(clinic, hospital, 2, RoutingEngine.ASTAR, () -> pathfinder.findPath(clinic, hospital));
+        cache.getOrPlan(clinic, hospital, 1, RoutingEngine.VISIBILITY, () -> pathfinder.findPath(clinic, hospital));
+
+        // Assert
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Failed plans are cached as failures")
+    void testFailureIsCached() {
+        // Arrange
+        LegPathCache cache = new LegPathCache(restrictedAreaService, 16);
+        AtomicInteger plans = new AtomicInteger();
+
+        // Act
+        cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR, () -> { plans.incrementAndGet(); return null; });
+        List<LngLat> again = cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR,
+                () -> { plans.incrementAndGet(); return null; });
+
+        // Assert
+        assertNull(again);
+        assertEquals(1, plans.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Least recently used leg is evicted when full")
+    void testLruEviction() {
+        // Arrange
+        LegPathCache cache = new LegPathCache(restrictedAreaService, 2);
+        Position other = new Position(-3.1860, 55.9450);
+        Position third = new Position(-3.1850, 55.9455);
+
+        // Act
+        cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR, () -> pathfinder.findPath(clinic, hospital));
+        cache.getOrPlan(other, hospital, 1, RoutingEngine.ASTAR, () -> pathfinder.findPath(other, hospital));
+        cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR, () -> pathfinder.findPath(clinic, hospital));
+        cache.getOrPlan(third, hospital, 1, RoutingEngine.ASTAR, () -> pathfinder.findPath(third, hospital));
+
+        // Assert - "other" was least recently used
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        AtomicInteger plans = new AtomicInteger();
+        cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR, () -> { plans.incrementAndGet(); return null; });
+        assertEquals(0, plans.get(), "Recently used leg should still be cached");
+    }
+
+    @Test
+    @DisplayName("Zero capacity disables caching")
+    void testDisabled() {
+        // Arrange
+        LegPathCache cache = new LegPathCache(restrictedAreaService, 0);
+        AtomicInteger plans = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            cache.getOrPlan(clinic, hospital, 1, RoutingEngine.ASTAR, () -> { plans.incrementAndGet(); return null; });
+        }
+
+        // Assert
+        assertEquals(3, plans.get());
+        assertEquals(0, cache.size());
+    }
+}
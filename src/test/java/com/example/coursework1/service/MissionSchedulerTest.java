@@ -0,0 +1,107 @@
+package com.example.coursework1.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual MissionScheduler production class
+ *
+ * Requirement: PR4 (concurrent mission simulation)
+ */
+@DisplayName("UNIT: MissionScheduler Production Class")
+class MissionSchedulerTest {
+
+    private MissionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // Long period so the background ticker never fires; ticks are driven by the test
+        scheduler = new MissionScheduler(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Hundreds of missions advance together on one tick")
+    void testManyMissionsAdvance() {
+        // Arrange
+        List<AtomicInteger> steps = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            steps.add(counter);
+            scheduler.submit(() -> counter.incrementAndGet() < 3 ? 0 : -1);
+        }
+
+        // Act
+        scheduler.tick();
+        int activeAfterFirst = scheduler.getActiveMissionCount();
+        scheduler.tick();
+        scheduler.tick();
+
+        // Assert
+        assertEquals(500, activeAfterFirst);
+        assertTrue(steps.stream().allMatch(c -> c.get() == 3));
+        assertEquals(0, scheduler.getActiveMissionCount());
+    }
+
+    @Test
+    @DisplayName("Missions are not stepped before their delay elapses")
+    void testDelayRespected() {
+        // Arrange
+        AtomicInteger steps = new AtomicInteger();
+        scheduler.submit(() -> {
+            steps.incrementAndGet();
+            return 60_000;
+        });
+
+        // Act
+        scheduler.tick();
+        scheduler.tick();
+
+        // Assert
+        assertEquals(1, steps.get());
+        assertEquals(1, scheduler.getActiveMissionCount());
+    }
+
+    @Test
+    @DisplayName("A failing mission is removed and notified without affecting others")
+    void testFailureIsolated() {
+        // Arrange
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicInteger healthySteps = new AtomicInteger();
+        scheduler.submit(new MissionScheduler.Mission() {
+            @Override
+            public long step() {
+                throw new IllegalStateException("boom");
+            }
+
+            @Override
+            public void failed(Exception e) {
+                failure.set(e);
+            }
+        });
+        scheduler.submit(() -> healthySteps.incrementAndGet() < 2 ? 0 : -1);
+
+        // Act
+        scheduler.tick();
+        scheduler.tick();
+
+        // Assert
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertEquals(2, healthySteps.get());
+        assertEquals(0, scheduler.getActiveMissionCount());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.CalcDeliveryResult;
+import com.example.coursework1.dto.PlanningOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual PlanImprovementService production class
+ *
+ * Requirement: PR1 (planning latency)
+ * Test Level: Unit (mocked planner, job service and messaging template)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: PlanImprovementService Production Class")
+class PlanImprovementServiceTest {
+
+    @Mock
+    private DeliveryPlannerService plannerService;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private PlanningJobService planningJobService;
+
+    private PlanImprovementService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PlanImprovementService(plannerService, messagingTemplate, planningJobService,
+                Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("A cut-short plan is re-planned with the larger budget and published")
+    void testCutShortPlanIsImproved() {
+        // Arrange
+        CalcDeliveryResult quick = flagged(false);
+        CalcDeliveryResult better = flagged(true);
+        when(plannerService.calcDeliveryPath(anyList(), any(PlanningOptions.class)))
+                .thenReturn(quick).thenReturn(better);
+        // Jobs run on the calling thread
+        when(planningJobService.submit(eq("improvement"), any())).thenAnswer(invocation -> {
+            ((Supplier<?>) invocation.getArgument(1)).get();
+            return null;
+        });
+        PlanningOptions options = new PlanningOptions();
+        options.setMaxPlanningMillis(100L);
+        options.setImprove(true);
+
+        // Act
+        CalcDeliveryResult result = service.plan(List.of(), options);
+
+        // Assert
+        assertNotNull(result.getImprovementId());
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq(PlanImprovementService.TOPIC), payload.capture());
+        PlanImprovementService.PlanImprovement improvement = (PlanImprovementService.PlanImprovement) payload.getValue();
+        assertEquals(result.getImprovementId(), improvement.improvementId());
+        assertSame(better, improvement.result());
+
+        ArgumentCaptor<PlanningOptions> budgets = ArgumentCaptor.forClass(PlanningOptions.class);
+        verify(plannerService, times(2)).calcDeliveryPath(anyList(), budgets.capture());
+        assertEquals(5000L, budgets.getAllValues().get(1).getMaxPlanningMillis());
+        assertFalse(budgets.getAllValues().get(1).isImprove());
+    }
+
+    @Test
+    @DisplayName("Plans that finished in time are not re-planned")
+    void testOptimalPlanIsNotImproved() {
+        // Arrange
+        when(plannerService.calcDeliveryPath(anyList(), any(PlanningOptions.class))).thenReturn(flagged(true));
+        PlanningOptions options = new PlanningOptions();
+        options.setMaxPlanningMillis(100L);
+        options.setImprove(true);
+
+        // Act
+        CalcDeliveryResult result = service.plan(List.of(), options);
+
+        // Assert
+        assertNull(result.getImprovementId());
+        verify(plannerService, times(1)).calcDeliveryPath(anyList(), any(PlanningOptions.class));
+        verifyNoInteractions(messagingTemplate);
+        verifyNoInteractions(planningJobService);
+    }
+
+    @Test
+    @DisplayName("Improvements are skipped while the planning jobs are saturated")
+    void testSaturatedJobsSkipImprovement() {
+        // Arrange
+        when(plannerService.calcDeliveryPath(anyList(), any(PlanningOptions.class))).thenReturn(flagged(false));
+        when(planningJobService.submit(eq("improvement"), any()))
+                .thenThrow(new RejectedExecutionException("queue full"));
+        PlanningOptions options = new PlanningOptions();
+        options.setMaxPlanningMillis(100L);
+        options.setImprove(true);
+
+        // Act
+        CalcDeliveryResult result = service.plan(List.of(), options);
+
+        // Assert
+        assertNull(result.getImprovementId(), "No id for an improvement that will never arrive");
+        assertEquals(Boolean.FALSE, result.getOptimal());
+        verify(plannerService, times(1)).calcDeliveryPath(anyList(), any(PlanningOptions.class));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    private static CalcDeliveryResult flagged(boolean optimal) {
+        CalcDeliveryResult result = new CalcDeliveryResult(0.0, 0, List.of());
+        result.setOptimal(optimal);
+        result.setPartial(!optimal);
+        return result;
+    }
+}
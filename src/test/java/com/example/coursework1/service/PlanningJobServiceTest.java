@@ -0,0 +1,130 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.service.PlanningJobService.JobEvent;
+import com.example.coursework1.service.PlanningJobService.JobView;
+import com.example.coursework1.service.PlanningJobService.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual PlanningJobService production class
+ *
+ * Requirement: PR1 (planning throughput under load)
+ * Test Level: Unit (real executor, mocked messaging template)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: PlanningJobService Production Class")
+class PlanningJobServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private PlanningJobService service;
+
+    @BeforeEach
+    void setUp() {
+        // One planning thread and room for one queued job
+        service = new PlanningJobService(messagingTemplate, 1, 1, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("A finished job can be polled for its result and announces completion")
+    void testJobCompletes() {
+        // Act
+        JobView submitted = service.submit("calcDeliveryPath", () -> "plan");
+
+        // Assert
+        assertNotNull(submitted.id());
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq(PlanningJobService.TOPIC), event.capture());
+        assertEquals(new JobEvent(submitted.id(), "calcDeliveryPath", Status.SUCCEEDED, null), event.getValue());
+
+        JobView polled = service.find(submitted.id()).orElseThrow();
+        assertEquals(Status.SUCCEEDED, polled.status());
+        assertEquals("plan", polled.result());
+        assertNotNull(polled.completedAt());
+        assertTrue(service.find("missing").isEmpty());
+    }
+
+    @Test
+    @DisplayName("A job that throws is reported as failed with its message")
+    void testJobFails() {
+        // Act
+        JobView submitted = service.submit("submitBatch", () -> {
+            throw new IllegalStateException("no drones");
+        });
+
+        // Assert
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq(PlanningJobService.TOPIC),
+                eq(new JobEvent(submitted.id(), "submitBatch", Status.FAILED, "no drones")));
+        JobView polled = service.find(submitted.id()).orElseThrow();
+        assertEquals(Status.FAILED, polled.status());
+        assertEquals("no drones", polled.error());
+        assertNull(polled.result());
+    }
+
+    @Test
+    @DisplayName("A job that throws an Error still finishes as failed and announces it")
+    void testJobErrorFails() {
+        // Act
+        JobView submitted = service.submit("calcDeliveryPath", () -> {
+            throw new StackOverflowError();
+        });
+
+        // Assert
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq(PlanningJobService.TOPIC),
+                eq(new JobEvent(submitted.id(), "calcDeliveryPath", Status.FAILED, "StackOverflowError")));
+        JobView polled = service.find(submitted.id()).orElseThrow();
+        assertEquals(Status.FAILED, polled.status());
+        assertNotNull(polled.completedAt());
+    }
+
+    @Test
+    @DisplayName("Jobs beyond the running and queued limit are rejected, not queued")
+    void testAdmissionControl() throws InterruptedException {
+        // Arrange - occupy the only thread and the only queue slot
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JobView running = service.submit("calcDeliveryPath", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "first";
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        JobView queued = service.submit("calcDeliveryPath", () -> "second");
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> service.submit("calcDeliveryPath", () -> "third"));
+        assertEquals(Status.RUNNING, service.find(running.id()).orElseThrow().status());
+        assertEquals(Status.QUEUED, service.find(queued.id()).orElseThrow().status());
+
+        release.countDown();
+        verify(messagingTemplate, timeout(2000).times(2)).convertAndSend(eq(PlanningJobService.TOPIC), any(Object.class));
+        assertEquals("second", service.find(queued.id()).orElseThrow().result());
+    }
+}
@@ -21,7 +21,7 @@ import static org.mockito.Mockito.*;
  * INTEGRATION TEST: Tests actual RestrictedAreaService production class
 
  * Requirement: SR1 - No-Fly Zone Compliance
- * Test Level: Integration (tests service + repository + region service interaction)
+ * Test Level: Integration (tests service + repository + prepared polygon interaction)
  * Coverage Target: 85-90% of RestrictedAreaService
  */
 @ExtendWith(MockitoExtension.class)
@@ -31,7 +31,6 @@ class RestrictedAreaServiceIntegrationTest {
     @Mock
     private RestrictedAreaRepository mockRepository;
 
-    private RegionService regionService;
     private RestrictedAreaService restrictedAreaService;
 
     // George Square test data
@@ -40,11 +39,8 @@ class RestrictedAreaServiceIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        // Create REAL RegionService (not mocked)
-        regionService = new RegionService();
-
         // Create REAL RestrictedAreaService with mocked repository
-        restrictedAreaService = new RestrictedAreaService(mockRepository, regionService);
+        restrictedAreaService = new RestrictedAreaService(mockRepository);
 
         // Setup George Square test data (approximate boundaries)
         georgeSquareVertices = Arrays.asList(
@@ -0,0 +1,108 @@
+package com.example.coursework1.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UNIT TEST: Tests actual RouteOptimizer production class
+ *
+ * Requirement: PR1 (planning throughput)
+ * Test Level: Unit (synthetic move matrices)
+ */
+@DisplayName("UNIT: RouteOptimizer Production Class")
+class RouteOptimizerTest {
+
+    @Test
+    @DisplayName("Savings merge stops into as few flights as capacity allows")
+    void testSavingsRespectCapacity() {
+        // Arrange - six stops on a line 10..60 moves from the base, capacity for three per flight
+        int[][] cost = lineMatrix(6);
+        List<RouteOptimizer.Stop> stops = stops(6, 1.0, false);
+        RouteOptimizer optimizer = new RouteOptimizer(cost, stops,
+                List.of(new RouteOptimizer.VehicleType(3.0, 1000, false, false)), 1000);
+
+        // Act
+        List<List<Integer>> routes = optimizer.solve(System.nanoTime() + 1_000_000_000L);
+
+        // Assert
+        assertEquals(2, routes.size(), "Six unit stops need two flights of capacity three");
+        assertAllStopsOnce(routes, 6);
+        for (List<Integer> route : routes) {
+            assertTrue(route.size() <= 3, "Route over capacity: " + route);
+            assertTrue(optimizer.feasible(route));
+        }
+    }
+
+    @Test
+    @DisplayName("Local search removes detours and respects maxMoves")
+    void testLocalSearchImprovesAndRespectsMoves() {
+        // Arrange
+        int[][] cost = lineMatrix(4);
+        List<RouteOptimizer.Stop> stops = stops(4, 1.0, false);
+        RouteOptimizer optimizer = new RouteOptimizer(cost, stops,
+                List.of(new RouteOptimizer.VehicleType(10.0, 80, false, false)), 1000);
+        List<Integer> zigzag = List.of(4, 1, 3, 2);
+
+        // Act
+        List<List<Integer>> routes = optimizer.solve(System.nanoTime() + 1_000_000_000L);
+
+        // Assert
+        assertAllStopsOnce(routes, 4);
+        assertEquals(1, routes.size(), "All four stops fit one out-and-back flight");
+        assertEquals(80, optimizer.moves(routes.get(0)), "Out to the furthest stop and back");
+        assertTrue(optimizer.moves(zigzag) > 80);
+        assertFalse(optimizer.feasible(zigzag), "Zigzag exceeds maxMoves");
+    }
+
+    @Test
+    @DisplayName("Stops needing cooling are only grouped into flights a cooling drone can fly")
+    void testRequirementsRespected() {
+        // Arrange - cooling drones are small, so a cooling stop cannot join a full standard flight
+        int[][] cost = lineMatrix(4);
+        List<RouteOptimizer.Stop> stops = new ArrayList<>(stops(4, 1.0, false));
+        stops.set(0, new RouteOptimizer.Stop(1.0, true, false));
+        RouteOptimizer optimizer = new RouteOptimizer(cost, stops, List.of(
+                new RouteOptimizer.VehicleType(4.0, 1000, false, false),
+                new RouteOptimizer.VehicleType(1.0, 1000, true, false)), 1000);
+
+        // Act
+        List<List<Integer>> routes = optimizer.solve(System.nanoTime() + 1_000_000_000L);
+
+        // Assert
+        assertAllStopsOnce(routes, 4);
+        assertTrue(routes.contains(List.of(1)), "Cooling stop must fly alone: " + routes);
+    }
+
+    /** Stops i = 1..n at 10*i moves along a line from the base, one hover included. */
+    private static int[][] lineMatrix(int n) {
+        int[][] cost = new int[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                cost[i][j] = i == j ? 0 : 10 * Math.abs(i - j);
+            }
+        }
+        return cost;
+    }
+
+    private static List<RouteOptimizer.Stop> stops(int n, double demand, boolean cooling) {
+        List<RouteOptimizer.Stop> stops = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            stops.add(new RouteOptimizer.Stop(demand, cooling, false));
+        }
+        return stops;
+    }
+
+    private static void assertAllStopsOnce(List<List<Integer>> routes, int n) {
+        List<Integer> seen = routes.stream().flatMap(List::stream).sorted().toList();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, seen);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.model.Polyline;
+import com.example.coursework1.service.DroneDispatchService.DroneUpdate;
+import com.example.coursework1.service.TelemetryAggregator.FleetFrame;
+import com.example.coursework1.service.TelemetryAggregator.RouteRegistration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual TelemetryAggregator production class
+ *
+ * Requirement: PR4 (telemetry fan-out independent of fleet size)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: TelemetryAggregator Production Class")
+class TelemetryAggregatorTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private TelemetryAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        // Unscheduled aggregator: frames are flushed by the test
+        aggregator = new TelemetryAggregator(messagingTemplate, TelemetryAggregator.Encoding.FULL, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Many steps of many drones become one frame with the latest position each")
+    void testCoalescesIntoOneFrame() {
+        // Arrange
+        for (int step = 0; step < 5; step++) {
+            for (int drone = 1; drone <= 50; drone++) {
+                aggregator.publish(update(String.valueOf(drone), step));
+            }
+        }
+
+        // Act
+        boolean sent = aggregator.flush();
+
+        // Assert
+        assertTrue(sent);
+        ArgumentCaptor<FleetFrame> frame = ArgumentCaptor.forClass(FleetFrame.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(TelemetryAggregator.FRAME_TOPIC), frame.capture());
+        assertEquals(50, frame.getValue().drones().size());
+        assertTrue(frame.getValue().drones().stream().allMatch(u -> u.getLatitude() == 4));
+    }
+
+    @Test
+    @DisplayName("Route from a superseded first step is carried into the frame")
+    void testRouteCarriedForward() {
+        // Arrange
+        DroneUpdate first = update("7", 0);
+        first.setRoute(List.of(List.of(55.9, -3.18), List.of(55.91, -3.17)));
+        aggregator.publish(first);
+        aggregator.publish(update("7", 1));
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        ArgumentCaptor<FleetFrame> frame = ArgumentCaptor.forClass(FleetFrame.class);
+        verify(messagingTemplate).convertAndSend(eq(TelemetryAggregator.FRAME_TOPIC), frame.capture());
+        DroneUpdate sent = frame.getValue().drones().get(0);
+        assertEquals(1, sent.getLatitude());
+        assertEquals(first.getRoute(), sent.getRoute());
+    }
+
+    @Test
+    @DisplayName("Nothing is sent when no drone moved")
+    void testEmptyFrameSkipped() {
+        // Act & Assert
+        assertFalse(aggregator.flush());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Delta encoding registers the route once and then sends step indices only")
+    void testDeltaEncoding() {
+        // Arrange
+        TelemetryAggregator delta = new TelemetryAggregator(messagingTemplate, TelemetryAggregator.Encoding.DELTA, false);
+        List<List<Double>> route = List.of(List.of(55.944681, -3.186358), List.of(55.944801, -3.186358),
+                List.of(55.944921, -3.186238));
+        DroneUpdate first = update("7", 0);
+        first.setMissionId(42);
+        first.setStepIndex(0);
+        first.setRoute(route);
+        DroneUpdate second = update("7", 1);
+        second.setMissionId(42);
+        second.setStepIndex(1);
+        second.setStatus("DELIVERING");
+
+        // Act
+        delta.publish(first);
+        delta.publish(second);
+        delta.flush();
+        delta.shutdown();
+
+        // Assert
+        ArgumentCaptor<RouteRegistration> registration = ArgumentCaptor.forClass(RouteRegistration.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(TelemetryAggregator.ROUTE_TOPIC), registration.capture());
+        List<double[]> decoded = Polyline.decode(registration.getValue().route(), registration.getValue().precision());
+        assertEquals(route.size(), decoded.size());
+        for (int i = 0; i < route.size(); i++) {
+            assertEquals(route.get(i).get(0), decoded.get(i)[0], 1e-6);
+            assertEquals(route.get(i).get(1), decoded.get(i)[1], 1e-6);
+        }
+        assertEquals(1, delta.getActiveRoutes().size());
+
+        ArgumentCaptor<FleetFrame> frame = ArgumentCaptor.forClass(FleetFrame.class);
+        verify(messagingTemplate).convertAndSend(eq(TelemetryAggregator.FRAME_TOPIC), frame.capture());
+        assertNull(frame.getValue().drones());
+        assertEquals(1, frame.getValue().steps().size());
+        assertArrayEquals(new int[]{42, 1, TelemetryAggregator.STATUSES.indexOf("DELIVERING"), 0},
+                frame.getValue().steps().get(0));
+    }
+
+    @Test
+    @DisplayName("A mission that ends without a COMPLETED step is no longer an active route")
+    void testFailedMissionRouteReleased() {
+        // Arrange
+        TelemetryAggregator delta = new TelemetryAggregator(messagingTemplate, TelemetryAggregator.Encoding.DELTA, false);
+        DroneUpdate first = update("7", 0);
+        first.setMissionId(42);
+        first.setStepIndex(0);
+        first.setRoute(List.of(List.of(55.944681, -3.186358), List.of(55.944801, -3.186358)));
+        delta.publish(first);
+        delta.flush();
+
+        // Act
+        delta.endMission(42);
+        delta.shutdown();
+
+        // Assert
+        assertTrue(delta.getActiveRoutes().isEmpty());
+    }
+
+    private static DroneUpdate update(String droneId, int step) {
+        DroneUpdate update = new DroneUpdate();
+        update.setDroneId(droneId);
+        update.setLatitude(step);
+        update.setLongitude(step);
+        update.setStatus("FLYING");
+        return update;
+    }
+}
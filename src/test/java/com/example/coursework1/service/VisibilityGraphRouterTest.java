@@ -0,0 +1,168 @@
+package com.example.coursework1.service;
+
+import com.example.coursework1.dto.LngLat;
+import com.example.coursework1.model.Position;
+import com.example.coursework1.model.RestrictedArea;
+import com.example.coursework1.model.RestrictedAreaIndex;
+import com.example.coursework1.repository.RestrictedAreaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UNIT TEST: Tests actual VisibilityGraphRouter production class
+ *
+ * Requirement: CR5 (move precision), CR6 (path validity), SR1 (no-fly compliance)
+ * Test Level: Unit (real RestrictedAreaService + AStarPathfinder, mocked repository)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UNIT: VisibilityGraphRouter Production Class")
+class VisibilityGraphRouterTest {
+
+    private static final double STEP = 0.00015;
+    private static final double CLOSE_THRESHOLD = 0.00015;
+    private static final double TOLERANCE = 1e-9;
+
+    @Mock
+    private RestrictedAreaRepository mockRepository;
+
+    private RestrictedAreaService restrictedAreaService;
+    private VisibilityGraphRouter router;
+
+    private RestrictedArea georgeSquare;
+    private RestrictedArea meadowsWall;
+
+    @BeforeEach
+    void setUp() {
+        // Create REAL services with mocked repository
+        restrictedAreaService = new RestrictedAreaService(mockRepository);
+        router = new VisibilityGraphRouter(restrictedAreaService, new AStarPathfinder(restrictedAreaService));
+
+        // George Square (approximate boundaries)
+        georgeSquare = area("George Square",
+                -3.1895, 55.9435, -3.1875, 55.9435, -3.1875, 55.9455, -3.1895, 55.9455);
+
+        // Long thin north-south wall west of George Square
+        meadowsWall = area("Meadows Wall",
+                -3.1950, 55.9400, -3.1930, 55.9400, -3.1930, 55.9500, -3.1950, 55.9500);
+    }
+
+    @Test
+    @DisplayName("Long leg around a wall reaches target with legal moves only")
+    void testLongLegAroundWall() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of(georgeSquare, meadowsWall));
+        Position from = new Position(-3.1869, 55.9445);  // East of George Square
+        Position to = new Position(-3.1990, 55.9445);    // West of the wall
+
+        // Act
+        List<LngLat> path = router.findPath(from, to);
+
+        // Assert
+        assertNotNull(path, "Route around the wall should be found");
+        assertEquals(from.getLng(), path.get(0).getLng(), TOLERANCE);
+        assertTrue(distance(path.get(path.size() - 1), to) < CLOSE_THRESHOLD);
+        assertLegalCompassMoves(path);
+    }
+
+    @Test
+    @DisplayName("Plans alternating between two area versions reuse both graphs")
+    void testGraphsKeptPerVersion() {
+        // Arrange - a plan pinned to the old areas while others use the reloaded ones
+        RestrictedAreaIndex previous = RestrictedAreaIndex.build(List.of(georgeSquare));
+        RestrictedAreaIndex current = RestrictedAreaIndex.build(List.of(georgeSquare, meadowsWall));
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.1990, 55.9445);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(router.findPath(from, to, previous));
+            assertNotNull(router.findPath(from, to, current));
+        }
+
+        // Assert
+        assertEquals(2, router.getGraphBuildCount());
+    }
+
+    @Test
+    @DisplayName("Unobstructed leg goes straight with a near-minimal move count")
+    void testStraightLeg() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of());
+        Position from = new Position(-3.1869, 55.9445);
+        Position to = new Position(-3.1700, 55.9350);
+
+        // Act
+        List<LngLat> path = router.findPath(from, to);
+
+        // Assert
+        assertNotNull(path);
+        double lowerBound = AStarPathfinder.heuristic(from.getLng(), from.getLat(), to.getLng(), to.getLat());
+        assertTrue(path.size() - 1 <= Math.ceil(lowerBound) + 2, "Straight leg should be near optimal");
+        assertLegalCompassMoves(path);
+    }
+
+    @Test
+    @DisplayName("Target inside a restricted area yields no route")
+    void testTargetInsideRestrictedArea() {
+        // Arrange
+        when(mockRepository.fetchRestrictedAreas()).thenReturn(List.of(georgeSquare));
+
+        // Act
+        List<LngLat> path = router.findPath(new Position(-3.1905, 55.9445), new Position(-3.1885, 55.9445));
+
+        // Assert
+        assertNull(path);
+    }
+
+    @Test
+    @DisplayName("Null endpoints return null")
+    void testNullEndpoints() {
+        assertNull(router.findPath(null, new Position(-3.18, 55.94)));
+        assertNull(router.findPath(new Position(-3.18, 55.94), null));
+    }
+
+    private void assertLegalCompassMoves(List<LngLat> path) {
+        for (int i = 0; i < path.size() - 1; i++) {
+            LngLat a = path.get(i), b = path.get(i + 1);
+            double dx = b.getLng() - a.getLng();
+            double dy = b.getLat() - a.getLat();
+            assertEquals(STEP, Math.sqrt(dx * dx + dy * dy), TOLERANCE, "Move " + i + " must be one step");
+
+            double angle = (Math.toDegrees(Math.atan2(dy, dx)) + 360) % 360;
+            assertEquals(Math.round(angle / 22.5), angle / 22.5, 1e-6, "Move " + i + " must be a compass direction");
+
+            assertFalse(restrictedAreaService.pathCrossesRestrictedArea(
+                    new Position(a.getLng(), a.getLat()), new Position(b.getLng(), b.getLat())),
+                    "Move " + i + " crosses a restricted area");
+        }
+    }
+
+    private static RestrictedArea area(String name, double... lngLat) {
+        Position[] vertices = new Position[lngLat.length / 2 + 1];
+        for (int i = 0; i < lngLat.length / 2; i++) {
+            vertices[i] = new Position(lngLat[2 * i], lngLat[2 * i + 1]);
+        }
+        vertices[vertices.length - 1] = vertices[0];
+
+        RestrictedArea area = new RestrictedArea();
+        area.setName(name);
+        area.setVertices(Arrays.asList(vertices));
+        return area;
+    }
+
+    private double distance(LngLat a, Position b) {
+        double dx = a.getLng() - b.getLng();
+        double dy = a.getLat() - b.getLat();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}